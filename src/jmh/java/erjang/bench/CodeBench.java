@@ -0,0 +1,136 @@
+/**
+ * This file is part of Erjang - A JVM-based Erlang VM
+ *
+ * Copyright (c) 2009 by Trifork
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *  
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+
+package erjang.bench;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import kilim.Pausable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import erjang.ApplySite;
+import erjang.EAtom;
+import erjang.EBinary;
+import erjang.EFun;
+import erjang.EModule;
+import erjang.EModuleLoader;
+import erjang.EModuleManager;
+import erjang.EObject;
+import erjang.EProc;
+import erjang.ERT;
+import erjang.FunID;
+import erjang.beam.EUtil;
+import erjang.beam.interpreter.Interpreter;
+import erjang.beam.loader.ErjangBeamDisLoader;
+
+/**
+ * Erlang code: fib:fibo/1 from src/main/erl, compiled to bytecode or
+ * run by the interpreter, called directly and through apply/3.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CodeBench {
+
+	static final EAtom fib = EAtom.intern("fib");
+	static final EAtom fibo = EAtom.intern("fibo");
+
+	/** fibo(N) calls per invocation of {@link #fibo()} */
+	static final int FIBO_BATCH = 10;
+
+	@Param({ "compiled", "interpreted" })
+	String mode;
+
+	@Param({ "15" })
+	int n;
+
+	EProc proc;
+	TaskRunner call, apply;
+
+	@Setup
+	public void setup() throws Exception {
+		EBinary beam = EUtil.readFile(new File("src/main/erl/fib.beam"));
+		if (mode.equals("compiled")) {
+			EModuleLoader.load_module("fib", beam);
+		} else {
+			// compiled code links to BIFs directly; interpreted code looks
+			// them up, and without OTP nobody has registered them
+			new ErlangBifs();
+			Interpreter.beamFileToEModule(new ErjangBeamDisLoader().load(beam.getByteArray()));
+		}
+		proc = new EProc(null, EAtom.intern("erlang"), EAtom.intern("self"), ERT.NIL);
+
+		final EFun fun = EModuleManager.resolve(new FunID(fib, fibo, 1));
+		final EObject[] args = new EObject[] { ERT.box(n) };
+		call = new TaskRunner(new TaskRunner.Body() {
+			public void run() throws Pausable {
+				fun.invoke(proc, args);
+			}
+		});
+
+		final ApplySite site = new ApplySite(1);
+		final EObject[] zero = new EObject[] { ERT.box(0) };
+		apply = new TaskRunner(new TaskRunner.Body() {
+			public void run() throws Pausable {
+				site.resolve(fib, fibo).invoke(proc, zero);
+			}
+		});
+	}
+
+	/** registers the BIFs of the erlang module, as loading erlang.beam would */
+	static class ErlangBifs extends EModule {
+		@Override
+		public String module_name() {
+			return "erlang";
+		}
+
+		@Override
+		public void registerImportsAndExports() throws Exception {
+			load_native_bifs();
+		}
+
+		@Override
+		public ClassLoader getModuleClassLoader() {
+			return EModule.class.getClassLoader();
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(FIBO_BATCH)
+	public void fibo() {
+		call.run(FIBO_BATCH);
+	}
+
+	/** apply(fib, fibo, [0]): call site lookup plus a trivial call */
+	@Benchmark
+	@OperationsPerInvocation(TaskRunner.BATCH)
+	public void apply() {
+		apply.run(TaskRunner.BATCH);
+	}
+}
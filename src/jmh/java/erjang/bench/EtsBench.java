@@ -0,0 +1,98 @@
+/**
+ * This file is part of Erjang - A JVM-based Erlang VM
+ *
+ * Copyright (c) 2009 by Trifork
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *  
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+
+package erjang.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import erjang.EAtom;
+import erjang.EObject;
+import erjang.EProc;
+import erjang.ERT;
+import erjang.ESeq;
+import erjang.ETuple;
+import erjang.m.ets.Native;
+
+/**
+ * ETS: insert, lookup and select on a table of {N, {value, N}} rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EtsBench {
+
+	static final EAtom am_value = EAtom.intern("value");
+
+	@Param({ "set", "ordered_set" })
+	String type;
+
+	@Param({ "10000" })
+	int size;
+
+	EProc proc;
+	EObject tab;
+	EObject spec;
+	int next;
+
+	@Setup
+	public void setup() {
+		proc = new EProc(null, EAtom.intern("erlang"), EAtom.intern("self"), ERT.NIL);
+		tab = Native.new$(proc, EAtom.intern("bench"),
+				ERT.NIL.cons(Native.am_public).cons(EAtom.intern(type)));
+		for (int i = 0; i < size; i++) {
+			Native.insert(proc, tab, row(i));
+		}
+		// [{{'$1',{value,'$2'}},[{'<','$2',10}],['$1']}]
+		EAtom $1 = EAtom.intern("$1"), $2 = EAtom.intern("$2");
+		spec = ERT.NIL.cons(ETuple.make(
+				ETuple.make($1, ETuple.make(am_value, $2)),
+				ERT.NIL.cons(ETuple.make(EAtom.intern("<"), $2, ERT.box(10))),
+				ERT.NIL.cons($1)));
+	}
+
+	static ETuple row(int i) {
+		return ETuple.make(ERT.box(i), ETuple.make(am_value, ERT.box(i)));
+	}
+
+	@Benchmark
+	public EObject insert() {
+		next = (next + 1) % size;
+		return Native.insert(proc, tab, row(next));
+	}
+
+	@Benchmark
+	public ESeq lookup() {
+		next = (next + 1) % size;
+		return Native.lookup(proc, tab, ERT.box(next));
+	}
+
+	@Benchmark
+	public ESeq select() {
+		return Native.select(proc, tab, spec);
+	}
+}
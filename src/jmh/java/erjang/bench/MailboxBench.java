@@ -0,0 +1,83 @@
+/**
+ * This file is part of Erjang - A JVM-based Erlang VM
+ *
+ * Copyright (c) 2009 by Trifork
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *  
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+
+package erjang.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import kilim.Pausable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import erjang.EAtom;
+import erjang.EObject;
+import erjang.EProc;
+import erjang.ERT;
+import erjang.ETuple;
+
+/**
+ * Message passing: a process sending to itself, first through its
+ * mailbox directly and then through the ! BIF.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MailboxBench {
+
+	static final EObject msg = ETuple.make(EAtom.intern("hello"), ERT.box(42));
+
+	EProc proc;
+	TaskRunner mailbox, send;
+
+	@Setup
+	public void setup() {
+		proc = new EProc(null, EAtom.intern("erlang"), EAtom.intern("self"), ERT.NIL);
+		mailbox = new TaskRunner(new TaskRunner.Body() {
+			public void run() throws Pausable {
+				proc.mbox_send(msg);
+				proc.mbox().get();
+			}
+		});
+		send = new TaskRunner(new TaskRunner.Body() {
+			public void run() throws Pausable {
+				ERT.send(proc, proc.self_handle(), msg);
+				proc.mbox().get();
+			}
+		});
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TaskRunner.BATCH)
+	public void mailbox_put_get() {
+		mailbox.run(TaskRunner.BATCH);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TaskRunner.BATCH)
+	public void send_receive() {
+		send.run(TaskRunner.BATCH);
+	}
+}
@@ -0,0 +1,87 @@
+/**
+ * This file is part of Erjang - A JVM-based Erlang VM
+ *
+ * Copyright (c) 2009 by Trifork
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *  
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+
+package erjang.bench;
+
+import java.util.concurrent.Semaphore;
+
+import kilim.Pausable;
+import kilim.Task;
+
+import erjang.ERT;
+
+/**
+ * Runs pausable benchmark bodies inside a kilim task, so that code which
+ * may yield (sends, receives, calls into compiled Erlang code) can be
+ * measured from a plain JMH thread.  The tasks run on the runtime's own
+ * scheduler, so erjang.beam.option.backend applies.  Each call to {@link #run(int)} runs
+ * a batch in a new task and waits for it to finish, so the handoff is
+ * paid once per batch rather than once per operation.
+ */
+public class TaskRunner {
+
+	/** the number of operations per {@link #run(int)} in the benchmarks */
+	public static final int BATCH = 1000;
+
+	public interface Body {
+		void run() throws Pausable;
+	}
+
+	private final Body body;
+	private final Semaphore finished = new Semaphore(0);
+	private volatile Throwable failure;
+
+	public TaskRunner(Body body) {
+		this.body = body;
+	}
+
+	/** run the body n times in a task */
+	public void run(int n) {
+		ERT.run(new Batch(n));
+		finished.acquireUninterruptibly();
+		if (failure != null) {
+			throw new RuntimeException(failure);
+		}
+	}
+
+	/*
+	 * A fresh task for every batch: handing batches to one long-lived
+	 * task through kilim mailboxes (putb/getb) would now and then lose a
+	 * wakeup and hang the benchmark.
+	 */
+	class Batch extends Task {
+		final int n;
+
+		Batch(int n) {
+			this.n = n;
+		}
+
+		@Override
+		public void execute() throws Pausable {
+			try {
+				for (int i = 0; i < n; i++) {
+					body.run();
+				}
+			} catch (Throwable t) {
+				failure = t;
+			}
+			finished.release();
+		}
+	}
+}
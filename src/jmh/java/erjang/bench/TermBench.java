@@ -0,0 +1,125 @@
+/**
+ * This file is part of Erjang - A JVM-based Erlang VM
+ *
+ * Copyright (c) 2009 by Trifork
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *  
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+
+package erjang.bench;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import erjang.EAtom;
+import erjang.EBinMatchState;
+import erjang.EBinary;
+import erjang.EBitString;
+import erjang.EBitStringBuilder;
+import erjang.EInputStream;
+import erjang.EMap;
+import erjang.EObject;
+import erjang.EOutputStream;
+import erjang.ERT;
+import erjang.ESeq;
+import erjang.EString;
+import erjang.ETuple;
+
+/**
+ * Term construction and encoding: bit syntax, the external term format,
+ * atom interning and maps.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TermBench {
+
+	EObject term;
+	byte[] encoded;
+	EMap map;
+	EObject[] keys;
+	String[] names;
+	int next;
+
+	@Setup
+	public void setup() {
+		ESeq list = ERT.NIL;
+		for (int i = 0; i < 100; i++) {
+			list = list.cons(ETuple.make(EAtom.intern("key"), ERT.box(i),
+					EString.fromString("value " + i), new EBinary(new byte[16])));
+		}
+		term = list;
+		encoded = new EOutputStream(term).toByteArray();
+
+		keys = new EObject[1000];
+		names = new String[keys.length];
+		EMap m = EMap.EMPTY;
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = ETuple.make(EAtom.intern("k"), ERT.box(i));
+			names[i] = "atom_" + i;
+			EAtom.intern(names[i]);
+			m = m.put(keys[i], ERT.box(i));
+		}
+		map = m;
+	}
+
+	int next() {
+		return next = (next + 1) % keys.length;
+	}
+
+	/** <<I:32, 1.5:64/float, "abc">> and match the integer back out */
+	@Benchmark
+	public EObject bitstring_build_match() {
+		EBitStringBuilder bsb = new EBitStringBuilder(15, 0);
+		bsb.put_integer(ERT.box(next()), 32, 0);
+		bsb.put_float(ERT.box(1.5), 64, 0);
+		bsb.put_string(EString.fromString("abc"));
+		EBitString bin = bsb.bitstring();
+		return new EBinMatchState(bin, 1).bs_get_integer2(32, 1, 0);
+	}
+
+	@Benchmark
+	public byte[] term_to_binary() {
+		return new EOutputStream(term).toByteArray();
+	}
+
+	@Benchmark
+	public EObject binary_to_term() throws IOException {
+		return new EInputStream(encoded).read_any();
+	}
+
+	@Benchmark
+	public EAtom atom_intern_existing() {
+		return EAtom.intern(names[next()]);
+	}
+
+	@Benchmark
+	public EObject map_get() {
+		return map.get(keys[next()]);
+	}
+
+	@Benchmark
+	public EMap map_put_remove() {
+		EObject key = keys[next()];
+		return map.put(key, ERT.TRUE).remove(key);
+	}
+}
@@ -0,0 +1,76 @@
+/**
+ * This file is part of Erjang - A JVM-based Erlang VM
+ *
+ * Copyright (c) 2009 by Trifork
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *  
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+
+package erjang;
+
+import erjang.EModuleManager.CallSite;
+
+/**
+ * Inline cache for one <code>M:F(A...)</code> call in compiled code, where
+ * M and F are variables (the <code>apply</code> instructions).
+ * 
+ * The cache is monomorphic: it remembers the last module and function
+ * called from the site, and the {@link CallSite} of that function. As
+ * long as the same M:F is called again, dispatch is two reference
+ * compares and a volatile read; there is no FunID to allocate and no
+ * module lock to take. Code loading and unloading relink the call site,
+ * so the cache never needs to be flushed. Anything but an atom module
+ * goes the slow way, through {@link ERT#resolve_fun}.
+ */
+public final class ApplySite {
+
+	private static final class Entry {
+		final EAtom module;
+		final EAtom function;
+		final CallSite site;
+
+		Entry(EAtom module, EAtom function, CallSite site) {
+			this.module = module;
+			this.function = function;
+			this.site = site;
+		}
+	}
+
+	private final int arity;
+	private volatile Entry cache;
+
+	public ApplySite(int arity) {
+		this.arity = arity;
+	}
+
+	public EFun resolve(EObject mod, EObject fun) {
+		Entry e = cache;
+		if (e != null && e.module == mod && e.function == fun) {
+			return e.site.target();
+		}
+		return miss(mod, fun);
+	}
+
+	private EFun miss(EObject mod, EObject fun) {
+		EAtom m = mod.testAtom();
+		EAtom f = fun.testAtom();
+		if (m == null || f == null) {
+			return ERT.resolve_fun(mod, fun, arity);
+		}
+
+		CallSite site = EModuleManager.call_site(new FunID(m, f, arity));
+		cache = new Entry(m, f, site);
+		return site.target();
+	}
+}
@@ -0,0 +1,262 @@
+/**
+ * This file is part of Erjang - A JVM-based Erlang VM
+ *
+ * Copyright (c) 2010 by Trifork
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package erjang;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Logger;
+
+/**
+ * Call counters for compiled modules.
+ *
+ * When <code>-Derjang.profile_calls=true</code>, the compiler emits a
+ * counter increment at the entry of every function (key
+ * <code>"f/2"</code>) and at every local call site (key
+ * <code>"f/2>g/1"</code>, summed over the sites in f calling g). Each
+ * module class registers its keys from its static initializer and
+ * increments counters by index.
+ *
+ * Counters are striped by thread so that schedulers do not contend on one
+ * cache line. At exit the counts are written to
+ * <code>~/.erjang/&lt;module&gt;.prof</code>, tagged with the crc of the
+ * beam they were collected from; the next time that beam is compiled,
+ * {@link #hints(String, long)} turns the profile into {@link Hints} for
+ * the compiler.
+ */
+public final class CallProfile {
+	static final Logger log = Logger.getLogger("erjang.beam.profile");
+
+	public static final boolean ENABLED = ErjangConfig.getBoolean("erjang.profile_calls");
+
+	/** a call site (or function) with at least this many calls is hot */
+	public static final long HOT_CALLS = ErjangConfig.hasString("erjang.profile_calls.hot")
+			? ErjangConfig.getInteger("erjang.profile_calls.hot")
+			: 10000;
+
+	private static final int STRIPES = 16; /* power of two */
+
+	/** the profile of the most recently loaded version of each module */
+	private static final Map<String, CallProfile> profiles = new ConcurrentHashMap<String, CallProfile>();
+
+	/** beam crc of the loaded version of each module */
+	private static final Map<String, Long> loaded_crc = new ConcurrentHashMap<String, Long>();
+
+	static {
+		if (ENABLED) {
+			Runtime.getRuntime().addShutdownHook(
+					new Thread("Erjang Call Profile Writer") {
+						public void run() {
+							save_all();
+						}
+					});
+		}
+	}
+
+	private final String module;
+	private final String[] keys;
+	/** length of a stripe, in longs; padded to a cache line */
+	private final int row;
+	private final AtomicLongArray counts;
+
+	private CallProfile(String module, String[] keys) {
+		this.module = module;
+		this.keys = keys;
+		this.row = (keys.length + 7) & ~7;
+		this.counts = new AtomicLongArray(row * STRIPES);
+	}
+
+	/** called from the static initializer of an instrumented module */
+	public static CallProfile register(String module, String[] keys) {
+		CallProfile profile = new CallProfile(module, keys);
+		profiles.put(module, profile);
+		return profile;
+	}
+
+	/** record which beam the next registered version of a module comes from */
+	public static void loaded(String module, long crc) {
+		loaded_crc.put(module, crc);
+	}
+
+	public void count(int index) {
+		int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+		counts.incrementAndGet(stripe * row + index);
+	}
+
+	public long get(int index) {
+		long sum = 0;
+		for (int s = 0; s < STRIPES; s++) {
+			sum += counts.get(s * row + index);
+		}
+		return sum;
+	}
+
+	public String[] keys() {
+		return keys.clone();
+	}
+
+	public static CallProfile get(String module) {
+		return profiles.get(module);
+	}
+
+	/*==================== Persisting ====================*/
+
+	static File profile_file(String module) throws IOException {
+		return new File(ErjangCodeCache.erjdir(), ErjangCodeCache.mangle(module)
+				+ ".prof");
+	}
+
+	static void save_all() {
+		for (CallProfile p : profiles.values()) {
+			Long crc = loaded_crc.get(p.module);
+			if (crc == null)
+				continue;
+			try {
+				p.save(profile_file(p.module), crc);
+			} catch (IOException e) {
+				log.warning("cannot save call profile for " + p.module + ": "
+						+ e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Write "crc" on the first line, then "key count" for each counter. If
+	 * the file already holds a profile of the same beam, the counts are
+	 * added to it, so profiles accumulate over several runs.
+	 */
+	void save(File file, long crc) throws IOException {
+		Map<String, Long> total = read(file, crc);
+		if (total == null)
+			total = new ConcurrentHashMap<String, Long>();
+
+		for (int i = 0; i < keys.length; i++) {
+			long n = get(i);
+			if (n == 0)
+				continue;
+			Long old = total.get(keys[i]);
+			total.put(keys[i], old == null ? n : old + n);
+		}
+
+		PrintWriter w = new PrintWriter(new FileWriter(file));
+		try {
+			w.println(Long.toHexString(crc));
+			for (Map.Entry<String, Long> ent : total.entrySet()) {
+				w.println(ent.getKey() + " " + ent.getValue());
+			}
+		} finally {
+			w.close();
+		}
+	}
+
+	/** @return the counts in <code>file</code>, or null if it is not a profile of <code>crc</code> */
+	static Map<String, Long> read(File file, long crc) throws IOException {
+		if (!file.exists())
+			return null;
+
+		BufferedReader r = new BufferedReader(new FileReader(file));
+		try {
+			String line = r.readLine();
+			if (line == null || !line.equals(Long.toHexString(crc)))
+				return null;
+
+			Map<String, Long> res = new ConcurrentHashMap<String, Long>();
+			while ((line = r.readLine()) != null) {
+				int sp = line.lastIndexOf(' ');
+				if (sp <= 0)
+					continue;
+				try {
+					res.put(line.substring(0, sp), Long.parseLong(line.substring(sp + 1)));
+				} catch (NumberFormatException e) {
+					// ignore
+				}
+			}
+			return res;
+		} finally {
+			r.close();
+		}
+	}
+
+	/*==================== Compiler hints ====================*/
+
+	/**
+	 * @return hints from the saved profile of this beam, or null if there is
+	 *         none (or nothing in it is hot)
+	 */
+	public static Hints hints(String module, long crc) {
+		try {
+			Map<String, Long> counts = read(profile_file(module), crc);
+			if (counts == null)
+				return null;
+
+			Set<String> hot = new HashSet<String>();
+			for (Map.Entry<String, Long> ent : counts.entrySet()) {
+				if (ent.getValue() >= HOT_CALLS)
+					hot.add(ent.getKey());
+			}
+			return hot.isEmpty() ? null : new Hints(hot);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/** What the compiler gets to know from a profile. */
+	public static final class Hints {
+		private final Set<String> hot;
+
+		Hints(Set<String> hot) {
+			this.hot = hot;
+		}
+
+		public boolean is_hot_call(EAtom caller, int caller_arity,
+				EAtom callee, int callee_arity) {
+			return hot.contains(call_key(caller, caller_arity, callee,
+					callee_arity));
+		}
+
+		public boolean is_hot_function(EAtom fun, int arity) {
+			return hot.contains(fun_key(fun, arity));
+		}
+
+		/** identifies the hint set, so code compiled with it is cached apart */
+		public long digest() {
+			long h = 0;
+			for (String k : hot)
+				h += k.hashCode() * 0x9E3779B97F4A7C15L;
+			return h;
+		}
+	}
+
+	public static String fun_key(EAtom fun, int arity) {
+		return fun.getName() + "/" + arity;
+	}
+
+	public static String call_key(EAtom caller, int caller_arity, EAtom callee,
+			int callee_arity) {
+		return fun_key(caller, caller_arity) + ">" + fun_key(callee, callee_arity);
+	}
+}
@@ -24,43 +24,145 @@ import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
 
+/**
+ * An integer outside the range of {@link ESmall}.
+ * 
+ * Values that fit in 64 bits (which covers timestamps, byte counts, hashes
+ * and most other "big" integers seen in practice) are held in a plain
+ * <code>long</code>, and arithmetic on them is done on longs, falling back
+ * to {@link BigInteger} only when a result overflows. Only values beyond
+ * 64 bits keep a {@link BigInteger}.
+ */
 public final class EBig extends EInteger {
 
 	private static final BigInteger BIG_32 = BigInteger.valueOf(32);
 	private static final BigInteger BIG_MAX_INT = BigInteger.valueOf(Integer.MAX_VALUE);
 	private static final BigInteger BIG_MIN_INT = BigInteger.valueOf(Integer.MIN_VALUE);
 
-	final public BigInteger value;
+	/** the value, if <code>big</code> is null */
+	private final long lval;
+
+	/** the value, if it does not fit in a long; otherwise null */
+	private final BigInteger big;
 
 	public EBig(BigInteger value) {
-		this.value = value;
-		
+		if (value.bitLength() < 64) {
+			this.lval = value.longValue();
+			this.big = null;
+		} else {
+			this.lval = 0;
+			this.big = value;
+		}
+
 		assert (value.compareTo(BIG_MAX_INT) > 0 || value.compareTo(BIG_MIN_INT) < 0);
 	}
-	
+
+	public EBig(long res) {
+		this.lval = res;
+		this.big = null;
+	}
+
+	/** true if <code>o</code> is an integer held in a long */
+	static boolean holds_long(EObject o) {
+		return o instanceof ESmall || (o instanceof EBig && ((EBig) o).big == null);
+	}
+
+	/** true if this value fits in a long, i.e., {@link #longValue()} is exact */
+	public boolean is_long() {
+		return big == null;
+	}
+
+	/*==================== long arithmetic ====================*/
+
+	static EInteger add(long a, long b) {
+		long r = a + b;
+		if (((a ^ r) & (b ^ r)) < 0)
+			return ERT.box(BigInteger.valueOf(a).add(BigInteger.valueOf(b)));
+		return ERT.box(r);
+	}
+
+	static EInteger subtract(long a, long b) {
+		long r = a - b;
+		if (((a ^ b) & (a ^ r)) < 0)
+			return ERT.box(BigInteger.valueOf(a).subtract(BigInteger.valueOf(b)));
+		return ERT.box(r);
+	}
+
+	static EInteger multiply(long a, long b) {
+		long r = a * b;
+		if (((Math.abs(a) | Math.abs(b)) >>> 31) != 0
+				&& ((b != 0 && r / b != a) || (a == Long.MIN_VALUE && b == -1)))
+			return ERT.box(BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)));
+		return ERT.box(r);
+	}
+
+	static EInteger idiv(long a, long b) {
+		if (a == Long.MIN_VALUE && b == -1)
+			return ERT.box(BigInteger.valueOf(a).negate());
+		return ERT.box(a / b);
+	}
+
+	static EInteger bsl(long a, int n) {
+		if (n == Integer.MIN_VALUE) // -n overflows; shift right by 2^31
+			return a < 0 ? ESmall.MINUS_ONE : ESmall.ZERO;
+		if (n < 0)
+			return bsr(a, -n);
+		if (n < 64 && ((a << n) >> n) == a)
+			return ERT.box(a << n);
+		return ERT.box(BigInteger.valueOf(a).shiftLeft(n));
+	}
+
+	static EInteger bsr(long a, int n) {
+		if (n == Integer.MIN_VALUE) { // -n overflows; shift left by 2^31
+			if (a == 0)
+				return ESmall.ZERO;
+			throw new ErlangError(ERT.am_system_limit);
+		}
+		if (n < 0)
+			return bsl(a, -n);
+		if (n >= 64)
+			return a < 0 ? ESmall.MINUS_ONE : ESmall.ZERO;
+		return ERT.box(a >> n);
+	}
+
+	/*==================== EBig ====================*/
+
 	public EInteger dec() { 
-		return (EInteger) ESmall.MINUS_ONE.add(this); 
+		if (big == null)
+			return subtract(lval, 1);
+		return ERT.box(big.subtract(BIG_ONE));
 	}	
 
 	public EBig testBig() {
 		return this;
 	}
 
+	public int signum() {
+		return big == null ? Long.signum(lval) : big.signum();
+	}
+
 	@Override
 	int compare_same(EObject rhs) {
 		return rhs.r_compare_same(this);
 	}
 	
 	int r_compare_same(ESmall lhs) {
-		return -value.signum();
+		return -signum();
 	}
 
 	int r_compare_same(EBig lhs) {
-		return lhs.value.compareTo(value);
+		if (big == null) {
+			if (lhs.big == null)
+				return lhs.lval < lval ? -1 : lhs.lval == lval ? 0 : 1;
+			return lhs.big.signum();
+		}
+		if (lhs.big == null)
+			return -big.signum();
+		return lhs.big.compareTo(big);
 	}
 
 	int r_compare_same(EDouble lhs) {
-		double doubleValue = value.doubleValue();
+		double doubleValue = doubleValue();
 		return lhs.value < doubleValue ? -1 : lhs.value == doubleValue ? 0 : 1;
 	}
 
@@ -70,41 +172,46 @@ public final class EBig extends EInteger {
 	}
 	
 	boolean r_equals_exactly(EBig lhs) {
-		return lhs.value.equals(value);
+		if (big == null)
+			return lhs.big == null && lhs.lval == lval;
+		return big.equals(lhs.big);
 	}
 
 	@Override
 	public byte[] encode_unsigned() {
-	    return value.toByteArray();
+	    return bigintValue().toByteArray();
  	}
 	
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see java.lang.Object#hashCode()
+	/**
+	 * Same as <code>bigintValue().hashCode()</code>, without making the
+	 * BigInteger when the value is held in a long.
 	 */
 	@Override
 	public int hashCode() {
-		return value.hashCode();
-	}
+		if (big != null)
+			return big.hashCode();
 
-	public EBig(long res) {
-		this.value = BigInteger.valueOf(res);
+		// the magnitude as unsigned (Long.MIN_VALUE is its own magnitude)
+		long mag = Math.abs(lval);
+		int hi = (int) (mag >>> 32);
+		int lo = (int) mag;
+		int h = hi == 0 ? lo : 31 * hi + lo;
+		return Long.signum(lval) * h;
 	}
 
 	@Override
 	public int intValue() {
-		return value.intValue();
+		return big == null ? (int) lval : big.intValue();
 	}
 
 	@Override
 	public long longValue() {
-		return value.longValue();
+		return big == null ? lval : big.longValue();
 	}
 
 	@Override
 	public String toString() {
-		return value.toString();
+		return big == null ? Long.toString(lval) : big.toString();
 	}
 
 	public static EBig fromString(String value) {
@@ -119,7 +226,7 @@ public final class EBig extends EInteger {
 
 		Type type = EBIG_TYPE;
 
-		fa.visitLdcInsn(value.toString());
+		fa.visitLdcInsn(toString());
 		fa.visitMethodInsn(Opcodes.INVOKESTATIC, type.getInternalName(),
 				"fromString", "(" + STRING_TYPE.getDescriptor() + ")"
 						+ type.getDescriptor());
@@ -129,198 +236,260 @@ public final class EBig extends EInteger {
 
 	static BigInteger BIG_ONE = BigInteger.valueOf(1);
 
-	public EInteger inc() { return ERT.box(value.add(BIG_ONE)); }
+	public EInteger inc() {
+		if (big == null)
+			return add(lval, 1);
+		return ERT.box(big.add(BIG_ONE));
+	}
 
 	@Override
 	public EBig abs() {
-		return new EBig(value.abs());
+		if (big == null && lval != Long.MIN_VALUE)
+			return lval < 0 ? new EBig(-lval) : this;
+		return new EBig(bigintValue().abs());
 	}
 
 	public ENumber add(EObject other, boolean guard) {
-		return other.add(value, guard);
+		if (big == null && holds_long(other))
+			return add(lval, ((EInteger) other).longValue());
+		return other.add(bigintValue(), guard);
 	}
 
 	public EInteger add(int lhs, boolean guard) {
-		return ERT.box(BigInteger.valueOf(lhs).add(value));
+		if (big == null)
+			return add(lhs, lval);
+		return ERT.box(BigInteger.valueOf(lhs).add(big));
 	}
 
 	public ENumber add(double lhs, boolean guard) {
-		return ERT.box(lhs + value.doubleValue());
+		return ERT.box(lhs + doubleValue());
 	}
 
 	public ENumber add(BigInteger lhs, boolean guard) {
-		return ERT.box(lhs.add(value));
+		return ERT.box(lhs.add(bigintValue()));
 	}
 
 	public EInteger subtract(int rhs) {  
-		return ERT.box(value.subtract(BigInteger.valueOf(rhs)));
+		if (big == null)
+			return subtract(lval, rhs);
+		return ERT.box(big.subtract(BigInteger.valueOf(rhs)));
 	}
 
 	public ENumber subtract(EObject other, boolean guard) {
-		return other.r_subtract(value, guard);
+		if (big == null && holds_long(other))
+			return subtract(lval, ((EInteger) other).longValue());
+		return other.r_subtract(bigintValue(), guard);
 	}
 
 	ENumber r_subtract(int lhs, boolean guard) {
-		return ERT.box(BigInteger.valueOf(lhs).subtract(value));
+		if (big == null)
+			return subtract(lhs, lval);
+		return ERT.box(BigInteger.valueOf(lhs).subtract(big));
 	}
 
 	ENumber r_subtract(double lhs, boolean guard) {
-		return ERT.box(lhs - value.doubleValue());
+		return ERT.box(lhs - doubleValue());
 	}
 
 	ENumber r_subtract(BigInteger lhs, boolean guard) {
-		return ERT.box(lhs.subtract(value));
+		return ERT.box(lhs.subtract(bigintValue()));
 	}
 
 	public EInteger idiv(EObject other) {
-		return other.r_idiv(value);
+		if (big == null && holds_long(other)) {
+			long rhs = ((EInteger) other).longValue();
+			if (rhs == 0) throw ERT.badarith(this, other);
+			return idiv(lval, rhs);
+		}
+		return other.r_idiv(bigintValue());
 	}
 
 	public EInteger idiv(int rhs) { 
-		return ERT.box(value.divide(BigInteger.valueOf(rhs)));
+		if (rhs == 0) throw ERT.badarith(this, ERT.box(rhs));
+		if (big == null)
+			return idiv(lval, rhs);
+		return ERT.box(big.divide(BigInteger.valueOf(rhs)));
 	}
 
 
 	EInteger r_idiv(int lhs) {
-		return ERT.box(BigInteger.valueOf(lhs).divide(value));
+		if (big == null)
+			return ERT.box(lhs / lval);
+		return ERT.box(BigInteger.valueOf(lhs).divide(big));
 	}
 
 	EInteger r_idiv(BigInteger lhs) {
-		return ERT.box(lhs.divide(value));
+		return ERT.box(lhs.divide(bigintValue()));
 	}
 
 	public EInteger irem(EObject other) {
-		return other.r_irem(value);
+		if (big == null && holds_long(other)) {
+			long rhs = ((EInteger) other).longValue();
+			if (rhs == 0) throw ERT.badarith(this, other);
+			return ERT.box(lval % rhs);
+		}
+		return other.r_irem(bigintValue());
 	}
 
 	EInteger r_irem(int lhs) {
-		return ERT.box(BigInteger.valueOf(lhs).remainder(value));
+		if (big == null)
+			return ERT.box(lhs % lval);
+		return ERT.box(BigInteger.valueOf(lhs).remainder(big));
 	}
 
 	EInteger r_irem(BigInteger lhs) {
-		return ERT.box(lhs.remainder(value));
+		return ERT.box(lhs.remainder(bigintValue()));
 	}
 
 	public EDouble divide(EObject other) {
-		return other.r_divide(value);
+		if (big == null && holds_long(other)) {
+			long rhs = ((EInteger) other).longValue();
+			if (rhs == 0) throw ERT.badarith(this, other);
+			return ERT.box((double) lval / rhs);
+		}
+		return other.r_divide(bigintValue());
 	}
 
 	EDouble r_divide(int lhs) {
-		return ERT.box(lhs / value.doubleValue());
+		return ERT.box(lhs / doubleValue());
 	}
 
 	EDouble r_divide(double lhs) {
-		return ERT.box(lhs / value.doubleValue());
+		return ERT.box(lhs / doubleValue());
 	}
 
 	EDouble r_divide(BigInteger lhs) {
-		return ERT.box(lhs.doubleValue() / value.doubleValue());
+		return ERT.box(lhs.doubleValue() / doubleValue());
 	}
 
 	public ENumber multiply(EObject other) {
-		return other.r_multiply(value);
+		if (big == null && holds_long(other))
+			return multiply(lval, ((EInteger) other).longValue());
+		return other.r_multiply(bigintValue());
 	}
 
 	public EInteger r_multiply(int lhs) {
-		return ERT.box(BigInteger.valueOf(lhs).multiply(value));
+		if (big == null)
+			return multiply(lhs, lval);
+		return ERT.box(BigInteger.valueOf(lhs).multiply(big));
 	}
 
 	public EDouble r_multiply(double lhs) {
-		return ERT.box(lhs * value.doubleValue());
+		return ERT.box(lhs * doubleValue());
 	}
 	
 	public ENumber r_multiply(BigInteger lhs) {
-		return ERT.box(lhs.multiply(value));
+		return ERT.box(lhs.multiply(bigintValue()));
 	}
 
 	public EInteger bsr(EObject other) {
-		return other.r_bsr(value);
+		if (big == null && other instanceof ESmall)
+			return bsr(lval, ((ESmall) other).value);
+		return other.r_bsr(bigintValue());
 	}
 
 	EInteger r_bsr(int lhs) {
-		if (BIG_32.compareTo(value) <= 0) {
+		if (BIG_32.compareTo(bigintValue()) <= 0) {
 			if (lhs < 0)
 				return ESmall.MINUS_ONE;
 			else
 				return ESmall.ZERO;
 		} else {
-			return ERT.box(lhs >> value.intValue());
+			return ERT.box(lhs >> intValue());
 		}
 	}
 
 	EInteger r_bsr(BigInteger lhs) {
-		if (BIG_MAX_INT.compareTo(value) < 0) {
+		if (BIG_MAX_INT.compareTo(bigintValue()) < 0) {
 			if (BigInteger.ZERO.compareTo(lhs) > 0)
 				return ESmall.MINUS_ONE;
 			else
 				return ESmall.ZERO;
 		} else {
-			return ERT.box(lhs.shiftRight(value.intValue()));
+			return ERT.box(lhs.shiftRight(intValue()));
 		}
 	}
 
 	public EInteger bsl(EObject other) {
-		return other.r_bsl(value);
+		if (big == null && other instanceof ESmall)
+			return bsl(lval, ((ESmall) other).value);
+		return other.r_bsl(bigintValue());
 	}
 
 	EInteger r_bsl(int lhs) {
-		return ERT.box(BigInteger.valueOf(lhs).shiftLeft(value.intValue()));
+		return ERT.box(BigInteger.valueOf(lhs).shiftLeft(intValue()));
 	}
 
 	EInteger r_bsl(BigInteger lhs) {
-		return ERT.box(lhs.shiftLeft(value.intValue()));
+		return ERT.box(lhs.shiftLeft(intValue()));
 	}
 
 	// binary and
 
 	public EInteger band(EObject other) {
-		return other.band(value);
+		if (big == null && holds_long(other))
+			return ERT.box(lval & ((EInteger) other).longValue());
+		return other.band(bigintValue());
 	}
 
 	public EInteger band(int lhs) {
-		return ERT.box(BigInteger.valueOf(lhs).and(value));
+		if (big == null)
+			return ERT.box(lhs & lval);
+		return ERT.box(BigInteger.valueOf(lhs).and(big));
 	}
 
 	public EInteger band(BigInteger lhs) {
-		return ERT.box(lhs.and(value));
+		return ERT.box(lhs.and(bigintValue()));
 	}
 
 	// binary or
 
 	public EInteger bor(EObject other) {
-		return other.bor(value);
+		if (big == null && holds_long(other))
+			return ERT.box(lval | ((EInteger) other).longValue());
+		return other.bor(bigintValue());
 	}
 
 	public EInteger bor(int lhs) {
-		return ERT.box(BigInteger.valueOf(lhs).or(value));
+		if (big == null)
+			return ERT.box(lhs | lval);
+		return ERT.box(BigInteger.valueOf(lhs).or(big));
 	}
 
 	public EInteger bor(BigInteger lhs) {
-		return ERT.box(lhs.or(value));
+		return ERT.box(lhs.or(bigintValue()));
 	}
 
 	// binary xor
 
 	public EInteger bxor(EObject other) {
-		return other.bxor(value);
+		if (big == null && holds_long(other))
+			return ERT.box(lval ^ ((EInteger) other).longValue());
+		return other.bxor(bigintValue());
 	}
 
 	public EInteger bxor(int lhs) {
-		return ERT.box(BigInteger.valueOf(lhs).xor(value));
+		if (big == null)
+			return ERT.box(lhs ^ lval);
+		return ERT.box(BigInteger.valueOf(lhs).xor(big));
 	}
 
 	public EInteger bxor(BigInteger lhs) {
-		return ERT.box(lhs.xor(value));
+		return ERT.box(lhs.xor(bigintValue()));
 	}
 
 	public EInteger bnot() {
-		return ERT.box(value.not());
+		if (big == null)
+			return ERT.box(~lval);
+		return ERT.box(big.not());
 	}
 
 
 	@Override
 	public ENumber negate() {
-               return ERT.box(value.negate());
+		if (big == null && lval != Long.MIN_VALUE)
+			return ERT.box(-lval);
+		return ERT.box(bigintValue().negate());
 	}
 	
 
@@ -330,8 +499,8 @@ public final class EBig extends EInteger {
 	 * @see erjang.EInteger#bigintValue()
 	 */
 	@Override
-	BigInteger bigintValue() {
-		return value;
+	public BigInteger bigintValue() {
+		return big == null ? BigInteger.valueOf(lval) : big;
 	}
 
 	/*
@@ -341,12 +510,15 @@ public final class EBig extends EInteger {
 	 */
 	@Override
 	public double doubleValue() {
-		return value.doubleValue();
+		return big == null ? (double) lval : big.doubleValue();
 	}
 
 	@Override
 	public void encode(EOutputStream eos) {
-		eos.write_big_integer(value);
+		if (big == null)
+			eos.write_long(lval, false);
+		else
+			eos.write_big_integer(big);
 	}
 
 }
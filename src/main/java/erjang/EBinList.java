@@ -66,19 +66,6 @@ public class EBinList extends ECons {
 			throw ERT.badarg();
 	}
 
-	@Override
-	public int hashCode() {
-		ESeq seq;
-		if ((seq=testSeq()) != null) return seq.hashCode();
-
-		//TODO: use phash() rather than this brittle nonsense:
-		int h = 0;
-		for (int i=off; i<off+len; i++) {
-			h = 31*h + data[i];
-		}
-		return h + tail.hashCode();
-	}
-
 	/** create a list with [value|tail], where value is a smallint 0..255 */
 	public EBinList(byte value, EObject tail) {
 		this.data = new byte[INITIAL_BUFFER_SIZE];
@@ -135,6 +135,13 @@ public class EBitStringBuilder {
 					pos += delta;
 					val >>= 8;
 				}
+		    } else if (ei.testBig().is_long()) { // 64-bit case
+				long val = ei.longValue();
+				while (nBytes-- > 0) {
+					data[pos] = (byte)val;
+					pos += delta;
+					val >>= 8;
+				}
 		    } else { // Larger integer case
 				BigInteger big_int = ei.bigintValue();
 
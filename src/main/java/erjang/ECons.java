@@ -37,6 +37,11 @@ public abstract class ECons extends EObject implements Iterable<EObject> {
 		return CMP_ORDER_LIST;
 	}
 
+	@Override
+	public int hashCode() {
+		return TermHash.hash(this);
+	}
+
 	public boolean match(ETermPattern matcher, EMatchContext r) {
 		return matcher.match(this, r);
 	}
@@ -702,6 +702,23 @@ public class EInputStream extends ByteArrayInputStream {
 		switch (tag) {
 		case EExternal.smallIntTag: return new ESmall(read1());
 		case EExternal.intTag:      return new ESmall(read4BE());
+		case EExternal.smallBigTag:
+			int arity = read1();
+			if (arity <= 8) {
+				int sign = read1();
+				long mag = 0;
+				for (int i = 0; i < arity; i++) {
+					mag |= (long) read1() << (8 * i);
+				}
+				if (mag >= 0)
+					return ERT.box(sign == 0 ? mag : -mag);
+				if (sign != 0 && mag == Long.MIN_VALUE)
+					return ERT.box(mag);
+				// magnitude needs all 64 bits
+				BigInteger big = BigInteger.valueOf(mag).add(EBinMatchState.TWO_TO_64);
+				return ERT.box(sign == 0 ? big : big.negate());
+			}
+			setPos(getPos()-2); return ERT.box(new BigInteger(read_integer_byte_array()));
 		default: setPos(getPos()-1); return ERT.box(new BigInteger(read_integer_byte_array()));
 		} // switch
 	}
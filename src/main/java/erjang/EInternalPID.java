@@ -62,7 +62,7 @@ public class EInternalPID extends EPID implements ELocalHandle {
 	public EInternalPID(EProc self) {
 		super(ERT.getLocalNode());
 		this.task = self;
-		this.id = task.id;
+		this.id = task.number;
 	}
 	
 	/* (non-Javadoc)
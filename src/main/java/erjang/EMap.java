@@ -41,6 +41,9 @@ public final class EMap extends EObject {
     public static final EMap EMPTY = new EMap();
 	private final IPersistentMap<EObject,EObject> _map;
 
+	/** memoized by TermHash */
+	int hash;
+
 	
 	public EMap() {
         _map = new PersistentTreeMap<EObject, EObject>(null, EObject.ERLANG_ORDERING);
@@ -200,7 +203,11 @@ public final class EMap extends EObject {
 
 
     public int hashCode() {
-        return to_list().hashCode();
+        return TermHash.hash(this);
+    }
+
+    ISeq<IMapEntry<EObject, EObject>> entries() {
+        return _map.seq();
     }
 
     public EObject get(EObject key) {
@@ -30,6 +30,8 @@ import kilim.Pausable;
 import erjang.beam.BeamFileData;
 import erjang.beam.BeamLoader;
 import erjang.beam.EUtil;
+import erjang.beam.interpreter.AbstractInterpreter;
+import erjang.beam.interpreter.Interpreter;
 import erjang.beam.loader.ErjangBeamDisLoader;
 import erjang.driver.efile.ClassPathResource;
 import erjang.util.Progress;
@@ -71,10 +73,14 @@ public class EModuleLoader {
 
 		EModule loaded_module;
 		Progress.activity("loading "+moduleName+"...");
+		TieredCompilation.loading(moduleName);
 		if (use_interpreter || moduleName.startsWith("elixir_compiler_")) {
 			BeamFileData bfd = beamParser.load(beamBin.toByteArray());
 			loaded_module = erjang.beam.interpreter.Interpreter.beamFileToEModule(bfd);
 			after = System.currentTimeMillis();
+		} else if (TieredCompilation.ENABLED
+				&& (loaded_module = load_tiered(moduleName, beamBin)) != null) {
+			after = System.currentTimeMillis();
 		} else { // Use compiler
             EModuleClassLoader moduleClassLoader;
             try {
@@ -111,6 +117,32 @@ public class EModuleLoader {
 		return loaded_module;
 	}
 
+	/**
+	 * Load the compiled module if it is in the code cache already;
+	 * otherwise interpret it and leave the compiling to TieredCompilation.
+	 * 
+	 * @return null if the module cannot be interpreted
+	 */
+	private static EModule load_tiered(String moduleName, EBinary beamBin) throws IOException {
+		EModuleClassLoader cached = ErjangCodeCache.getCachedModuleClassLoader(moduleName, beamBin);
+		if (cached != null) {
+			return load_compiled_module(moduleName, cached);
+		}
+
+		BeamFileData bfd = beamParser.load(beamBin.toByteArray());
+		AbstractInterpreter.Module module;
+		try {
+			module = (AbstractInterpreter.Module) Interpreter.beamFileToEModule(bfd);
+		} catch (Error e) {
+			// e.g. on_load, which the interpreter does not do
+			log.fine("Interpreting "+moduleName+" failed - compiling it now: "+e.getMessage());
+			return null;
+		}
+
+		TieredCompilation.interpreted(moduleName, beamBin, module);
+		return module;
+	}
+
 	/*==================== BEAM FILE RESOLUTION STEP ====================*/
 
 	private static File findBeamFile(String module) {
@@ -69,6 +69,7 @@ public class EModuleManager {
 
 		Collection<FunctionBinder> resolve_points = new HashSet<FunctionBinder>();
 		private EFun error_handler;
+		private CallSite call_site;
 
 	        private ClassLoader getModuleClassLoader() {
 		    if (defining_module != null) {
@@ -98,6 +99,16 @@ public class EModuleManager {
 			}
 		}
 		
+		/** the call site of this function, registered as one more import */
+		synchronized CallSite call_site() {
+			if (call_site == null) {
+				CallSite site = new CallSite(fun);
+				add_import(site);
+				call_site = site;
+			}
+			return call_site;
+		}
+
 		synchronized void add_internal(final FunctionBinder ref) throws Exception {
 			resolve_points.add(ref);
 		}
@@ -154,7 +165,7 @@ public class EModuleManager {
 
                             /** Get reference to error_handler:undefined_function/3 */
 
-                            EFun uf = proc.undefined_function.resolved_value;
+                            EFun uf = proc.undefined_function().resolved_value;
 
                             /** this is just some debugging info to help understand downstream errors */
                             if (get_module_info(fun.module).is_loaded()) {
@@ -194,7 +205,7 @@ public class EModuleManager {
                                 }
 
                                 /** this is just some debugging info to help understand downstream errors */
-                                log.log(Level.INFO, "failed to load " + fun + " (" + proc.undefined_function + " not found)");
+                                log.log(Level.INFO, "failed to load " + fun + " (" + proc.undefined_function() + " not found)");
 
                                 throw new ErlangUndefined(fun.module,
                                         fun.function, fun.arity);
@@ -264,6 +275,9 @@ public class EModuleManager {
 				if (spec == ERT.FALSE)
 					return;
 				traceHandler = new TraceHandler(this);
+				if (call_site != null) {
+					call_site.bind(traceHandler.self);
+				}
 
 			} else if (spec==ERT.FALSE) {
 
@@ -396,12 +410,18 @@ public class EModuleManager {
 			info.add_internal(ref);
 		}
 
-		synchronized FunctionInfo get_function_info(FunID fun) {
+		FunctionInfo get_function_info(FunID fun) {
 			FunctionInfo info = binding_points.get(fun);
-			if (info == null) {
-				binding_points.put(fun, info = new FunctionInfo(fun));
+			if (info != null) {
+				return info;
+			}
+			synchronized (this) {
+				info = binding_points.get(fun);
+				if (info == null) {
+					binding_points.put(fun, info = new FunctionInfo(fun));
+				}
+				return info;
 			}
-			return info;
 		}
 
 		/**
@@ -460,8 +480,11 @@ public class EModuleManager {
 					unreferenced.add(fi.fun);
 				}
 			}
-			for (FunID fid : unreferenced) {
-				binding_points.remove(fid);
+			synchronized (spawn_targets) {
+				for (FunID fid : unreferenced) {
+					if (!spawn_targets.containsKey(fid))
+						binding_points.remove(fid);
+				}
 			}
 			this.resident = null;
 			this.module_md5 = empty_md5;
@@ -630,7 +653,10 @@ public class EModuleManager {
 	}
 
 	static ModuleInfo get_module_info(EAtom module) {
-		ModuleInfo mi;
+		ModuleInfo mi = infos.get(module);
+		if (mi != null) {
+			return mi;
+		}
 		synchronized (infos) {
 			mi = infos.get(module);
 			if (mi == null) {
@@ -677,6 +703,31 @@ public class EModuleManager {
 	public static EFun resolve(FunID start) {
 		return get_module_info(start.module).resolve(start);
 	}
+
+	/**
+	 * Binding points of spawn targets, so that spawning does not take the
+	 * module table and module locks each time.  Entries are never
+	 * removed, and ModuleInfo.unload keeps the binding points they hold; a
+	 * later load rebinds them as usual.
+	 */
+	private static final ConcurrentHashMap<FunID, FunctionInfo> spawn_targets
+			= new ConcurrentHashMap<FunID, FunctionInfo>();
+
+	/** Like {@link #resolve(FunID)}, through the spawn target cache. */
+	public static EFun resolve_spawn(EAtom module, EAtom function, int arity) {
+		FunID fun = new FunID(module, function, arity);
+		FunctionInfo info = spawn_targets.get(fun);
+		if (info == null) {
+			synchronized (spawn_targets) {
+				info = spawn_targets.get(fun);
+				if (info == null) {
+					info = get_module_info(module).get_function_info(fun);
+					spawn_targets.put(fun, info);
+				}
+			}
+		}
+		return info.resolve();
+	}
 	
 	public static EFun resolve(EPID pid, EAtom module, EBinary md5, int index, int old_uniq, int old_index, int arity, EObject[] freevars) {
 		return get_module_info(module).resolve(pid, md5, index, old_uniq, old_index, arity, freevars);
@@ -734,6 +785,40 @@ public class EModuleManager {
 		public abstract FunID getFunID();
 	}
 
+	/**
+	 * A mutable call site: whatever one function is currently bound to.
+	 * There is one per FunID; it is registered as an import, so code
+	 * loading, unloading and tracing relink it like any other import.
+	 */
+	public static final class CallSite extends FunctionBinder {
+		private final FunID fun;
+		private volatile EFun target;
+
+		CallSite(FunID fun) {
+			this.fun = fun;
+		}
+
+		public EFun target() {
+			return target;
+		}
+
+		@Override
+		public boolean bind(EFun value) {
+			target = value;
+			return true;
+		}
+
+		@Override
+		public FunID getFunID() {
+			return fun;
+		}
+	}
+
+	/** @return the call site of <code>fun</code>, linked to its current binding */
+	public static CallSite call_site(FunID fun) {
+		return get_module_info(fun.module).get_function_info(fun).call_site();
+	}
+
 	public static ESeq loaded_modules() {
 		EAtom[] mods;
 		synchronized (infos) {
@@ -25,6 +25,9 @@ import org.objectweb.asm.Type;
 public class EPair extends ECons {
 	public final EObject head;
 	public final EObject tail;
+
+	/** memoized by TermHash */
+	int hash;
 	
 	public EPair(EObject h, EObject t) {
 		
@@ -94,10 +97,4 @@ public class EPair extends ECons {
 		eos.write_any(head);
 		eos.write_any(tail);
 	}
-
-	@Override
-	public int hashCode() {
-		//TODO: use phash() rather than this brittle nonsense:
-		return 31 * head.hashCode() + tail.hashCode();
-	}
 }
@@ -20,6 +20,8 @@ package erjang;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.LinkedList;
 import java.util.concurrent.ConcurrentHashMap;
@@ -110,6 +112,26 @@ public class EPeer extends EAbstractNode {
 		}
 	}
 
+	/** Like send_to_port, for several messages; they go to the port task in one command. */
+	private void send_all_to_port(List<ByteBuffer[]> evs, EHandle sender) throws Pausable {
+		EInternalPort port;
+		synchronized (this) {
+			port = this.port;
+			if (port == null) {
+				assert(port_queue != null);
+				port_queue.addAll(evs);
+				return;
+			}
+		}
+
+		EDriverTask task = port.task();
+		if (task != null) {
+			task.command_all(null, evs);
+		} else {
+			log.warning("sending casts to dead task (port="+port+", this="+this+", sender="+sender+")");
+		}
+	}
+
 	private void send_to_port(ByteBuffer[] ev, EHandle sender) throws Pausable {
 		// Either send to port, or enqueue...:
 		EInternalPort port;
@@ -550,6 +572,53 @@ public class EPeer extends EAbstractNode {
 		dsig_cast(sender, hdr);
 	}
 
+	/**
+	 * The exit and monitor-exit signals that one dying process sends to
+	 * processes on this node.  The reason is encoded once, and shared by
+	 * all the messages; and they are handed to the port in one go.
+	 */
+	final class ExitBatch {
+		private final EHandle sender;
+		private final List<ETuple> hdrs = new ArrayList<ETuple>();
+
+		ExitBatch(EHandle sender) {
+			this.sender = sender;
+		}
+
+		void exit(EPID to_pid) {
+			hdrs.add(ETuple.make(ERT.box(EXIT), sender, to_pid));
+		}
+
+		void monitor_exit(EPID to_pid, ERef ref) {
+			hdrs.add(ETuple.make(ERT.box(MONITOR_P_EXIT), sender, to_pid, ref));
+		}
+
+		void send(EObject reason) throws Pausable {
+			EOutputStream eos = new EOutputStream(256, flags);
+			reason.encode(eos);
+			ByteBuffer rbuf = eos.toByteBuffer();
+
+			List<ByteBuffer[]> evs = new ArrayList<ByteBuffer[]>(hdrs.size());
+			for (ETuple hdr : hdrs) {
+				// the control message is hdr with reason appended
+				eos = new EOutputStream(64, flags);
+				eos.write_tuple_head(hdr.arity() + 1);
+				for (int i = 1; i <= hdr.arity(); i++) {
+					hdr.elm(i).encode(eos);
+				}
+				evs.add(new ByteBuffer[] { ByteBuffer.wrap(DIST_HEADER),
+						eos.toByteBuffer(), rbuf.duplicate() });
+			}
+			send_all_to_port(evs, sender);
+		}
+	}
+
+	private static final byte[] DIST_HEADER = { (byte) 131, (byte) 68, (byte) 0 };
+
+	ExitBatch exit_batch(EHandle sender) {
+		return new ExitBatch(sender);
+	}
+
 	public void dsig_monitor(EHandle sender, EObject to_pid, ERef ref) throws Pausable {
 
 		ETuple hdr = ETuple.make(ERT.box(MONITOR_P), sender, to_pid, ref);
@@ -23,7 +23,6 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -86,14 +85,16 @@ public final class EProc extends ETask<EInternalPID> {
     };
 
     private static final ExitHook[] NO_HOOKS = new ExitHook[0];
+    private static final EObject[] NO_STACK = new EObject[0];
 
 
     /*==================== Global state ====================================*/
-    public static ConcurrentHashMap<Integer,EProc> all_tasks
-            = new ConcurrentHashMap<Integer,EProc> ();
+    private static final ProcessTable table = new ProcessTable(ERT.processLimit());
 
     /*==================== Process state ====================================*/
     /*========= Immutable state =========================*/
+    /** Pid number; also the key in the process table. */
+    final int number;
     private final EInternalPID self;
 
     // TODO: Make final (and set in constructor rather than in setTarget)
@@ -104,7 +105,8 @@ public final class EProc extends ETask<EInternalPID> {
     /*========= Mutable Erlang-dictated state ===========*/
     private EPID group_leader;
     public ErlangException last_exception; // TODO: Make private
-    private final Map<EObject, EObject> pdict = new HashMap<EObject, EObject>();
+    /** Allocated on first put; see {@link #compact()}. */
+    private Map<EObject, EObject> pdict;
     private EAtom trap_exit = ERT.FALSE;
     private EAtom sensitive = ERT.FALSE;
     private EAtom error_handler = am_error_handler;
@@ -127,31 +129,35 @@ public final class EProc extends ETask<EInternalPID> {
     arg12, arg13, arg14, arg15, arg16, arg17;
 
 	// For interpreter use:
-	public EObject[] stack = new EObject[10];
+	public EObject[] stack = NO_STACK;
 	public int sp = 0;
     public EObject[] regs;
-    public EDouble[] fregs = new EDouble[16];
+    private EDouble[] fregs;
 
-    public EModuleManager.FunctionInfo undefined_function
-            = EModuleManager.get_module_info(error_handler).
-            get_function_info(new FunID(error_handler, am_undefined_function, 3));
+    /** Looked up on first use, as most processes never need it. */
+    private EModuleManager.FunctionInfo undefined_function;
 
-    /** For process clean-up. Protected by exit-action mutator lock. */
-    private final List<ExitHook> exit_hooks = new ArrayList<ExitHook>();
+    /** For process clean-up. Protected by exit-action mutator lock.
+     *  Allocated on first use. */
+    private List<ExitHook> exit_hooks;
     ERT.TraceFlags trace_flags;
 
 
     /*==================== Construction =============================*/
 
 	public EProc(EPID group_leader, EAtom m, EAtom f, Object[] a) {
+		number = table.add(this);
 		self = new EInternalPID(this);
 
 		// if no group leader is given, we're our own group leader
 		this.group_leader = group_leader == null ? self : group_leader;
 		
-		setTarget(m, f, a);
-		
-		all_tasks.put(key(), this);
+		try {
+			setTarget(m, f, a);
+		} catch (RuntimeException e) {
+			table.remove(number, this);
+			throw e;
+		}
 	}
 
 	/**
@@ -160,14 +166,18 @@ public final class EProc extends ETask<EInternalPID> {
 	 * @param array
 	 */
 	public EProc(EPID group_leader, EAtom m, EAtom f, ESeq a) {
+		number = table.add(this);
 		self = new EInternalPID(this);
 
 		// if no group leader is given, we're our own group leader
 		this.group_leader = group_leader == null ? self : group_leader;
 		
-		setTarget(m, f, a);
-		
-		all_tasks.put(key(), this);
+		try {
+			setTarget(m, f, a);
+		} catch (RuntimeException e) {
+			table.remove(number, this);
+			throw e;
+		}
 	}
 	
 	protected void setTarget(EAtom m, EAtom f, Object[] args) {
@@ -193,32 +203,28 @@ public final class EProc extends ETask<EInternalPID> {
 		this.spawn_args = a.length();
 		
 		int arity = spawn_args;
-		EFun target = EModuleManager.resolve(new FunID(m,f,arity));
+		if (arity > 7) {
+			throw new NotImplemented();
+		}
+
+		EFun target = EModuleManager.resolve_spawn(m, f, arity);
 		
 		if (target == null) {
 			throw new ErlangUndefined(m, f, new ESmall(arity));
 		}
 		
 		this.tail = target;
-		a = a.reverse();
-		switch (arity) {
-		default:
-			throw new NotImplemented();
-		case 7: 
-			this.arg6 = a.head(); a = a.tail();
-		case 6: 
-			this.arg5 = a.head(); a = a.tail();
-		case 5: 
-			this.arg4 = a.head(); a = a.tail();
-		case 4: 
-			this.arg3 = a.head(); a = a.tail();
-		case 3: 
-			this.arg2 = a.head(); a = a.tail();
-		case 2: 
-			this.arg1 = a.head(); a = a.tail();
-		case 1: 
-			this.arg0 = a.head(); a = a.tail();
-		case 0:
+		for (int i = 0; i < arity; i++, a = a.tail()) {
+			EObject arg = a.head();
+			switch (i) {
+			case 0: this.arg0 = arg; break;
+			case 1: this.arg1 = arg; break;
+			case 2: this.arg2 = arg; break;
+			case 3: this.arg3 = arg; break;
+			case 4: this.arg4 = arg; break;
+			case 5: this.arg5 = arg; break;
+			case 6: this.arg6 = arg; break;
+			}
 		}
 	}
 
@@ -231,6 +237,20 @@ public final class EProc extends ETask<EInternalPID> {
         return last_exception;
     }
 
+    /** The interpreter's float registers; allocated on first use. */
+    public EDouble[] fregs() {
+        if (fregs == null)
+            fregs = new EDouble[16];
+        return fregs;
+    }
+
+    public EModuleManager.FunctionInfo undefined_function() {
+        if (undefined_function == null)
+            undefined_function = EModuleManager.get_module_info(error_handler).
+                get_function_info(new FunID(error_handler, am_undefined_function, 3));
+        return undefined_function;
+    }
+
     /*==================== Public interface - Erlang operations =====*/
 
     /**
@@ -251,6 +271,8 @@ public final class EProc extends ETask<EInternalPID> {
 
     /*--------- Process dictionary --------------------------*/
     public EObject put(EObject key, EObject value) {
+        if (pdict == null)
+            pdict = new HashMap<EObject, EObject>();
         EObject res = pdict.put(key, value);
         if (res == null)
             return ERT.am_undefined;
@@ -258,6 +280,8 @@ public final class EProc extends ETask<EInternalPID> {
     }
 
     public EObject get(EObject key) {
+        if (pdict == null)
+            return ERT.am_undefined;
         EObject res = pdict.get(key);
         return (res == null) ? ERT.am_undefined : res;
     }
@@ -267,6 +291,8 @@ public final class EProc extends ETask<EInternalPID> {
      */
     public ESeq get() {
         ESeq res = ERT.NIL;
+        if (pdict == null)
+            return res;
         for (Map.Entry<EObject, EObject> ent : pdict.entrySet()) {
             res = res.cons(ETuple.make(ent.getKey(), ent.getValue()));
         }
@@ -278,6 +304,8 @@ public final class EProc extends ETask<EInternalPID> {
      * @return
      */
     public EObject erase(EObject key) {
+        if (pdict == null)
+            return ERT.am_undefined;
         EObject res = pdict.remove(key);
         if (res == null)
             res = ERT.am_undefined;
@@ -289,10 +317,17 @@ public final class EProc extends ETask<EInternalPID> {
      */
     public EObject erase() {
         EObject res = get();
-        pdict.clear();
+        pdict = null;
         return res;
     }
 
+    @Override
+    protected void compact() {
+        super.compact();
+        if (pdict != null && pdict.isEmpty())
+            pdict = null;
+    }
+
     /*--------- Process flags --------------------------*/
     /**
      * @param testAtom
@@ -473,11 +508,6 @@ public final class EProc extends ETask<EInternalPID> {
 
     /*==================== Internals ================================*/
 
-    private int key() {
-		int key = (self.serial() << 15) | (self.id() & 0x7fff);
-		return key;
-	}
-
 
     /*--------- Process lifecycle --------------------------*/
 
@@ -513,7 +543,7 @@ public final class EProc extends ETask<EInternalPID> {
 
 		self.done();
 		
-		all_tasks.remove(this.key());
+		table.remove(number, this);
 		
 		
 	}
@@ -642,7 +672,7 @@ public final class EProc extends ETask<EInternalPID> {
             set_state_to_done_and_wait_for_stability();
 		}
 		
-		if (result != am_normal && monitors.isEmpty() && has_no_links() && !(death[0] instanceof ErlangExitSignal)) {
+		if (result != am_normal && has_no_monitors() && has_no_links() && !(death[0] instanceof ErlangExitSignal)) {
 				
 				EFun fun = EModuleManager.resolve(new FunID(am_error_logger, am_info_report, 1));
 				
@@ -683,7 +713,7 @@ public final class EProc extends ETask<EInternalPID> {
 				}
 				break hibernate_loop;
 			} catch (ErjangHibernateException e) {
-				// noop, live = true //
+				shed_memory();
 			}
 
 			mbox_wait();
@@ -693,10 +723,36 @@ public final class EProc extends ETask<EInternalPID> {
 		return result;
 	}
 
+    /**
+     * Called when the process hibernates.  Its call stack is gone at this
+     * point (the hibernate exception unwound it), so all that is left to
+     * keep is the dictionary, the mailbox and the function to resume in.
+     */
+    void shed_memory() {
+        regs = null;
+        stack = NO_STACK;
+        sp = 0;
+        fregs = null;
+        last_exception = null;
+        if (pdict != null)
+            pdict = pdict.isEmpty() ? null : new HashMap<EObject, EObject>(pdict);
+        compact();
+        trim();
+    }
+
+    /** Drop the references held by the argument registers. */
+    public void clear_args() {
+        arg0 = arg1 = arg2 = arg3 = arg4 = arg5 = null;
+        arg6 = arg7 = arg8 = arg9 = arg10 = arg11 = null;
+        arg12 = arg13 = arg14 = arg15 = arg16 = arg17 = null;
+    }
+
     public boolean add_exit_hook(ExitHook hook) {
         int ps = exit_action_mutator_lock();
         try {
             if (ps == STATE.DONE.ordinal()) return false; // Too late.
+            if (exit_hooks == null)
+                exit_hooks = new ArrayList<ExitHook>(2);
             exit_hooks.add(hook);
             return true;
         } finally {
@@ -708,7 +764,8 @@ public final class EProc extends ETask<EInternalPID> {
         int ps = exit_action_mutator_lock();
         try {
             if (ps == STATE.DONE.ordinal()) return false; // Too late.
-            exit_hooks.remove(hook);
+            if (exit_hooks != null)
+                exit_hooks.remove(hook);
             return true;
         } finally {
             exit_action_mutator_unlock();
@@ -732,7 +789,7 @@ public final class EProc extends ETask<EInternalPID> {
 
 	public static ESeq processes() {
 		ESeq res = ERT.NIL;
-		for (EProc proc : all_tasks.values()) {
+		for (EProc proc : table) {
 			if (proc.is_alive_dirtyread()) {
 				res = res.cons(proc.self_handle());
 			}
@@ -740,20 +797,23 @@ public final class EProc extends ETask<EInternalPID> {
 		return res;
 	}
 	
+	/** @return the number of processes, including those that are exiting */
 	public static int process_count() {
-		int count = 0;
-		for (EProc proc : all_tasks.values()) {
-			if (proc.is_alive_dirtyread()) {
-				count += 1;
-			}
-		}
-		return count;
+		return table.count();
+	}
+
+	/** @return all processes, including those that are exiting */
+	public static Iterable<EProc> all_processes() {
+		return table;
 	}
 
+	static ProcessTable table() {
+		return table;
+	}
 
 	public static EInternalPID find(int id, int serial) {
-		int key = (serial << 15) | (id & 0x7fff);
-		EProc task = all_tasks.get(key);
+		int number = (serial << 15) | (id & 0x7fff);
+		EProc task = table.get(number);
 		if (task != null) return task.self_handle();
 		return null;
 	}
@@ -768,7 +828,7 @@ public final class EProc extends ETask<EInternalPID> {
 			@Override
 			public void run() {
 				log.warning("===== LIVE TASKS UPON EXIT");
-				for (EProc task : all_tasks.values()) {
+				for (EProc task : table) {
 					
 					log.warning("==" + task);
 					log.warning(task.fiber.toString());
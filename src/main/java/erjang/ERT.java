@@ -79,6 +79,7 @@ public class ERT {
   public static final EAtom am_badkey = EAtom.intern("badkey");
 	public static final EAtom am_badarg = EAtom.intern("badarg");
 	public static final EAtom am_notsup = EAtom.intern("notsup");
+	public static final EAtom am_system_limit = EAtom.intern("system_limit");
 	public static final EAtom AM_BADMATCH = EAtom.intern("badmatch");
 	public static final EAtom AM_BADARITH = EAtom.intern("badarith");
 	public static final EAtom am_module = EAtom.intern("module");
@@ -182,7 +183,7 @@ public class ERT {
 	 */
 	public static EPID loopkup_pid(ESeq name) {
 		String str = name.stringValue();
-		for (EProc p : EProc.all_tasks.values()) {
+		for (EProc p : EProc.all_processes()) {
 			if (p.self_handle().toString().equals( str ) ) {
 				return p.self_handle();
 			}
@@ -286,13 +287,10 @@ public class ERT {
 	 */
 	public static EInteger box(BigInteger res) {
 
-		if (res.compareTo(INT_MIN_AS_BIG) < 0)
-			return new EBig(res);
+		if (res.bitLength() < 32)
+			return ESmall.make(res.intValue());
 
-		if (res.compareTo(INT_MAX_AS_BIG) > 0)
-			return new EBig(res);
-
-		return ESmall.make(res.intValue());
+		return new EBig(res);
 	}
 
 	public static EInteger box_parse(String str) {
@@ -806,8 +804,8 @@ public class ERT {
 		throw new ErlangError(ETuple.make(am_try_case_clause, val));
 	}
 
-	static kilim.Scheduler scheduler = new kilim.Scheduler(threadPoolSize());
-	static kilim.Scheduler async_scheduler = new kilim.Scheduler(asyncThreadPoolSize());
+	static kilim.Scheduler scheduler = ExecutorScheduler.make(threadPoolSize());
+	static kilim.Scheduler async_scheduler = ExecutorScheduler.make(asyncThreadPoolSize());
 	public static EAtom am_io = EAtom.intern("io");
 	public static EAtom am_attributes = EAtom.intern("attributes");
 	public static EAtom am_compile = EAtom.intern("compile");
@@ -890,6 +888,7 @@ public class ERT {
 
 		if (ipclog.isLoggable(Level.FINE)) ipclog.fine("WAIT| "+proc+" waits for messages for "+howlong+" ms");
 			if (howlong == am_infinity) {
+				proc.compact();
 				proc.mbox.untilHasMessages(proc.midx+1);
 				proc.check_exit();
 				if (ipclog.isLoggable(Level.FINE)) ipclog.fine("WAIT| "+proc+" wakes up on message");
@@ -918,6 +917,7 @@ public class ERT {
 				
 
 				if (ipclog.isLoggable(Level.FINE)) ipclog.fine("WAIT| "+proc+" waiting for "+left+"ms for msg #"+(proc.midx+1));
+				proc.compact();
 				boolean res = proc.mbox
 					.untilHasMessages(proc.midx + 1, left);
 				proc.check_exit();
@@ -936,6 +936,7 @@ public class ERT {
 		try {
 			int idx = proc.midx + 1;
 			if (ipclog.isLoggable(Level.FINE)) ipclog.fine("WAIT| "+proc+" waits for "+idx+" messages");
+			proc.compact();
 			proc.mbox.untilHasMessages(idx);
 			if (ipclog.isLoggable(Level.FINE)) ipclog.fine("WAIT| "+proc+" wakes up after timeout; now has "+(idx));
 		} finally {
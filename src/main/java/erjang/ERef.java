@@ -27,7 +27,7 @@ import erjang.m.ets.ETermPattern;
 /**
  * 
  */
-public final class ERef extends EObject {
+public class ERef extends EObject {
 
 	private EAtom node;
 	private int creation;
@@ -72,6 +72,16 @@ public final class ERef extends EObject {
         this.ids[2] = id3;
 	}
 
+	/**
+	 * For refs that carry a resource (as counters and atomics refs do);
+	 * they compare, hash and encode as <code>ref</code>.
+	 */
+	protected ERef(ERef ref) {
+		this.node = ref.node;
+		this.creation = ref.creation;
+		this.ids = ref.ids;
+	}
+
 	/**
 	 * @param node
 	 * @param id
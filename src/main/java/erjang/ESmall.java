@@ -146,7 +146,7 @@ public final class ESmall extends EInteger {
 	}
 
 	int r_compare_same(EBig lhs) {
-		return lhs.value.compareTo(BigInteger.valueOf(value));
+		return lhs.signum();
 	}
 
 	int r_compare_same(EDouble lhs) {
@@ -314,7 +314,7 @@ public final class ESmall extends EInteger {
 
 	@Override
 	public ENumber negate() {
-		return new ESmall(-value);
+		return ERT.box(-(long) value);
 	}
 	
 	// integer division erlang:div/2
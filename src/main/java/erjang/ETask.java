@@ -20,19 +20,21 @@ package erjang;
 
 
 
+import java.lang.reflect.Field;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import kilim.Fiber;
 import kilim.Mailbox;
 import kilim.Pausable;
 
-import com.trifork.clj_ds.IPersistentSet;
 import com.trifork.clj_ds.PersistentHashSet;
+import kilim.State;
 import kilim.Task;
 
 /**
@@ -51,6 +53,33 @@ public abstract class ETask<H extends EHandle> extends kilim.Task {
 	private static final EAtom am_process = EAtom.intern("process");
 
     private static final int MAX_MAILBOX_SIZE = 1000;
+    private static final int MIN_MAILBOX_SIZE = 4;
+    private static final int MIN_FIBER_DEPTH = 10;
+
+    /*
+     * kilim's Mailbox and Fiber grow their arrays but never shrink them;
+     * trim() gets at them through these.
+     */
+    private static Field mbox_msgs, mbox_iprod, mbox_icons, mbox_num;
+    private static Field fiber_stack, fiber_depth;
+
+    static {
+        try {
+            mbox_msgs = Mailbox.class.getDeclaredField("msgs");
+            mbox_iprod = Mailbox.class.getDeclaredField("iprod");
+            mbox_icons = Mailbox.class.getDeclaredField("icons");
+            mbox_num = Mailbox.class.getDeclaredField("numMsgs");
+            fiber_stack = Fiber.class.getDeclaredField("stateStack");
+            fiber_depth = Fiber.class.getDeclaredField("iStack");
+            for (Field f : new Field[] { mbox_msgs, mbox_iprod, mbox_icons,
+                    mbox_num, fiber_stack, fiber_depth }) {
+                f.setAccessible(true);
+            }
+        } catch (NoSuchFieldException | SecurityException e) {
+            log.warning("cannot trim kilim mailboxes and fibers: " + e);
+            mbox_msgs = null;
+        }
+    }
 
     /*==================== Typedefs ==============================*/
     public enum STATE {
@@ -94,17 +123,32 @@ public abstract class ETask<H extends EHandle> extends kilim.Task {
      */
     private AtomicInteger pstate_and_mutator_count = new AtomicInteger(STATE.INIT.ordinal());
 
-    private AtomicReference<PersistentHashSet<EHandle>>
-            linksref = new AtomicReference<PersistentHashSet<EHandle>>(PersistentHashSet.EMPTY);
+    /*
+     * A process may be one of millions, most of which never link, monitor
+     * or get monitored; so links start out as the shared empty set, and the
+     * monitor maps are allocated on first use.
+     */
+
+    @SuppressWarnings("unchecked")
+    private volatile PersistentHashSet<EHandle> links = PersistentHashSet.EMPTY;
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<ETask, PersistentHashSet> links_updater
+            = AtomicReferenceFieldUpdater.newUpdater(ETask.class, PersistentHashSet.class, "links");
 
-    protected Map<ERef,EHandle> monitors = new ConcurrentHashMap<ERef, EHandle>();
+    /** Processes monitoring this one; null until the first monitor. */
+    private volatile Map<ERef,EHandle> monitors;
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<ETask, Map> monitors_updater
+            = AtomicReferenceFieldUpdater.newUpdater(ETask.class, Map.class, "monitors");
 
     // this is not synchronized, as we only mess with it from this proc
     // TODO That is not accurate, cf. do_proc_termination->send_monitor_exit call. --ESS
-    private Map<ERef,ETuple2> is_monitoring = new HashMap<ERef, ETuple2>();
+    private Map<ERef,ETuple2> is_monitoring;
 
 
-    protected final Mailbox<EObject> mbox = new Mailbox<EObject>(10, MAX_MAILBOX_SIZE);
+    protected final Mailbox<EObject> mbox = new Mailbox<EObject>(MIN_MAILBOX_SIZE, MAX_MAILBOX_SIZE);
 
     /** Reduction counter. */
     private int reds;
@@ -142,9 +186,9 @@ public abstract class ETask<H extends EHandle> extends kilim.Task {
             try {
 
                 do {
-                    old = linksref.get();
+                    old = this.links;
                     links = (PersistentHashSet) old.disjoin(handle);
-                } while (!linksref.weakCompareAndSet(old, links));
+                } while (!links_updater.weakCompareAndSet(this, old, links));
                 return true;
 
             } catch (Exception e) {
@@ -156,10 +200,14 @@ public abstract class ETask<H extends EHandle> extends kilim.Task {
 	}
 	
 	protected boolean has_no_links() {
-		IPersistentSet<EHandle> links = linksref.get();
 		return links.count() == 0;
 	}
 
+	protected boolean has_no_monitors() {
+		Map<ERef,EHandle> m = monitors;
+		return m == null || m.isEmpty();
+	}
+
 	/**
 	 * @param task
 	 * @throws Pausable
@@ -184,9 +232,9 @@ public abstract class ETask<H extends EHandle> extends kilim.Task {
             PersistentHashSet old, links;
             try {
                 do {
-                    old = linksref.get();
+                    old = this.links;
                     links = (PersistentHashSet) old.cons(h);
-                } while (!linksref.weakCompareAndSet(old, links));
+                } while (!links_updater.weakCompareAndSet(this, old, links));
                 return true;
             } catch (Exception e) {
                 throw new RuntimeException(e);
@@ -199,7 +247,7 @@ public abstract class ETask<H extends EHandle> extends kilim.Task {
 
 	public ESeq links() {
 		ESeq res = ERT.NIL;
-		for (EHandle h : linksref.get()) {
+		for (EHandle h : links) {
 			res = res.cons(h);
 		}
 		return res;
@@ -229,21 +277,29 @@ public abstract class ETask<H extends EHandle> extends kilim.Task {
             //	System.err.println("unable to add monitor to self="+self_handle()+" pid="+observed+" ref="+ref);
             return false;
         }
-        this.is_monitoring.put(ref, new ETuple2(observed, object));
+        is_monitoring().put(ref, new ETuple2(observed, object));
         return true;
     }
 
     public boolean monitor(EObject object, ERef ref) throws Pausable {
-        this.is_monitoring.put(ref, new ETuple2(object, object));
+        is_monitoring().put(ref, new ETuple2(object, object));
         return true;
     }
 
+    private Map<ERef,ETuple2> is_monitoring() {
+        if (is_monitoring == null)
+            is_monitoring = new HashMap<ERef, ETuple2>(4);
+        return is_monitoring;
+    }
+
     /**
      * @param r
      * @return
      * @throws Pausable
      */
     public EObject demonitor(ERef r) throws Pausable {
+        if (is_monitoring == null)
+            return null;
         ETuple2 pair = is_monitoring.remove(r);
         if (pair == null) {
             return null;
@@ -262,7 +318,12 @@ public abstract class ETask<H extends EHandle> extends kilim.Task {
         try {
             if (ps == STATE.DONE.ordinal()) return false; // Too late.
 
-            monitors.put(ref, target);
+            Map<ERef,EHandle> m = monitors;
+            if (m == null) {
+                monitors_updater.compareAndSet(this, null, new ConcurrentHashMap<ERef, EHandle>(4));
+                m = monitors;
+            }
+            m.put(ref, target);
             return true;
         } finally {
             exit_action_mutator_unlock();
@@ -277,7 +338,9 @@ public abstract class ETask<H extends EHandle> extends kilim.Task {
         try {
             if (ps == STATE.DONE.ordinal()) return false; // Too late.
 
-            EHandle val = monitors.remove(r);
+            Map<ERef,EHandle> m = monitors;
+            if (m != null)
+                m.remove(r);
         } finally {
             exit_action_mutator_unlock();
         }
@@ -289,12 +352,14 @@ public abstract class ETask<H extends EHandle> extends kilim.Task {
     }
 
     public EHandle get_monitored_process(ERef monitor) {
+        if (is_monitoring == null) return null;
         ETuple2 tup = is_monitoring.get(monitor);
         if (tup == null) return null;
         return tup.elem1.testHandle();
     }
 
     public EObject get_monitored_object(ERef monitor) {
+        if (is_monitoring == null) return null;
         ETuple2 tup = is_monitoring.get(monitor);
         return tup.elem2;
     }
@@ -376,7 +441,19 @@ public abstract class ETask<H extends EHandle> extends kilim.Task {
         this.exit_reason = exit_reason;
 		H me = self_handle();
 		EAtom name = me.name;
-		for (EHandle handle : linksref.get()) {
+
+		// Only signals to other nodes are batched, one batch per peer.
+		// Local targets get theirs one at a time: all processes share
+		// one scheduler pool, so there is no per-scheduler queue to hand
+		// a batch to.
+		Map<EPeer, EPeer.ExitBatch> remote = null;
+
+		for (EHandle handle : links) {
+			if (handle instanceof EExternalPID) {
+				if (remote == null) remote = new HashMap<EPeer, EPeer.ExitBatch>();
+				batch(remote, (EExternalPID) handle, me).exit((EPID) handle);
+				continue;
+			}
 			try {
 			handle.exit_signal(me, exit_reason, false);
 			} catch (Error e) {
@@ -389,11 +466,24 @@ public abstract class ETask<H extends EHandle> extends kilim.Task {
 				throw e;
 			}
 		}
-		for (Map.Entry<ERef, EHandle> ent : monitors.entrySet()) {
-			EHandle pid = ent.getValue();
-			ERef ref = ent.getKey();
-
-			pid.send_monitor_exit((EHandle)me, ref, exit_reason);
+		Map<ERef, EHandle> monitors = this.monitors;
+		if (monitors != null) {
+			for (Map.Entry<ERef, EHandle> ent : monitors.entrySet()) {
+				EHandle pid = ent.getValue();
+				ERef ref = ent.getKey();
+
+				if (pid instanceof EExternalPID) {
+					if (remote == null) remote = new HashMap<EPeer, EPeer.ExitBatch>();
+					batch(remote, (EExternalPID) pid, me).monitor_exit((EPID) pid, ref);
+					continue;
+				}
+				pid.send_monitor_exit((EHandle)me, ref, exit_reason);
+			}
+		}
+		if (remote != null) {
+			for (EPeer.ExitBatch batch : remote.values()) {
+				batch.send(exit_reason);
+			}
 		}
 		if (name != ERT.am_undefined && name != null) {
 			ERT.unregister(name);
@@ -401,7 +491,18 @@ public abstract class ETask<H extends EHandle> extends kilim.Task {
 	}
 	
 
+	private static EPeer.ExitBatch batch(Map<EPeer, EPeer.ExitBatch> batches,
+			EExternalPID pid, EHandle sender) {
+		EPeer peer = pid.peer();
+		EPeer.ExitBatch batch = batches.get(peer);
+		if (batch == null)
+			batches.put(peer, batch = peer.exit_batch(sender));
+		return batch;
+	}
+
 	public void send_monitor_exit(EHandle from, ERef ref, EObject reason) throws Pausable {
+		Map<ERef,ETuple2> is_monitoring = this.is_monitoring;
+		if (is_monitoring == null) return;
 		ETuple2 pair = is_monitoring.get(ref);
 		if (pair != null) {
 			mbox_send(ETuple.make(am_DOWN, ref, am_process, pair.elem2, reason));
@@ -423,6 +524,7 @@ public abstract class ETask<H extends EHandle> extends kilim.Task {
 	 * 
 	 */
 	public void mbox_wait() throws Pausable {
+		compact();
 		mbox.untilHasMessage();
 	}
 
@@ -430,9 +532,60 @@ public abstract class ETask<H extends EHandle> extends kilim.Task {
 	 * @param longValue
 	 */
 	public boolean mbox_wait(long timeoutMillis) throws Pausable {
+		compact();
 		return mbox.untilHasMessage(timeoutMillis);
 	}
 
+	/**
+	 * Called when the process is about to wait for a message; drops
+	 * process-local structures that have been allocated but are empty, so
+	 * that idle processes stay small.
+	 */
+	protected void compact() {
+		if (is_monitoring != null && is_monitoring.isEmpty())
+			is_monitoring = null;
+	}
+
+	/**
+	 * Shrink the mailbox's message array and the fiber's state stack to
+	 * what they hold now.  Must be called from the task itself, while it
+	 * is running.
+	 */
+	protected void trim() {
+		if (mbox_msgs == null)
+			return;
+		try {
+			synchronized (mbox) {
+				Object[] old = (Object[]) mbox_msgs.get(mbox);
+				int n = mbox_num.getInt(mbox);
+				int size = Math.max(n, MIN_MAILBOX_SIZE);
+				if (old.length > size) {
+					int first = mbox_icons.getInt(mbox);
+					Object[] msgs = new Object[size];
+					for (int i = 0; i < n; i++) {
+						msgs[i] = old[(first + i) % old.length];
+					}
+					mbox_msgs.set(mbox, msgs);
+					mbox_icons.setInt(mbox, 0);
+					mbox_iprod.setInt(mbox, n % size);
+				}
+			}
+
+			// the states of the frames now on the stack are at 0..depth-1;
+			// above that, the array only holds nulls
+			Object[] old = (Object[]) fiber_stack.get(fiber);
+			int depth = fiber_depth.getInt(fiber) + 1;
+			int size = Math.max(depth, MIN_FIBER_DEPTH);
+			if (old.length > size) {
+				State[] stack = new State[size];
+				System.arraycopy(old, 0, stack, 0, depth);
+				fiber_stack.set(fiber, stack);
+			}
+		} catch (IllegalAccessException e) {
+			throw new Error(e);
+		}
+	}
+
 	/**
 	 * @param msg
 	 * @throws Pausable
@@ -463,7 +616,13 @@ public abstract class ETask<H extends EHandle> extends kilim.Task {
 		if (from == self_handle()) {
 			return;
 		}
-		
+
+		// a dead process has no links to remove, and ignores the signal;
+		// find out without contending on its state
+		if (get_state_dirtyread() == STATE.DONE.ordinal()) {
+			return;
+		}
+
 		// make sure we don't also send him an exit signal
 		if (!is_erlang_exit2)
 			unlink_oneway(from);
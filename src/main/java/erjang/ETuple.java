@@ -21,9 +21,8 @@ package erjang;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.ClassWriter;
@@ -95,6 +94,9 @@ public abstract class ETuple extends EObject implements Cloneable /* , Indexed *
 
 	public abstract EObject elm(int i);
 
+	/** Tuples up to this arity get a class with a field per element; larger ones are {@link ETupleN} */
+	public static final int MAX_FIELDS = 32;
+
 	public static ETuple make(int len) {
 		switch (len) {
 		case 0:
@@ -159,17 +161,19 @@ public abstract class ETuple extends EObject implements Cloneable /* , Indexed *
 	private static final String ETUPLE_NAME = ETUPLE_TYPE.getInternalName();
 	private static final Type ETERM_TYPE = Type.getType(EObject.class);
 
-	private static Map<Integer, ETuple> protos = new HashMap<Integer, ETuple>();
+	private static final ConcurrentHashMap<Integer, ETuple> protos = new ConcurrentHashMap<Integer, ETuple>();
 
-	@SuppressWarnings("unchecked")
 	private static ETuple make_big(int size) {
+		if (size > MAX_FIELDS)
+			return new ETupleN(size);
 
 		ETuple proto = protos.get(size);
 
 		if (proto == null) {
 			try {
 				Class<? extends ETuple> c = get_tuple_class(size);
-				protos.put(size, proto = c.newInstance());
+				ETuple old = protos.putIfAbsent(size, proto = c.newInstance());
+				if (old != null) proto = old;
 			} catch (Exception e) {
 				throw new RuntimeException(e);
 			}
@@ -550,18 +554,9 @@ public abstract class ETuple extends EObject implements Cloneable /* , Indexed *
 		return sb.toString();
 	}
 
-	/*
-	 * TODO: Make compatible with Erlang
-	 */
 	@Override
 	public int hashCode() {
-		int arity = arity();
-		int result = arity;
-		for (int i = 0; i < arity; i++) {
-			result *= 3;
-			result += elm(i + 1).hashCode();
-		}
-		return result;
+		return TermHash.hash(this);
 	}
 
 	@Override
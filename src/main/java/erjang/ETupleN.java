@@ -0,0 +1,117 @@
+/**
+ * This file is part of Erjang - A JVM-based Erlang VM
+ *
+ * Copyright (c) 2009 by Trifork
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *  
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package erjang;
+
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/**
+ * Tuples larger than {@link ETuple#MAX_FIELDS}, kept in an array.
+ *
+ * Smaller tuples get a class of their own with a field per element,
+ * which the compiler can access directly once the arity is known.  For
+ * big records, and for tuples used as arrays (the array module,
+ * list_to_tuple of long lists), a class per arity only buys huge
+ * elm()/set() switches, so they share this one.
+ */
+public final class ETupleN extends ETuple {
+
+	static final Type ETUPLEN_TYPE = Type.getType(ETupleN.class);
+	static final String ETUPLEN_NAME = ETUPLEN_TYPE.getInternalName();
+	private static final Type EOBJECT_TYPE = Type.getType(EObject.class);
+
+	private EObject[] elems;
+
+	/** memoized by TermHash */
+	int hash;
+
+	public ETupleN(int arity) {
+		this.elems = new EObject[arity];
+	}
+
+	private ETupleN(EObject[] elems) {
+		this.elems = elems;
+	}
+
+	public static ETupleN create(int arity) {
+		return new ETupleN(arity);
+	}
+
+	/** the array is not copied */
+	public static ETupleN make_tuple(EObject[] elems) {
+		return new ETupleN(elems);
+	}
+
+	/** @return value if it is a tuple of the given arity, otherwise null */
+	public static ETupleN cast(EObject value, int arity) {
+		if (value instanceof ETupleN && ((ETupleN) value).elems.length == arity)
+			return (ETupleN) value;
+		return null;
+	}
+
+	@Override
+	public int arity() {
+		return elems.length;
+	}
+
+	@Override
+	public EObject elm(int i) {
+		if (i < 1 || i > elems.length)
+			return bad_nth(i);
+		return elems[i - 1];
+	}
+
+	@Override
+	public void set(int i, EObject term) {
+		if (i < 1 || i > elems.length)
+			bad_nth(i);
+		elems[i - 1] = term;
+		hash = 0;
+	}
+
+	@Override
+	public ETupleN blank() {
+		return new ETupleN(elems.length);
+	}
+
+	@Override
+	public ETupleN clone() {
+		ETupleN res = (ETupleN) super.clone();
+		res.elems = elems.clone();
+		return res;
+	}
+
+	@Override
+	public Type emit_const(MethodVisitor fa) {
+		fa.visitLdcInsn(new Integer(elems.length));
+		fa.visitTypeInsn(Opcodes.ANEWARRAY, EOBJECT_TYPE.getInternalName());
+
+		for (int i = 0; i < elems.length; i++) {
+			fa.visitInsn(Opcodes.DUP);
+			fa.visitLdcInsn(new Integer(i));
+			elems[i].emit_const(fa);
+			fa.visitInsn(Opcodes.AASTORE);
+		}
+
+		fa.visitMethodInsn(Opcodes.INVOKESTATIC, ETUPLEN_NAME, "make_tuple",
+				"([" + EOBJECT_TYPE.getDescriptor() + ")" + ETUPLEN_TYPE.getDescriptor());
+		return ETUPLEN_TYPE;
+	}
+}
@@ -80,7 +80,10 @@ public class ErjangCodeCache {
 	long crc = beam_data.crc();
 //	crc ^= BIFUtil.all_bif_hash();
 
-	File jarFile = new File(erjdir(), moduleJarFileName(moduleName, crc));
+	CallProfile.Hints hints = CallProfile.hints(moduleName, crc);
+	if (CallProfile.ENABLED) CallProfile.loaded(moduleName, crc);
+
+	File jarFile = jarFile(moduleName, crc, hints);
 
 	if (jarFile.exists()) {
 	    return new EModuleClassLoader(jarFile.toURI().toURL());
@@ -88,7 +91,7 @@ public class ErjangCodeCache {
 	RamClassRepo repo = new RamClassRepo();
 
 	try {
-	    Compiler.compile(beam_parser.load(beam_data.getByteArray()), repo);
+	    Compiler.compile(beam_parser.load(beam_data.getByteArray()), repo, hints);
 
 	    repo.close();
 	    cache.put(moduleName, repo);
@@ -103,6 +106,28 @@ public class ErjangCodeCache {
 	return new EModuleClassLoader(jarFile.toURI().toURL(), repo);
     }
 
+    /** @return a loader for the module if it is in the cache, or null if it would have to be compiled */
+    public static EModuleClassLoader getCachedModuleClassLoader(String moduleName, EBinary beam_data) throws IOException {
+	long crc = beam_data.crc();
+	File jarFile = jarFile(moduleName, crc, CallProfile.hints(moduleName, crc));
+	if (!jarFile.exists()) return null;
+
+	if (CallProfile.ENABLED) CallProfile.loaded(moduleName, crc);
+	return new EModuleClassLoader(jarFile.toURI().toURL());
+    }
+
+    private static File jarFile(String moduleName, long crc, CallProfile.Hints hints) throws IOException {
+	// code compiled from a call profile, or with counters in it,
+	// is cached apart from the plain version
+	long key = crc;
+	if (hints != null) key ^= hints.digest();
+	if (CallProfile.ENABLED) key = ~key;
+	// code built when every arity had its own tuple class must not be reused
+	key ^= (long) ETuple.MAX_FIELDS << 48;
+
+	return new File(erjdir(), moduleJarFileName(moduleName, key));
+    }
+
     static File erjdir() throws IOException {
 	File home = ERT.newFile(ERJ_CACHE_DIR);
 
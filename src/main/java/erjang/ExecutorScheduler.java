@@ -0,0 +1,98 @@
+/**
+ * This file is part of Erjang - A JVM-based Erlang VM
+ *
+ * Copyright (c) 2009 by Trifork
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *  
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+
+package erjang;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Logger;
+
+import kilim.Scheduler;
+import kilim.Task;
+
+/**
+ * A kilim scheduler that runs tasks on a java.util.concurrent executor
+ * instead of kilim's own worker threads.
+ *
+ * Processes are still kilim tasks: a mailbox wait unwinds the fiber, and
+ * a resumed task is handed to the executor, which runs it until it pauses
+ * again. What changes is only who runs it. <code>forkjoin</code> is a
+ * work-stealing pool without the scheduler-wide lock that kilim takes on
+ * every schedule; <code>virtual</code> runs each resumption on a virtual
+ * thread of its own (JDK 21 and later; elsewhere it falls back to
+ * <code>forkjoin</code>).
+ *
+ * The backend is chosen with <code>-Derjang.beam.option.backend=</code>
+ * <code>kilim</code> (the default), <code>forkjoin</code> or
+ * <code>virtual</code>.
+ */
+final class ExecutorScheduler extends Scheduler {
+	static final Logger log = Logger.getLogger("erjang.scheduler");
+
+	static final String BACKEND = ErjangConfig.getString("erjang.beam.option.backend", "kilim");
+
+	private final ExecutorService executor;
+
+	private ExecutorScheduler(ExecutorService executor) {
+		this.executor = executor;
+	}
+
+	@Override
+	public void schedule(final Task task) {
+		if (isShutdown())
+			return;
+		executor.execute(new Runnable() {
+			public void run() {
+				task._runExecute(null);
+			}
+		});
+	}
+
+	@Override
+	public void shutdown() {
+		super.shutdown();
+		executor.shutdown();
+	}
+
+	/** @return a scheduler running on <code>threads</code> threads, for the configured backend */
+	static Scheduler make(int threads) {
+		if ("virtual".equals(BACKEND)) {
+			try {
+				ExecutorService vt = (ExecutorService) Executors.class
+						.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+				return new ExecutorScheduler(vt);
+			} catch (Exception e) {
+				log.warning("virtual threads are not available - using forkjoin");
+			}
+			return forkjoin(threads);
+		} else if ("forkjoin".equals(BACKEND)) {
+			return forkjoin(threads);
+		} else {
+			if (!"kilim".equals(BACKEND))
+				log.warning("unknown backend " + BACKEND + " - using kilim");
+			return new Scheduler(threads);
+		}
+	}
+
+	private static Scheduler forkjoin(int threads) {
+		return new ExecutorScheduler(new ForkJoinPool(threads,
+				ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true));
+	}
+}
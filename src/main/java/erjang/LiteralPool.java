@@ -0,0 +1,138 @@
+/**
+ * This file is part of Erjang - A JVM-based Erlang VM
+ *
+ * Copyright (c) 2009 by Trifork
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *  
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+
+package erjang;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+import erjang.m.erlang.ErlConvert;
+
+/**
+ * Process-wide pool of the literals of compiled modules.
+ * 
+ * Compiled code keeps each literal list, tuple, string and binary in a
+ * static field, set up by the class initializer from a string constant
+ * that holds the literal's external format (or, for strings and binaries,
+ * just its characters or bytes).  The initializer asks the pool for the
+ * term instead of building it itself, so a literal that occurs in many
+ * modules is decoded once and shared, instead of being copied into each
+ * of them.
+ * 
+ * The pool is keyed by the encoded form, which the JVM keeps in its
+ * string table anyway while the classes are loaded.  Terms are weakly
+ * held, so the literals of unloaded modules go away with them.
+ */
+public final class LiteralPool {
+
+	private static final Kind TERM = new Kind() {
+		EObject decode(String encoded) {
+			return ErlConvert.binary_to_term(EBinary.fromString(encoded));
+		}
+	};
+
+	private static final Kind BINARY = new Kind() {
+		EObject decode(String bytes) {
+			return EBinary.fromString(bytes);
+		}
+	};
+
+	private static final Kind STRING = new Kind() {
+		EObject decode(String chars) {
+			return EString.fromString(chars);
+		}
+	};
+
+	private LiteralPool() {
+	}
+
+	/** @return the term whose external format is the bytes (as chars) of encoded */
+	public static EObject term(String encoded) {
+		return TERM.get(encoded);
+	}
+
+	/** @return the binary holding the bytes (as chars) of bytes */
+	public static EBinary binary(String bytes) {
+		return (EBinary) BINARY.get(bytes);
+	}
+
+	public static EString string(String chars) {
+		return (EString) STRING.get(chars);
+	}
+
+	/** @return the number of distinct literals in the pool */
+	public static int size() {
+		return TERM.size() + BINARY.size() + STRING.size();
+	}
+
+	private static final class Entry extends WeakReference<EObject> {
+		final String key;
+
+		Entry(String key, EObject term, ReferenceQueue<EObject> queue) {
+			super(term, queue);
+			this.key = key;
+		}
+	}
+
+	/** one kind of literal, and the pool of those seen */
+	private static abstract class Kind {
+		private final ConcurrentHashMap<String, Entry> pool = new ConcurrentHashMap<String, Entry>();
+		private final ReferenceQueue<EObject> cleared = new ReferenceQueue<EObject>();
+
+		abstract EObject decode(String encoded);
+
+		EObject get(String encoded) {
+			Entry e = pool.get(encoded);
+			EObject term;
+			if (e != null && (term = e.get()) != null) {
+				return term;
+			}
+			return intern(encoded);
+		}
+
+		private EObject intern(String encoded) {
+			purge();
+			EObject term = decode(encoded);
+			for (;;) {
+				Entry old = pool.get(encoded);
+				EObject known;
+				if (old != null && (known = old.get()) != null) {
+					return known;
+				}
+				Entry e = new Entry(encoded, term, cleared);
+				if (old == null ? pool.putIfAbsent(encoded, e) == null : pool.replace(encoded, old, e)) {
+					return term;
+				}
+			}
+		}
+
+		int size() {
+			purge();
+			return pool.size();
+		}
+
+		private void purge() {
+			Entry e;
+			while ((e = (Entry) cleared.poll()) != null) {
+				pool.remove(e.key, e);
+			}
+		}
+	}
+}
@@ -47,6 +47,7 @@ public class OTPMain {
 	    new erjang.driver.efile.Driver(),
 	    new erjang.driver.ram_file.Driver(),
 	    new erjang.driver.tcp_inet.Driver(),
+	    new erjang.driver.udp_inet.Driver(),
 	    new erjang.driver.inet_gethost.Driver(),
 	    new erjang.driver.zlib.Driver(),
 	    new erjang.driver.js.EJSDriver()
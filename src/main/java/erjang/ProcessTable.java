@@ -0,0 +1,137 @@
+/**
+ * This file is part of Erjang - A JVM-based Erlang VM
+ *
+ * Copyright (c) 2009 by Trifork
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *  
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package erjang;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The table of live processes, indexed by pid number.
+ * 
+ * The table is an array with a power-of-two number of slots, at least the
+ * process limit.  A pid number is taken from an ever-increasing counter,
+ * masked to 28 bits (15 bits of id and 13 of serial, as in the external
+ * pid format), and the low bits select the slot.  So each reuse of a slot
+ * gets a new pid number, and a stale pid never finds the process that has
+ * taken over its slot.
+ * 
+ * Adding a process claims the next free slot with a CAS; there are no
+ * locks.  The number of live processes is kept in a counter, which also
+ * enforces the process limit.
+ */
+final class ProcessTable implements Iterable<EProc> {
+
+	static final int NUMBER_MASK = 0x0fffffff;
+
+	private final AtomicReferenceArray<EProc> slots;
+	private final int mask;
+	private final int limit;
+	private final AtomicLong next = new AtomicLong();
+	private final AtomicInteger count = new AtomicInteger();
+
+	ProcessTable(int limit) {
+		if (limit < 1 || limit > NUMBER_MASK + 1)
+			throw new IllegalArgumentException("bad process limit: " + limit);
+		int size = Integer.highestOneBit(limit);
+		if (size < limit)
+			size <<= 1;
+		this.slots = new AtomicReferenceArray<EProc>(size);
+		this.mask = size - 1;
+		this.limit = limit;
+	}
+
+	/**
+	 * Put <code>proc</code> into a free slot.
+	 * 
+	 * @return the pid number of <code>proc</code>
+	 * @throws ErlangError system_limit if the table is full
+	 */
+	int add(EProc proc) {
+		if (count.incrementAndGet() > limit) {
+			count.decrementAndGet();
+			throw new ErlangError(ERT.am_system_limit);
+		}
+
+		// there are fewer than limit processes, so a free slot exists
+		while (true) {
+			int number = (int) next.getAndIncrement() & NUMBER_MASK;
+			int slot = number & mask;
+			if (slots.get(slot) == null && slots.compareAndSet(slot, null, proc))
+				return number;
+		}
+	}
+
+	void remove(int number, EProc proc) {
+		if (slots.compareAndSet(number & mask, proc, null))
+			count.decrementAndGet();
+	}
+
+	/** @return the process with pid number <code>number</code>, or null */
+	EProc get(int number) {
+		EProc proc = slots.get(number & mask);
+		if (proc != null && proc.number == number)
+			return proc;
+		return null;
+	}
+
+	int count() {
+		return count.get();
+	}
+
+	int limit() {
+		return limit;
+	}
+
+	/** Weakly consistent, like the iterators of the concurrent collections. */
+	@Override
+	public Iterator<EProc> iterator() {
+		return new Iterator<EProc>() {
+			int slot = -1;
+			EProc next = advance();
+
+			private EProc advance() {
+				while (++slot < slots.length()) {
+					EProc proc = slots.get(slot);
+					if (proc != null)
+						return proc;
+				}
+				return null;
+			}
+
+			public boolean hasNext() {
+				return next != null;
+			}
+
+			public EProc next() {
+				if (next == null)
+					throw new NoSuchElementException();
+				EProc res = next;
+				next = advance();
+				return res;
+			}
+
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+}
@@ -0,0 +1,519 @@
+/**
+ * This file is part of Erjang - A JVM-based Erlang VM
+ *
+ * Copyright (c) 2009 by Trifork
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *  
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package erjang;
+
+import java.math.BigInteger;
+
+import com.trifork.clj_ds.IMapEntry;
+import com.trifork.clj_ds.ISeq;
+
+/**
+ * Hashing of Erlang terms, without recursion.
+ *
+ * {@link #phash2(EObject)} follows make_hash2 in the BEAM's utils.c, so
+ * erlang:phash2 gives the same values as on BEAM; it is a running hash,
+ * computed over the term in the same order as BEAM does it.
+ *
+ * {@link #hash(EObject)} is what compound terms use for
+ * {@link Object#hashCode()}.  It combines the hash codes of the parts,
+ * so that tuples, lists and maps can keep the hash they computed, and a
+ * key that is looked up over and over is only hashed once.  Equal terms
+ * hash the same regardless of representation: a list is hashed element
+ * by element, whether it is an EString, an EBinList or a chain of
+ * EPairs, and a map's hash does not depend on the order of its entries.
+ *
+ * Both walk the term with an explicit stack, so deeply nested terms and
+ * long improper lists cannot overflow the Java stack.
+ */
+public final class TermHash {
+
+	private TermHash() {}
+
+	//
+	// ---- hashCode ----
+	//
+
+	private static final int TUPLE = 0, LIST = 1, MAP = 2;
+
+	/** hashCode for compound terms; others have their own */
+	public static int hash(EObject term) {
+		int memo = memo(term);
+		if (memo != 0) return memo;
+
+		Frame top = new Frame(term, null);
+		int result = 0; // hash of the part just finished
+
+		for (;;) {
+			EObject next = top.step(result);
+			if (next == null) {
+				result = top.acc;
+				remember(top.term, result);
+				top = top.parent;
+				if (top == null) return result;
+			} else if ((result = leaf(next)) == 0 && compound(next)) {
+				top = new Frame(next, top);
+			}
+		}
+	}
+
+	private static final class Frame {
+		final EObject term;
+		final Frame parent;
+		final int kind;
+		int acc;
+		boolean started;
+
+		int index;      // tuples: last element handed out
+		EObject rest;   // lists: the cells not yet visited
+		ISeq<IMapEntry<EObject, EObject>> entries; // maps
+		int key_hash;   // maps: hash of the key, while the value is hashed
+		boolean in_value;
+
+		Frame(EObject term, Frame parent) {
+			this.term = term;
+			this.parent = parent;
+			if (term instanceof ETuple) {
+				kind = TUPLE;
+				acc = ((ETuple) term).arity();
+			} else if (term instanceof EMap) {
+				kind = MAP;
+				entries = ((EMap) term).entries();
+			} else {
+				kind = LIST;
+				rest = term;
+			}
+		}
+
+		/** @return the next part to hash, or null when acc is the final value */
+		EObject step(int child) {
+			boolean first = !started;
+			started = true;
+
+			switch (kind) {
+			case TUPLE: {
+				ETuple t = (ETuple) term;
+				if (!first) acc = acc * 3 + child;
+				if (index == t.arity()) return null;
+				return t.elm(++index);
+			}
+
+			case LIST: {
+				if (!first) acc = 31 * acc + child;
+				EObject r = rest;
+				if (r instanceof EString || r instanceof EBigString) {
+					acc = acc * pow31(((ESeq) r).length()) + r.hashCode();
+					return null;
+				}
+				ECons cell = cons(r);
+				if (cell == null) {
+					if (r.isNil()) return null;
+					// an improper tail counts as one more element
+					rest = ERT.NIL;
+					return r;
+				}
+				rest = cell.tail();
+				return cell.head();
+			}
+
+			default: { // MAP
+				if (!first) {
+					if (in_value) {
+						acc += key_hash ^ child;
+						entries = entries.next();
+						in_value = false;
+					} else {
+						key_hash = child;
+						in_value = true;
+						return entries.first().getValue();
+					}
+				}
+				if (entries == null) return null;
+				return entries.first().getKey();
+			}
+			}
+		}
+	}
+
+	/** some ESeq implementations do not answer testNonEmptyList */
+	private static ECons cons(EObject term) {
+		return term instanceof ECons && !term.isNil() ? (ECons) term : null;
+	}
+
+	private static boolean compound(EObject term) {
+		return term instanceof ETuple || term instanceof EMap
+			|| (term instanceof ECons && !term.isNil());
+	}
+
+	/** @return the hash of term if it needs no walk, or 0 */
+	private static int leaf(EObject term) {
+		if (!compound(term) || term instanceof EString || term instanceof EBigString)
+			return term.hashCode();
+		return memo(term);
+	}
+
+	private static int memo(EObject term) {
+		if (term instanceof ETupleN) return ((ETupleN) term).hash;
+		if (term instanceof EPair) return ((EPair) term).hash;
+		if (term instanceof EMap) return ((EMap) term).hash;
+		return 0;
+	}
+
+	private static void remember(EObject term, int hash) {
+		if (term instanceof ETupleN) ((ETupleN) term).hash = hash;
+		else if (term instanceof EPair) ((EPair) term).hash = hash;
+		else if (term instanceof EMap) ((EMap) term).hash = hash;
+	}
+
+	/** 31^n, as it comes out of n steps of h = 31*h + x */
+	private static int pow31(int n) {
+		int result = 1, base = 31;
+		while (n != 0) {
+			if ((n & 1) != 0) result *= base;
+			base *= base;
+			n >>>= 1;
+		}
+		return result;
+	}
+
+	//
+	// ---- phash2 ----
+	//
+
+	private static final int HCONST = 0x9e3779b9;
+	private static final int HCONST_2 = 0x3c6ef372;
+	private static final int HCONST_3 = 0xdaa66d2b;
+	private static final int HCONST_4 = 0x78dde6e4;
+	private static final int HCONST_5 = 0x1715609d;
+	private static final int HCONST_6 = 0xb54cda56;
+	private static final int HCONST_7 = 0x5384540f;
+	private static final int HCONST_8 = 0xf1bbcdc8;
+	private static final int HCONST_9 = 0x8ff34781;
+	private static final int HCONST_10 = 0x2e2ac13a;
+	private static final int HCONST_11 = 0xcc623af3;
+	private static final int HCONST_12 = 0x6a99b4ac;
+	private static final int HCONST_13 = 0x08d12e65;
+	private static final int HCONST_14 = 0xa708a81e;
+	private static final int HCONST_15 = 0x454021d7;
+	private static final int HCONST_16 = 0xe3779b90;
+	private static final int HCONST_19 = 0xbe1e08bb;
+
+	/** the raw term for [], as BEAM mixes it into a running hash */
+	private static final int NIL_DEF = 0xfffffffb;
+
+	/** stack markers for map entries */
+	private static final Object MAP_PAIR = new Object(), MAP_TAIL = new Object();
+
+	/** make_hash2; all 32 bits */
+	public static int phash2(EObject term) {
+		return new Hash2().run(term);
+	}
+
+	private static final class Hash2 {
+		int hash;
+		int hash_xor_pairs;
+
+		Object[] stack = new Object[16];
+		int sp;
+
+		void push(Object o) {
+			if (sp == stack.length) {
+				Object[] s = new Object[sp * 2];
+				System.arraycopy(stack, 0, s, 0, sp);
+				stack = s;
+			}
+			stack[sp++] = o;
+		}
+
+		void mix(int x, int y, int k) {
+			int a = k + x, b = k + y, c = hash;
+			a -= b; a -= c; a ^= (c >>> 13);
+			b -= c; b -= a; b ^= (a << 8);
+			c -= a; c -= b; c ^= (b >>> 13);
+			a -= b; a -= c; a ^= (c >>> 12);
+			b -= c; b -= a; b ^= (a << 16);
+			c -= a; c -= b; c ^= (b >>> 5);
+			a -= b; a -= c; a ^= (c >>> 3);
+			b -= c; b -= a; b ^= (a << 10);
+			c -= a; c -= b; c ^= (b >>> 15);
+			hash = c;
+		}
+
+		void mix(int x, int k) {
+			mix(x, 0, k);
+		}
+
+		int run(EObject term) {
+			for (;;) {
+				hash_one(term);
+
+				// everything pushed is hashed into the running value
+				for (;;) {
+					if (sp == 0) return hash;
+					Object o = stack[--sp];
+					stack[sp] = null;
+					if (o == MAP_PAIR) {
+						hash_xor_pairs ^= hash;
+						hash = 0;
+					} else if (o == MAP_TAIL) {
+						hash = (Integer) stack[--sp];
+						mix(hash_xor_pairs, HCONST_19);
+						hash_xor_pairs = (Integer) stack[--sp];
+					} else {
+						term = (EObject) o;
+						break;
+					}
+				}
+			}
+		}
+
+		/** hash term itself; its parts are pushed */
+		void hash_one(EObject term) {
+			ESmall small;
+			EBig big;
+			EDouble dbl;
+			EAtom atom;
+			ETuple tuple;
+			EBitString bits;
+			EMap map;
+
+			if ((small = term.testSmall()) != null) {
+				int x = small.value;
+				if (x >= -(1 << 27) && x < (1 << 27)) {
+					if (x < 0) mix(-x, HCONST);
+					mix(x, HCONST);
+				} else {
+					hash_big(BigInteger.valueOf(x));
+				}
+
+			} else if ((big = term.testBig()) != null) {
+				hash_big(big.bigintValue());
+
+			} else if ((dbl = term.testFloat()) != null) {
+				double d = dbl.value;
+				if (d == 0.0) d = 0.0; // no -0.0
+				long bits_ = Double.doubleToRawLongBits(d);
+				mix((int) bits_, (int) (bits_ >>> 32), HCONST_12);
+
+			} else if ((atom = term.testAtom()) != null) {
+				int h = atom_hash(atom);
+				if (hash == 0) hash = h;
+				else mix(h, HCONST_3);
+
+			} else if (term.isNil()) {
+				if (hash == 0) hash = (int) 3468870702L;
+				else mix(NIL_DEF, HCONST_2);
+
+			} else if (term instanceof ECons) {
+				hash_list((ECons) term);
+
+			} else if ((tuple = term.testTuple()) != null) {
+				int arity = tuple.arity();
+				mix(arity, HCONST_9);
+				for (int i = arity; i >= 1; i--)
+					push(tuple.elm(i));
+
+			} else if ((bits = term.testBitString()) != null) {
+				int size = (int) (bits.bitSize() >>> 3);
+				int extra = (int) (bits.bitSize() & 7);
+				int con = HCONST_13 + hash;
+				if (size == 0 && extra == 0) {
+					hash = con;
+				} else {
+					hash = block_hash(bits, size, con);
+					if (extra > 0)
+						mix(extra, bits.intBitsAt(size * 8L, extra), HCONST_15);
+				}
+
+			} else if ((map = term.testMap()) != null) {
+				int size = map.map_size();
+				mix(size, HCONST_16);
+				if (size == 0) return;
+
+				// the pairs are hashed one by one, and xor'ed together
+				push(hash_xor_pairs);
+				push(hash);
+				push(MAP_TAIL);
+				hash = 0;
+				hash_xor_pairs = 0;
+				for (ISeq<IMapEntry<EObject, EObject>> s = map.entries(); s != null; s = s.next()) {
+					push(MAP_PAIR);
+					push(s.first().getValue());
+					push(s.first().getKey());
+				}
+
+			} else if (term instanceof EPID) {
+				mix(((EPID) term).id(), HCONST_5);
+
+			} else if (term instanceof EPort) {
+				mix(((EPort) term).id, HCONST_6);
+
+			} else if (term instanceof ERef) {
+				mix(((ERef) term).ids()[0], HCONST_7);
+
+			} else if (term instanceof EFun) {
+				FunID id = ((EFun) term).get_id();
+				if (id instanceof LocalFunID) {
+					// the environment is not reachable from here
+					LocalFunID lid = (LocalFunID) id;
+					mix(0, atom_hash(id.module), HCONST);
+					mix(lid.index, lid.uniq, HCONST);
+				} else {
+					mix(id.arity, atom_hash(id.module), HCONST);
+					mix(atom_hash(id.function), HCONST_14);
+				}
+
+			} else {
+				// not an Erlang term
+				mix(term.hashCode(), HCONST_8);
+			}
+		}
+
+		void hash_big(BigInteger value) {
+			BigInteger mag = value.abs();
+			int con = value.signum() < 0 ? HCONST_10 : HCONST_11;
+			int words = (mag.bitLength() + 31) / 32;
+			for (int i = 0; i < words; i += 2) {
+				int x = mag.shiftRight(32 * i).intValue();
+				int y = i + 1 < words ? mag.shiftRight(32 * (i + 1)).intValue() : 0;
+				mix(x, y, con);
+			}
+		}
+
+		/** the list cell and all of its byte elements; the rest is pushed */
+		void hash_list(ECons term) {
+			int c = 0, sh = 0;
+			EObject rest = term;
+			ECons cell;
+
+			for (;;) {
+				if (rest instanceof EString) {
+					EString s = (EString) rest;
+					for (int i = s.off; i < s.data.length; i++) {
+						sh = (sh << 8) + (s.data[i] & 0xff);
+						if (c == 3) {
+							mix(sh, HCONST_4);
+							c = sh = 0;
+						} else {
+							c++;
+						}
+					}
+					rest = ERT.NIL;
+					break;
+				}
+				if ((cell = cons(rest)) == null)
+					break;
+				ESmall b = cell.head().testSmall();
+				if (b == null || b.value < 0 || b.value > 255)
+					break;
+				sh = (sh << 8) + b.value;
+				if (c == 3) {
+					mix(sh, HCONST_4);
+					c = sh = 0;
+				} else {
+					c++;
+				}
+				rest = cell.tail();
+			}
+			if (c > 0)
+				mix(sh, HCONST_4);
+
+			if ((cell = cons(rest)) != null) {
+				push(cell.tail());
+				push(cell.head());
+			} else {
+				push(rest);
+			}
+		}
+	}
+
+	/** hashpjw over the atom's latin-1 text, as BEAM's atom table does */
+	static int atom_hash(EAtom atom) {
+		String name = atom.getName();
+		int h = 0;
+		for (int i = 0; i < name.length(); i++) {
+			int ch = name.charAt(i);
+			if (ch < 256) {
+				h = pjw(h, ch);
+			} else {
+				byte[] utf8 = String.valueOf(name.charAt(i)).getBytes(erjang.driver.IO.UTF8);
+				for (byte b : utf8)
+					h = pjw(h, b & 0xff);
+			}
+		}
+		return h;
+	}
+
+	private static int pjw(int h, int v) {
+		h = (h << 4) + v;
+		int g = h & 0xf0000000;
+		if (g != 0) {
+			h ^= (g >>> 24);
+			h ^= g;
+		}
+		return h;
+	}
+
+	/** Bob Jenkins' lookup2 over the first length bytes */
+	private static int block_hash(EBitString bin, int length, int initval) {
+		int a = HCONST, b = HCONST, c = initval;
+		int k = 0, len = length;
+
+		while (len >= 12) {
+			a += bin.octetAt(k) + (bin.octetAt(k + 1) << 8) + (bin.octetAt(k + 2) << 16) + (bin.octetAt(k + 3) << 24);
+			b += bin.octetAt(k + 4) + (bin.octetAt(k + 5) << 8) + (bin.octetAt(k + 6) << 16) + (bin.octetAt(k + 7) << 24);
+			c += bin.octetAt(k + 8) + (bin.octetAt(k + 9) << 8) + (bin.octetAt(k + 10) << 16) + (bin.octetAt(k + 11) << 24);
+			a -= b; a -= c; a ^= (c >>> 13);
+			b -= c; b -= a; b ^= (a << 8);
+			c -= a; c -= b; c ^= (b >>> 13);
+			a -= b; a -= c; a ^= (c >>> 12);
+			b -= c; b -= a; b ^= (a << 16);
+			c -= a; c -= b; c ^= (b >>> 5);
+			a -= b; a -= c; a ^= (c >>> 3);
+			b -= c; b -= a; b ^= (a << 10);
+			c -= a; c -= b; c ^= (b >>> 15);
+			k += 12;
+			len -= 12;
+		}
+
+		c += length;
+		switch (len) {
+		case 11: c += bin.octetAt(k + 10) << 24;
+		case 10: c += bin.octetAt(k + 9) << 16;
+		case 9: c += bin.octetAt(k + 8) << 8;
+		case 8: b += bin.octetAt(k + 7) << 24;
+		case 7: b += bin.octetAt(k + 6) << 16;
+		case 6: b += bin.octetAt(k + 5) << 8;
+		case 5: b += bin.octetAt(k + 4);
+		case 4: a += bin.octetAt(k + 3) << 24;
+		case 3: a += bin.octetAt(k + 2) << 16;
+		case 2: a += bin.octetAt(k + 1) << 8;
+		case 1: a += bin.octetAt(k);
+		}
+		a -= b; a -= c; a ^= (c >>> 13);
+		b -= c; b -= a; b ^= (a << 8);
+		c -= a; c -= b; c ^= (b >>> 13);
+		a -= b; a -= c; a ^= (c >>> 12);
+		b -= c; b -= a; b ^= (a << 16);
+		c -= a; c -= b; c ^= (b >>> 5);
+		a -= b; a -= c; a ^= (c >>> 3);
+		b -= c; b -= a; b ^= (a << 10);
+		c -= a; c -= b; c ^= (b >>> 15);
+		return c;
+	}
+}
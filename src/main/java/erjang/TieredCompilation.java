@@ -0,0 +1,218 @@
+/**
+ * This file is part of Erjang - A JVM-based Erlang VM
+ *
+ * Copyright (c) 2009 by Trifork
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *  
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+
+package erjang;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import erjang.beam.interpreter.AbstractInterpreter;
+
+/**
+ * Tiered execution: interpret first, compile hot modules in the background.
+ *
+ * When <code>-Derjang.beam.option.tiered=true</code>, a module that is not
+ * already in the code cache is loaded into the interpreter, which counts
+ * calls into it. Once a module has been entered
+ * <code>erjang.beam.tiered.hot</code> times (default 1000) it is queued for
+ * compilation on a small pool of background threads. When the compiled
+ * version is ready it is loaded like any new version of the module, which
+ * rebinds every exported function at once; processes running
+ * interpreted code carry on and pick up the compiled code on their next
+ * external call. Loading any other version of the module meanwhile
+ * cancels the promotion.
+ *
+ * What got promoted is logged on <code>erjang.beam.tiered</code> and
+ * reported by <code>erlang:system_info(tiered_compilation)</code>.
+ */
+public final class TieredCompilation {
+	static final Logger log = Logger.getLogger("erjang.beam.tiered");
+
+	public static final boolean ENABLED = ErjangConfig.getBoolean("erjang.beam.option.tiered");
+
+	/** a module entered this many times is compiled */
+	public static final int HOT_CALLS = ErjangConfig.hasString("erjang.beam.tiered.hot")
+			? ErjangConfig.getInteger("erjang.beam.tiered.hot")
+			: 1000;
+
+	static final int THREADS = ErjangConfig.hasString("erjang.beam.tiered.threads")
+			? ErjangConfig.getInteger("erjang.beam.tiered.threads")
+			: Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+
+	/** interpreted modules that may still be promoted, by name */
+	private static final ConcurrentHashMap<String, Candidate> candidates = new ConcurrentHashMap<String, Candidate>();
+
+	private static ExecutorService pool;
+
+	/* metrics */
+	private static final AtomicInteger interpreted = new AtomicInteger();
+	private static final AtomicInteger failed = new AtomicInteger();
+	private static final ConcurrentLinkedQueue<Promotion> promoted = new ConcurrentLinkedQueue<Promotion>();
+
+	private TieredCompilation() {
+	}
+
+	/** An interpreted module, with its beam kept for compiling it later. */
+	public static final class Candidate {
+		final String module;
+		final EBinary beam;
+		final AbstractInterpreter.Module code;
+		private final AtomicBoolean queued = new AtomicBoolean();
+		private int calls;
+		private boolean cancelled;
+
+		Candidate(String module, EBinary beam, AbstractInterpreter.Module code) {
+			this.module = module;
+			this.beam = beam;
+			this.code = code;
+		}
+
+		/**
+		 * Called on every entry into the interpreted module. The count
+		 * is not exact under contention; it only has to get there.
+		 */
+		public void entered() {
+			if (calls < HOT_CALLS && ++calls == HOT_CALLS) {
+				submit(this);
+			}
+		}
+	}
+
+	static final class Promotion {
+		final String module;
+		final int calls;
+		final long compile_ms;
+
+		Promotion(String module, int calls, long compile_ms) {
+			this.module = module;
+			this.calls = calls;
+			this.compile_ms = compile_ms;
+		}
+	}
+
+	/** Register a module that was just loaded into the interpreter. */
+	static void interpreted(String module, EBinary beam, AbstractInterpreter.Module code) {
+		Candidate c = new Candidate(module, beam, code);
+		candidates.put(module, c);
+		code.tiered(c);
+		interpreted.incrementAndGet();
+	}
+
+	static Candidate candidate(String module) {
+		return candidates.get(module);
+	}
+
+	/** Called before any version of <code>module</code> is loaded. */
+	static void loading(String module) {
+		Candidate c = candidates.remove(module);
+		if (c != null) {
+			synchronized (c) {
+				c.cancelled = true;
+			}
+		}
+	}
+
+	static void submit(final Candidate c) {
+		if (!c.queued.compareAndSet(false, true))
+			return;
+
+		executor().execute(new Runnable() {
+			public void run() {
+				promote(c);
+			}
+		});
+	}
+
+	private static synchronized ExecutorService executor() {
+		if (pool == null) {
+			pool = Executors.newFixedThreadPool(THREADS, new ThreadFactory() {
+				final AtomicInteger n = new AtomicInteger();
+
+				public Thread newThread(Runnable r) {
+					Thread t = new Thread(r, "Erjang Tiered Compiler " + n.incrementAndGet());
+					t.setDaemon(true);
+					t.setPriority(Thread.MIN_PRIORITY);
+					return t;
+				}
+			});
+		}
+		return pool;
+	}
+
+	static void promote(Candidate c) {
+		long before = System.currentTimeMillis();
+		EModuleClassLoader loader;
+		try {
+			loader = ErjangCodeCache.getModuleClassLoader(c.module, c.beam, EModuleLoader.beamParser);
+		} catch (Throwable e) {
+			failed.incrementAndGet();
+			log.warning("Compiling " + c.module + " failed - it stays interpreted: " + e);
+			log.log(Level.FINE, "details: ", e);
+			candidates.remove(c.module, c);
+			return;
+		}
+		long compile_ms = System.currentTimeMillis() - before;
+
+		synchronized (c) {
+			if (c.cancelled
+					|| EModuleManager.get_loaded_module(EAtom.intern(c.module)) != c.code)
+				return;
+			candidates.remove(c.module, c);
+			EModuleLoader.load_compiled_module(c.module, loader);
+		}
+
+		promoted.add(new Promotion(c.module, c.calls, compile_ms));
+		if (log.isLoggable(Level.FINE)) {
+			log.fine("promoted " + c.module + " after " + c.calls
+					+ " calls; compiled in " + compile_ms + "ms");
+		}
+	}
+
+	/*==================== Metrics ====================*/
+
+	static final EAtom am_interpreted = EAtom.intern("interpreted");
+	static final EAtom am_pending = EAtom.intern("pending");
+	static final EAtom am_promoted = EAtom.intern("promoted");
+	static final EAtom am_failed = EAtom.intern("failed");
+
+	/**
+	 * @return <code>[{interpreted, N}, {pending, N}, {failed, N},
+	 *         {promoted, [{Module, Calls, CompileMillis}]}]</code>
+	 */
+	public static ESeq info() {
+		ESeq prom = ERT.NIL;
+		for (Promotion p : promoted) {
+			prom = prom.cons(ETuple.make(EAtom.intern(p.module),
+					ERT.box(p.calls), ERT.box(p.compile_ms)));
+		}
+
+		return ERT.NIL
+				.cons(new ETuple2(am_promoted, prom))
+				.cons(new ETuple2(am_failed, ERT.box(failed.get())))
+				.cons(new ETuple2(am_pending, ERT.box(candidates.size())))
+				.cons(new ETuple2(am_interpreted, ERT.box(interpreted.get())));
+	}
+}
@@ -57,7 +57,8 @@ public class BIFUtil {
 		try {
 			loadBIFs(new String[]{"erlang", "error_logger", "ets", "lists", "math", 
 								  "net_kernel", "os", "re", "unicode", 
-                                  "io_lib", "crypto", "file", "binary" });
+                                  "io_lib", "crypto", "file", "binary",
+                                  "atomics", "counters", "persistent_term" });
 		} catch (Exception e) {
 			throw new Error("Missing native module", e);
 		}
@@ -165,6 +165,15 @@ public enum BeamOpcode {
 
 	// Synthetic (Erjang-internal) opcodes
 	i_call_fun_last            (0xF0),
+
+	// Superinstructions, made by the interpreter's encoder (Insn.Fused)
+	i_move2                    (0xF1),
+	i_move_call                (0xF2),
+	i_move_call_ext            (0xF3),
+	i_move_call_last           (0xF4),
+	i_move_return              (0xF5),
+	i_deallocate_return        (0xF6),
+	i_get_tuple_element2       (0xF7),
 	
 	// illegal op-code
 	NONE
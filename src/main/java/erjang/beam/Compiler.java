@@ -42,6 +42,7 @@ import org.objectweb.asm.util.CheckClassAdapter;
 
 import com.ericsson.otp.erlang.OtpAuthException;
 
+import erjang.CallProfile;
 import erjang.EBinary;
 import erjang.EFun;
 import erjang.EObject;
@@ -66,6 +67,27 @@ public class Compiler implements Opcodes {
 	}
 
 	public static void compile(BeamFileData data, ClassRepo repo) throws IOException {
+		compile(data, repo, null);
+	}
+
+	/**
+	 * @param hints what a call profile of an earlier run says about the
+	 *        module, or null
+	 */
+	public static void compile(BeamFileData data, ClassRepo repo,
+			CallProfile.Hints hints) throws IOException {
+		compile(data, repo, hints, BeamTypeAnalysis.THREADS,
+				BeamTypeAnalysis.PARALLEL_FUNCTIONS);
+	}
+
+	/**
+	 * @param threads the number of threads for the type analysis
+	 * @param parallel_functions the number of functions from which the
+	 *        type analysis runs in parallel
+	 */
+	public static void compile(BeamFileData data, ClassRepo repo,
+			CallProfile.Hints hints, int threads, int parallel_functions)
+			throws IOException {
 		// reset thread-local data 
 		ClassWeaver.reset();
 		
@@ -79,13 +101,14 @@ public class Compiler implements Opcodes {
 		CompilerVisitor cv = new CompilerVisitor(cw, repo);
 
 		// the type analysis, phase 2
-		BeamTypeAnalysis analysis = new BeamTypeAnalysis(cv);
+		BeamTypeAnalysis analysis = new BeamTypeAnalysis(cv, threads, parallel_functions);
 
 		// the module analyzer, phase 1 (not chained to phase 2)
 		ModuleAnalyzer ma = new ModuleAnalyzer();
 		data.accept(ma);
 
 		cv.setFunInfos(ma.getFunInfos());
+		cv.setProfileHints(hints);
 
 		try {
 			// go!
@@ -30,6 +30,7 @@ import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -52,6 +53,8 @@ import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
 import org.objectweb.asm.commons.Method;
 
+import erjang.ApplySite;
+import erjang.CallProfile;
 import erjang.EAtom;
 import erjang.EBig;
 import erjang.EBinMatchState;
@@ -81,11 +84,13 @@ import erjang.EString;
 import erjang.ETask;
 import erjang.ETuple;
 import erjang.ETuple2;
+import erjang.ETupleN;
 import erjang.ErlangException;
 import erjang.Export;
 import erjang.FunID;
 import erjang.Import;
 import erjang.Internal;
+import erjang.LiteralPool;
 import erjang.LocalFunID;
 import erjang.Module;
 import erjang.OnLoad;
@@ -163,6 +168,7 @@ public class CompilerVisitor implements ModuleVisitor, Opcodes {
 	static final Type ENIL_TYPE = Type.getType(ENil.class);
 	static final Type EATOM_TYPE = Type.getType(EAtom.class);
 	static final Type ETUPLE_TYPE = Type.getType(ETuple.class);
+	static final Type ETUPLEN_TYPE = Type.getType(ETupleN.class);
 	static final Type EBINARY_TYPE = Type.getType(EBinary.class);
 	static final Type EBITSTRING_TYPE = Type.getType(EBitString.class);
 	static final Type EBITSTRINGBUILDER_TYPE = Type
@@ -171,12 +177,15 @@ public class CompilerVisitor implements ModuleVisitor, Opcodes {
 	static final Type ESEQ_TYPE = Type.getType(ESeq.class);
 	static final Type ELIST_TYPE = Type.getType(EList.class);
 	static final Type EFUN_TYPE = Type.getType(EFun.class);
+	static final Type APPLY_SITE_TYPE = Type.getType(ApplySite.class);
+	static final String LITERAL_POOL_NAME = Type.getInternalName(LiteralPool.class);
 	/**
 	 * 
 	 */
 	static final String EFUN_NAME = EFUN_TYPE.getInternalName();
 	static final String EOBJECT_NAME = EOBJECT_TYPE.getInternalName();
 	static final String ETUPLE_NAME = ETUPLE_TYPE.getInternalName();
+	static final String ETUPLEN_NAME = ETUPLEN_TYPE.getInternalName();
 	static final String ERT_NAME = ERT_TYPE.getInternalName();
 	static final String EDOUBLE_NAME = EDOUBLE_TYPE.getInternalName();
 	static final String EBIG_NAME = EBIG_TYPE.getInternalName();
@@ -277,6 +286,9 @@ public class CompilerVisitor implements ModuleVisitor, Opcodes {
 	Map<EObject, String> constants = new HashMap<EObject, String>();
 	Map<BitSet, String> bitsets = new HashMap<BitSet, String>();
 
+	/** arity of each apply instruction, by the name of its ApplySite field */
+	Map<String, Integer> apply_sites = new HashMap<String, Integer>();
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -394,6 +406,11 @@ public class CompilerVisitor implements ModuleVisitor, Opcodes {
 		return type;
 	}
 	
+	/** @return the bytes of bin as the chars of a string, for an LDC */
+	static String latin1(EBinary bin) {
+		return new String(bin.getByteArray(), StandardCharsets.ISO_8859_1);
+	}
+
 	/**
 	 * 
 	 */
@@ -402,6 +419,8 @@ public class CompilerVisitor implements ModuleVisitor, Opcodes {
 				"()V", null, null);
 		mv.visitCode();
 
+		generate_profile_init(mv);
+
 		for (Map.Entry<String, String> ent : funs.entrySet()) {
 
 			String field = ent.getKey();
@@ -416,6 +435,21 @@ public class CompilerVisitor implements ModuleVisitor, Opcodes {
 
 		}
 
+		for (Map.Entry<String, Integer> ent : apply_sites.entrySet()) {
+			String name = ent.getKey();
+
+			cv.visitField(ACC_STATIC, name, APPLY_SITE_TYPE.getDescriptor(),
+					null, null).visitEnd();
+
+			mv.visitTypeInsn(NEW, APPLY_SITE_TYPE.getInternalName());
+			mv.visitInsn(DUP);
+			push_int(mv, ent.getValue());
+			mv.visitMethodInsn(INVOKESPECIAL, APPLY_SITE_TYPE.getInternalName(),
+					"<init>", "(I)V");
+			mv.visitFieldInsn(PUTSTATIC, self_type.getInternalName(), name,
+					APPLY_SITE_TYPE.getDescriptor());
+		}
+
 		for (Map.Entry<BitSet,String> ent : bitsets.entrySet()) {
 			BitSet bs = ent.getKey();
 			String name = ent.getValue();
@@ -455,21 +489,30 @@ public class CompilerVisitor implements ModuleVisitor, Opcodes {
 			EObject term = ent.getKey();
 			Type type = getConstantType(term);
 
+			// compound literals, strings and binaries come from the
+			// literal pool, which shares them between modules
 			ETuple tup;
 			if (((tup=term.testTuple()) != null || term.testCons() != null)  
 					&& term != ERT.NIL
 					&& !type.equals(ESTRING_TYPE)
 					) {
 				EBinary bin = ErlConvert.term_to_binary(term, EList.make(ErlConvert.am_compressed));
-				bin.emit_const(mv);
-				
-				mv.visitMethodInsn(INVOKESTATIC, 
-						Type.getType(ErlConvert.class).getInternalName(),
-						"binary_to_term",
-						EUtil.getSignature(1, false));
+				mv.visitLdcInsn(latin1(bin));
+				mv.visitMethodInsn(INVOKESTATIC, LITERAL_POOL_NAME, "term",
+						"(Ljava/lang/String;)" + EOBJECT_DESC);
 				
 				mv.visitTypeInsn(CHECKCAST, type.getInternalName());
 				
+			} else if (type.equals(EBINARY_TYPE)) {
+				mv.visitLdcInsn(latin1((EBinary) term));
+				mv.visitMethodInsn(INVOKESTATIC, LITERAL_POOL_NAME, "binary",
+						"(Ljava/lang/String;)" + EBINARY_TYPE.getDescriptor());
+
+			} else if (type.equals(ESTRING_TYPE)) {
+				mv.visitLdcInsn(((EString) term).stringValue());
+				mv.visitMethodInsn(INVOKESTATIC, LITERAL_POOL_NAME, "string",
+						"(Ljava/lang/String;)" + ESTRING_TYPE.getDescriptor());
+
 			} else {		
 				term.emit_const(mv);
 			}
@@ -753,6 +796,8 @@ public class CompilerVisitor implements ModuleVisitor, Opcodes {
 			mv.visitCode();
 			allocate_regs_to_locals(x_regs, y_count, fp_count);
 
+			emit_profile_count(mv, CallProfile.fun_key(fun_name, arity));
+
 			mv.visitLabel(start);
 
 			mv.visitJumpInsn(GOTO, getLabel(startLabel));
@@ -2262,6 +2307,21 @@ public class CompilerVisitor implements ModuleVisitor, Opcodes {
 			@Override
 			public void visitMakeTuple(int arity, Arg out, Arg[] elems) {
 				String name = out.type.getInternalName();
+
+				if (ETUPLEN_TYPE.equals(out.type)) {
+					push_int(arity);
+					mv.visitTypeInsn(ANEWARRAY, EOBJECT_NAME);
+					for (int i = 0; i < arity; i++) {
+						mv.visitInsn(DUP);
+						push_int(i);
+						push(elems[i], EOBJECT_TYPE);
+						mv.visitInsn(AASTORE);
+					}
+					mv.visitMethodInsn(INVOKESTATIC, name, "make_tuple",
+							"([" + EOBJECT_DESC + ")" + out.type.getDescriptor());
+					pop(out, out.type);
+					return;
+				}
 				
 				StringBuffer sb = new StringBuffer("(");
 				for (int i = 0; i<arity; i++) sb.append(EOBJECT_DESC);
@@ -2282,7 +2342,12 @@ public class CompilerVisitor implements ModuleVisitor, Opcodes {
 				case put_tuple:
 				{
 					String name = out.type.getInternalName();
-					mv.visitMethodInsn(INVOKESTATIC, name, "create", "()L" + name + ";");
+					if (ETUPLEN_TYPE.equals(out.type)) {
+						push_int(val);
+						mv.visitMethodInsn(INVOKESTATIC, name, "create", "(I)L" + name + ";");
+					} else {
+						mv.visitMethodInsn(INVOKESTATIC, name, "create", "()L" + name + ";");
+					}
 					pop(out, out.type);
 				}
 					return;
@@ -2330,9 +2395,16 @@ public class CompilerVisitor implements ModuleVisitor, Opcodes {
 			public void visitInsn(BeamOpcode opcode, Arg val, Arg out, int pos) {
 				if (opcode == BeamOpcode.put) {
 					push(out, out.type);
-					push(val, EOBJECT_TYPE);
-					mv.visitFieldInsn(PUTFIELD, out.type.getInternalName(),
-							"elem" + pos, EOBJECT_DESC);
+					if (ETUPLEN_TYPE.equals(out.type)) {
+						push_int(pos);
+						push(val, EOBJECT_TYPE);
+						mv.visitMethodInsn(INVOKEVIRTUAL, ETUPLE_NAME, "set", "(I"
+								+ EOBJECT_DESC + ")V");
+					} else {
+						push(val, EOBJECT_TYPE);
+						mv.visitFieldInsn(PUTFIELD, out.type.getInternalName(),
+								"elem" + pos, EOBJECT_DESC);
+					}
 					return;
 
 				} else if (opcode == BeamOpcode.get_tuple_element) {
@@ -2582,7 +2654,20 @@ public class CompilerVisitor implements ModuleVisitor, Opcodes {
 				switch (test) {
 				case test_arity: {
 					Type tt = getTubleType(arity);
-					if (tt.equals(arg.type)) {
+					if (tt.equals(ETUPLEN_TYPE)) {
+						// one class for all large arities; always check
+						push(arg, EOBJECT_TYPE);
+						push_int(arity);
+						mv.visitMethodInsn(INVOKESTATIC, ETUPLEN_NAME, "cast", "("
+								+ EOBJECT_DESC + "I)" + tt.getDescriptor());
+						mv.visitInsn(DUP);
+
+						mv.visitVarInsn(ASTORE, scratch_reg);
+						mv.visitJumpInsn(IFNULL, getLabel(failLabel));
+
+						mv.visitVarInsn(ALOAD, scratch_reg);
+						pop(arg, tt);
+					} else if (tt.equals(arg.type)) {
 						// do nothing //
 					} else {
 						push(arg, EOBJECT_TYPE);
@@ -2872,12 +2957,17 @@ public class CompilerVisitor implements ModuleVisitor, Opcodes {
 						|| opcode == BeamOpcode.apply_last) {
 
 					int arity = ys.length - 2;
+					String site = "apply_site_" + apply_sites.size();
+					apply_sites.put(site, arity);
+
+					mv.visitFieldInsn(GETSTATIC, self_type.getInternalName(),
+							site, APPLY_SITE_TYPE.getDescriptor());
 					push(ys[ys.length - 2], EOBJECT_TYPE); // push mod
 					push(ys[ys.length - 1], EOBJECT_TYPE); // push fun
-					push_int(arity); // push arity
 
-					mv.visitMethodInsn(INVOKESTATIC, ERT_NAME, "resolve_fun",
-							"(" + EOBJECT_DESC + EOBJECT_DESC + "I)"
+					mv.visitMethodInsn(INVOKEVIRTUAL,
+							APPLY_SITE_TYPE.getInternalName(), "resolve",
+							"(" + EOBJECT_DESC + EOBJECT_DESC + ")"
 									+ EFUN_DESCRIPTOR);
 
 					String funtype = EFUN_NAME + arity;
@@ -3001,7 +3091,7 @@ public class CompilerVisitor implements ModuleVisitor, Opcodes {
 				if (all_small_ints) {
 					int[] ivals = new int[values.length];
 					Label[] label = new Label[values.length];
-					Set<Label> targetset = new HashSet<Label>();
+					Set<Label> targetset = new LinkedHashSet<Label>();
 
 					for (int i = 0; i < values.length; i++) {
 						ivals[i] = values[i].value.asInt();
@@ -3348,6 +3438,7 @@ public class CompilerVisitor implements ModuleVisitor, Opcodes {
 			 * @return
 			 */
 			private Type getTubleType(int i) {
+				if (i > ETuple.MAX_FIELDS) return ETUPLEN_TYPE;
 				return Type.getType("L" + ETUPLE_NAME + i + ";");
 			}
 
@@ -3373,6 +3464,10 @@ public class CompilerVisitor implements ModuleVisitor, Opcodes {
 
 				if (is_local_self_recursion) {
 
+					emit_profile_count(mv, CallProfile.call_key(
+							ASMFunctionAdapter.this.fun_name,
+							ASMFunctionAdapter.this.arity, fun.fun, fun.arity));
+
 					mv.visitVarInsn(ALOAD, 0);
 					mv.visitMethodInsn(INVOKEVIRTUAL, ETASK_NAME,
 							"check_exit", "()V");
@@ -3480,6 +3575,10 @@ public class CompilerVisitor implements ModuleVisitor, Opcodes {
 
 				} else {
 
+					emit_profile_count(mv, CallProfile.call_key(
+							ASMFunctionAdapter.this.fun_name,
+							ASMFunctionAdapter.this.arity, fun.fun, fun.arity));
+
 					mv.visitVarInsn(ALOAD, 0);
 					for (int i = 0; i < args.length; i++) {
 						push(args[i], EOBJECT_TYPE);
@@ -3491,7 +3590,8 @@ public class CompilerVisitor implements ModuleVisitor, Opcodes {
 					
 					if (!is_tail && 
 						target.may_return_tail_marker &&
-						Boolean.getBoolean("erjang.inline_calls") ) {
+						is_hot_call(ASMFunctionAdapter.this.fun_name,
+								ASMFunctionAdapter.this.arity, fun) ) {
 						
 						
 						mv.visitMethodInsn(INVOKESTATIC, self_type.getInternalName(),
@@ -4023,6 +4123,70 @@ public class CompilerVisitor implements ModuleVisitor, Opcodes {
 		this.funInfos = funInfos;
 	}
 
+	/*==================== call profiling ====================*/
+
+	private CallProfile.Hints profile_hints;
+
+	/** counter keys of this module, in counter index order */
+	private final List<String> profile_keys = new ArrayList<String>();
+	private final Map<String, Integer> profile_index = new HashMap<String, Integer>();
+
+	static final String CALLPROFILE_NAME = Type.getInternalName(CallProfile.class);
+	static final String CALLPROFILE_DESC = Type.getDescriptor(CallProfile.class);
+
+	public void setProfileHints(CallProfile.Hints hints) {
+		this.profile_hints = hints;
+	}
+
+	boolean is_hot_call(EAtom caller, int caller_arity, ExtFun callee) {
+		if (Boolean.getBoolean("erjang.inline_calls"))
+			return true;
+		return profile_hints != null
+				&& profile_hints.is_hot_call(caller, caller_arity, callee.fun,
+						callee.arity);
+	}
+
+	/** emit <code>$profile.count(idx)</code> for <code>key</code>, if profiling */
+	void emit_profile_count(MethodVisitor mv, String key) {
+		if (!CallProfile.ENABLED)
+			return;
+
+		Integer idx = profile_index.get(key);
+		if (idx == null) {
+			idx = profile_keys.size();
+			profile_keys.add(key);
+			profile_index.put(key, idx);
+		}
+
+		mv.visitFieldInsn(GETSTATIC, self_type.getInternalName(), "$profile",
+				CALLPROFILE_DESC);
+		mv.visitLdcInsn(idx);
+		mv.visitMethodInsn(INVOKEVIRTUAL, CALLPROFILE_NAME, "count", "(I)V");
+	}
+
+	/** register the module's counters; part of &lt;clinit&gt; */
+	private void generate_profile_init(MethodVisitor mv) {
+		if (profile_keys.isEmpty())
+			return;
+
+		cv.visitField(ACC_STATIC | ACC_FINAL, "$profile", CALLPROFILE_DESC,
+				null, null).visitEnd();
+
+		mv.visitLdcInsn(getModuleName());
+		mv.visitLdcInsn(profile_keys.size());
+		mv.visitTypeInsn(ANEWARRAY, Type.getInternalName(String.class));
+		for (int i = 0; i < profile_keys.size(); i++) {
+			mv.visitInsn(DUP);
+			mv.visitLdcInsn(i);
+			mv.visitLdcInsn(profile_keys.get(i));
+			mv.visitInsn(AASTORE);
+		}
+		mv.visitMethodInsn(INVOKESTATIC, CALLPROFILE_NAME, "register", "(Ljava/lang/String;[Ljava/lang/String;)"
+				+ CALLPROFILE_DESC);
+		mv.visitFieldInsn(PUTSTATIC, self_type.getInternalName(), "$profile",
+				CALLPROFILE_DESC);
+	}
+
 }
 
 /** Active exception handler */
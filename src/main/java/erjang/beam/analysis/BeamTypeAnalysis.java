@@ -30,6 +30,10 @@ import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -58,6 +62,8 @@ import erjang.ESeq;
 import erjang.ESmall;
 import erjang.ETuple;
 import erjang.ETuple2;
+import erjang.ETupleN;
+import erjang.ErjangConfig;
 import erjang.beam.Arg;
 import erjang.beam.BIFUtil;
 import erjang.beam.BeamCodeBlock;
@@ -88,11 +94,36 @@ import static erjang.beam.CodeAtoms.*;
 
 public class BeamTypeAnalysis extends ModuleAdapter {
 	static final Logger log = Logger.getLogger("erjang.beam");
+
+	/** Modules with at least this many functions are analyzed in parallel. */
+	public static final int PARALLEL_FUNCTIONS = 32;
+
+	public static final int THREADS = ErjangConfig.hasString("erjang.beam.compile.threads")
+			? ErjangConfig.getInteger("erjang.beam.compile.threads")
+			: Runtime.getRuntime().availableProcessors();
+
+	/** shared by all analyses with the configured number of threads */
+	private static ForkJoinPool pool;
+
+	private final int threads;
+	private final int parallel_functions;
+
 	/**
 	 * 
 	 */
 	public BeamTypeAnalysis(ModuleVisitor mv) {
+		this(mv, THREADS, PARALLEL_FUNCTIONS);
+	}
+
+	/**
+	 * @param threads analyze on this many threads; 1 analyzes sequentially
+	 * @param parallel_functions the number of functions from which a
+	 *        module is analyzed in parallel
+	 */
+	public BeamTypeAnalysis(ModuleVisitor mv, int threads, int parallel_functions) {
 		super(mv);
+		this.threads = threads;
+		this.parallel_functions = parallel_functions;
 	}
 
 	static final Type ESMALL_TYPE = Type.getType(ESmall.class);
@@ -104,6 +135,7 @@ public class BeamTypeAnalysis extends ModuleAdapter {
 	static final Type ENIL_TYPE = Type.getType(ENil.class);
 	static final Type EATOM_TYPE = Type.getType(EAtom.class);
 	static final Type ETUPLE_TYPE = Type.getType(ETuple.class);
+	static final Type ETUPLEN_TYPE = Type.getType(ETupleN.class);
 	static final Type EBINARY_TYPE = Type.getType(EBinary.class);
 	static final Type EBITSTRING_TYPE = Type.getType(EBitString.class);
 	static final Type ECONS_TYPE = Type.getType(ECons.class);
@@ -228,8 +260,17 @@ public class BeamTypeAnalysis extends ModuleAdapter {
 			this.startLabel = startLabel;
 		}
 
+		/** Nothing is passed on until the whole module has been analyzed;
+		 *  see {@link BeamTypeAnalysis#visitEnd()}. */
 		@Override
 		public void visitEnd() {
+		}
+
+		private List<Integer> dead;
+
+		/** The type analysis proper.  It only touches this function's
+		 *  own state, so functions can be analyzed concurrently. */
+		void type_analysis() {
 			LabeledBlock lb = lbs.get(startLabel);
 			lb.merge_from(this.make_initial());
 
@@ -284,11 +325,10 @@ public class BeamTypeAnalysis extends ModuleAdapter {
 				this.dump();
 			}
 
-			function_visit_end(dead);
-
+			this.dead = dead;
 		}
 
-		private void function_visit_end(List<Integer> dead) {
+		void function_visit_end() {
 
 			if (fv instanceof FunctionVisitor2) {
 				((FunctionVisitor2) fv).visitMaxs((Collection<Integer>) this.all_xregs  ,
@@ -2561,6 +2601,8 @@ public class BeamTypeAnalysis extends ModuleAdapter {
 
 
 			private Type getTupleType(int arity) {
+				if (arity > ETuple.MAX_FIELDS)
+					return ETUPLEN_TYPE;
 
 				ETuple.get_tuple_class(arity);
 
@@ -2830,6 +2872,76 @@ public class BeamTypeAnalysis extends ModuleAdapter {
 		super.visitAttribute(att, value);
 	}
 
+	/**
+	 * Analyze all functions, in parallel for big modules, and then
+	 * pass them on in their original order.  The next phase sees
+	 * exactly the same calls either way, so the generated code does
+	 * not depend on how the analysis was scheduled.
+	 */
+	@Override
+	public void visitEnd() {
+		if (threads > 1 && functions.size() >= parallel_functions) {
+			analyze_in_parallel();
+		} else {
+			for (FV f : functions) {
+				f.type_analysis();
+			}
+		}
+
+		for (FV f : functions) {
+			f.function_visit_end();
+		}
+
+		super.visitEnd();
+	}
+
+	private void analyze_in_parallel() {
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(functions.size());
+		for (final FV f : functions) {
+			tasks.add(new Callable<Void>() {
+				public Void call() {
+					f.type_analysis();
+					return null;
+				}
+			});
+		}
+
+		List<Future<Void>> results;
+		if (threads == THREADS) {
+			results = pool().invokeAll(tasks);
+		} else {
+			ForkJoinPool own = new ForkJoinPool(threads);
+			try {
+				results = own.invokeAll(tasks);
+			} finally {
+				own.shutdown();
+			}
+		}
+
+		// report the failure of the first function, as the sequential
+		// analysis would
+		for (Future<Void> res : results) {
+			try {
+				res.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new Error("interrupted while analyzing " + moduleName, e);
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+				if (cause instanceof Error) throw (Error) cause;
+				throw new Error(cause);
+			}
+		}
+	}
+
+	private static synchronized ForkJoinPool pool() {
+		if (pool == null) {
+			pool = new ForkJoinPool(THREADS);
+		}
+		return pool;
+	}
+
 	public String getModuleName() {
 		return this.moduleName.getName();
 	}
@@ -29,6 +29,7 @@ import erjang.EModuleManager;
 import erjang.EFun;
 import erjang.FunID;
 import erjang.EModuleClassLoader;
+import erjang.TieredCompilation;
 
 import erjang.ERT;
 import erjang.ErlangError;
@@ -43,6 +44,7 @@ import erjang.EPseudoTerm;
 import erjang.beam.ModuleVisitor;
 import erjang.beam.FunctionVisitor;
 
+import erjang.beam.BeamOpcode;
 import erjang.beam.repr.Insn;
 import erjang.beam.repr.Operands;
 import erjang.beam.repr.ExtFun;
@@ -247,6 +249,109 @@ public class AbstractInterpreter {
 			assert(! label_map.containsKey(beamLabel));
 			label_map.put(beamLabel, codePos());
 		}
+
+		/** Instructions which encode to nothing; they must not keep
+		 *  their neighbours from being fused. */
+		static boolean isNop(Insn insn) {
+			switch (insn.opcode()) {
+			case line:
+			case test_heap:
+				return true;
+			default:
+				return false;
+			}
+		}
+
+		/** Combine two adjacent instructions into a superinstruction,
+		 *  or return null if there is none for the pair.
+		 *  All source operands of a superinstruction are fetched up
+		 *  front, so the second half may not read what the first
+		 *  half writes. */
+		static Insn fuse(Insn a, Insn b) {
+			BeamOpcode bop = b.opcode();
+			switch (a.opcode()) {
+			case move: {
+				Insn.SD move = (Insn.SD) a;
+				switch (bop) {
+				case move: {
+					Insn.SD move2 = (Insn.SD) b;
+					if (sameReg(move2.src, move.dest)) return null;
+					return new Insn.Fused<Insn.SD,Insn.SD>(BeamOpcode.i_move2, move, move2);
+				}
+				case call:
+					return new Insn.Fused<Insn.SD,Insn.IL>(BeamOpcode.i_move_call, move, (Insn.IL) b);
+				case call_ext:
+					return new Insn.Fused<Insn.SD,Insn.IE>(BeamOpcode.i_move_call_ext, move, (Insn.IE) b);
+				case call_last:
+					return new Insn.Fused<Insn.SD,Insn.ILI>(BeamOpcode.i_move_call_last, move, (Insn.ILI) b);
+				case K_return:
+					return new Insn.Fused<Insn.SD,Insn>(BeamOpcode.i_move_return, move, b);
+				default:
+					return null;
+				}
+			}
+
+			case deallocate:
+				if (bop != BeamOpcode.K_return) return null;
+				return new Insn.Fused<Insn.I,Insn>(BeamOpcode.i_deallocate_return, (Insn.I) a, b);
+
+			case get_tuple_element: {
+				if (bop != BeamOpcode.get_tuple_element) return null;
+				Insn.SID get1 = (Insn.SID) a, get2 = (Insn.SID) b;
+				if (!sameReg(get1.src, get2.src) || sameReg(get1.dest, get1.src)) return null;
+				return new Insn.Fused<Insn.SID,Insn.SID>(BeamOpcode.i_get_tuple_element2, get1, get2);
+			}
+
+			case is_tuple: {
+				// test_arity tests for a tuple too:
+				if (bop != BeamOpcode.test_arity) return null;
+				Insn.LD is_tuple = (Insn.LD) a, test_arity = (Insn.LD) b;
+				if (is_tuple.label.nr != test_arity.label.nr ||
+					!sameReg(is_tuple.dest, test_arity.dest)) return null;
+				return b;
+			}
+
+			default:
+				return null;
+			}
+		}
+
+		static boolean sameReg(Operands.SourceOperand a, Operands.SourceOperand b) {
+			if (a instanceof Operands.XReg && b instanceof Operands.XReg)
+				return ((Operands.XReg) a).nr == ((Operands.XReg) b).nr;
+			if (a instanceof Operands.YReg && b instanceof Operands.YReg)
+				return ((Operands.YReg) a).nr == ((Operands.YReg) b).nr;
+			return false;
+		}
+
+		/** Holds back one instruction at a time, in case it can be fused
+		 *  with the next one.  A label must flush it, as a jump to the
+		 *  label would skip the first half of a superinstruction. */
+		static abstract class Fuser {
+			private Insn pending;
+
+			abstract void emit(Insn insn);
+
+			void add(Insn insn) {
+				if (isNop(insn)) return;
+				if (pending != null) {
+					Insn fused = fuse(pending, insn);
+					if (fused != null) {
+						pending = fused;
+						return;
+					}
+					emit(pending);
+				}
+				pending = insn;
+			}
+
+			void flush() {
+				if (pending != null) {
+					emit(pending);
+					pending = null;
+				}
+			}
+		}
 	}
 
     public static abstract class Module extends EModule {
@@ -263,6 +368,19 @@ public class AbstractInterpreter {
    	        return module_class_loader;
         }
 
+		/** set if this module is to be compiled once it gets hot */
+		private TieredCompilation.Candidate tiered;
+
+		public void tiered(TieredCompilation.Candidate candidate) {
+			this.tiered = candidate;
+		}
+
+		/** count an entry into the module, for tiered compilation */
+		protected final void entered() {
+			TieredCompilation.Candidate c = tiered;
+			if (c != null) c.entered();
+		}
+
 		public String module_name() {
 			return name;
 		}
@@ -287,10 +405,11 @@ public class AbstractInterpreter {
 		return array;
 	}
 
+	/** Grow the interpreter stack; a process starts out with an empty one. */
 	protected static EObject[] ensureCapacity(EObject[] array, int atLeast, int keep) {
 		if (atLeast >= array.length) {
-			EObject[] tmp = new EObject[(atLeast)*3/2];
-			System.arraycopy(array,0, tmp,0, keep);
+			EObject[] tmp = new EObject[Math.max(atLeast*3/2, 10)];
+			System.arraycopy(array,0, tmp,0, Math.min(keep, array.length));
 			array = tmp;
 		}
 		return array;
@@ -310,10 +310,11 @@ sub parse_and_build {
 	s/\#.*//;
 	if (/^$/) {
 	    next;
-	} elsif (/^%class (\w+)\(([^\)]*)\)$/) {
+	} elsif (/^%class ([\w<>,]+)\(([^\)]*)\)$/) {
 	    $cur_ins_class = $1;
-	    $cur_ins_class = "Insn.$cur_ins_class" unless ($cur_ins_class eq 'Insn');
 	    my $tmp = $2;
+	    # Qualify the class, and the type arguments of Fused<A,B>:
+	    $cur_ins_class =~ s/\b(?!Insn\b)(\w+)/Insn.$1/g;
 	    @cls_arg_names = @cls_arg_types = ();
 	    for my $arg (split(/\s+/, $tmp)) {
 		die "Bad class field syntax ($tmp)" unless ($arg =~ /^([\w.\[\]]+):(\w[\w\d]?),?$/);
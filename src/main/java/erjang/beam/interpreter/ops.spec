@@ -204,7 +204,7 @@ i_call_fun_last arity:
 	PRE_CALL(); int ary=GET(arity); return ((EFun)reg[ary]).invoke(proc, reg, 0, ary);
 
 line number:
-        /* current_line=number; */
+	{}
 
 %class II(i1:I i2:I)
 apply_last arity dealloc:
@@ -448,3 +448,37 @@ fmul lbl a b dst:
 fdiv lbl a b dst:
 	SET(dst, ERT.box(ErlBif.fdiv(GET(a).value, GET(b).value)));
 
+
+##########==========     SUPERINSTRUCTIONS     ==========##########
+# Adjacent pairs fused by AbstractInterpreter.Encoder.fuse(); the most
+# frequent pairs in OTP code.  Source operands of both halves are
+# fetched before either half runs, so fuse() leaves out pairs where the
+# second half reads what the first one writes.
+
+%class Fused<SD,SD>(a.src:S a.dest:D b.src:S b.dest:D)
+i_move2 src1 dst1 src2 dst2:
+	SET(dst1, GET(src1)); SET(dst2, GET(src2));
+
+%class Fused<SD,IL>(a.src:S a.dest:D b.i1:I b.label:L)
+i_move_call src dst keep lbl:
+	SET(dst, GET(src)); PRE_CALL(); reg[0] = LOCAL_CALL(GET(keep), GET_PC(lbl)); POST_CALL();
+
+%class Fused<SD,IE>(a.src:S a.dest:D b.i1:I b.ext_fun:E)
+i_move_call_ext src dst _ extfun:
+	SET(dst, GET(src)); PRE_CALL(); reg[0] = GET(extfun).invoke(proc, reg, 0, GET(extfun).arity()); POST_CALL();
+
+%class Fused<SD,ILI>(a.src:S a.dest:D b.i1:I b.label:L b.i3:I)
+i_move_call_last src dst keep lbl dealloc:
+	SET(dst, GET(src)); STACK_DEALLOC(GET(dealloc)); GOTO(lbl);
+
+%class Fused<SD,Insn>(a.src:S a.dest:D)
+i_move_return src dst:
+	SET(dst, GET(src)); PRE_CALL(); return reg[0];
+
+%class Fused<I,Insn>(a.i1:I)
+i_deallocate_return slots:
+	STACK_DEALLOC(GET(slots)); PRE_CALL(); return reg[0];
+
+%class Fused<SID,SID>(a.src:S a.i:I a.dest:D b.i:I b.dest:D)
+i_get_tuple_element2 src pos1 dst1 pos2 dst2:
+	{ETuple tuple = (ETuple)GET(src); SET(dst1, tuple.elm(1+GET(pos1))); SET(dst2, tuple.elm(1+GET(pos2)));}
@@ -1104,4 +1104,26 @@ public class Insn implements BeamInstruction {
 							   dest.toSymbolic());
 		}
 	}
+
+	/*============================================================
+	 *                    Superinstructions
+	 * Pairs of adjacent instructions which the interpreter runs with
+	 * a single dispatch.  They are made by the interpreter's encoder
+	 * only, and never reach the compiler.
+	 */
+
+	public static class Fused<A extends Insn, B extends Insn> extends Insn {
+		public final A a;
+		public final B b;
+		public Fused(BeamOpcode opcode, A a, B b) {
+			super(opcode);
+			this.a = a;
+			this.b = b;
+		}
+		public ETuple toSymbolic() {
+			return ETuple.make(opcode.symbol,
+							   a.toSymbolic(),
+							   b.toSymbolic());
+		}
+	}
 }
@@ -20,9 +20,9 @@ package erjang.driver;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.SelectableChannel;
 import java.nio.channels.SelectionKey;
-import java.util.ArrayList;
 import java.util.concurrent.locks.Lock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -257,14 +257,15 @@ public abstract class EDriverInstance extends EDriverControl {
 		return pdl;
 	}
 
-	private ByteBuffer[] queue = null;
+	private IOQueue queue = null;
 	private EPID caller;
 
 	/**
-	 * @return
+	 * @return a copy of the segments in the driver queue, or null if it is empty
 	 */
 	protected ByteBuffer[] driver_peekq() {
-		return queue;
+		if (queue == null) return null;
+		return queue.peekq();
 	}
 	
 	protected EPID driver_caller() {
@@ -299,65 +300,49 @@ public abstract class EDriverInstance extends EDriverControl {
 
 	protected int driver_sizeq() {
 		if (queue == null) return 0;
-		
-		int size = 0;
-		int p = 0;
-		for (p = 0; p < queue.length; p++) {
-			if (queue[p] != null)
-				size += queue[p].remaining();
-		}
-		return size;
+		return (int) queue.size();
 	}
 	
+	/**
+	 * Dequeue <code>size</code> bytes which have been consumed (the
+	 * positions of the queued buffers are already advanced past them).
+	 * 
+	 * @return the number of bytes left in the queue
+	 */
 	protected long driver_deq(long size) {
-
-		ByteBuffer[] queue = this.queue;
-		
 		if (queue == null)
 			return 0;
-
-		int p = 0;
-		for (p = 0; p < queue.length && queue[p] != null && !queue[p].hasRemaining(); p++) {
-			/* skip */
-		}
-
-		if (p == queue.length)
-			return 0;
-
-		long res = 0;
-		for (int i = 0; (p+i) < queue.length; i++) {
-			queue[i] = queue[p + i];
-			if (queue[i] != null) {
-			 res += queue[i].remaining();
-			}
-		}
-
-		for (int i = p; i < queue.length; i++) {
-			queue[i] = null;
-		}
-		
-		return res;
+		return queue.deq(size);
 	}
 	
 	protected void driver_enqv(ByteBuffer[] q) {
-		if (queue == null || (queue.length>0 && queue[0] == null))
-			queue = q;
-		else {
-			
-			ArrayList<ByteBuffer> bbs = new ArrayList<ByteBuffer>();
-			for (int i = 0; i < queue.length; i++) {
-				if (queue[i] != null && queue[i].hasRemaining())
-					bbs.add(queue[i]);
-			}
-			
-			for (int i = 0; i < q.length; i++) {
-				if (q[i] != null && q[i].hasRemaining())
-					bbs.add(q[i]);
-			}
-			
-			queue = bbs.toArray(new ByteBuffer[bbs.size()]);
-			
-		}
+		if (queue == null)
+			queue = new IOQueue();
+		queue.enqv(q);
+	}
+
+	protected void driver_enq(ByteBuffer buf) {
+		if (queue == null)
+			queue = new IOQueue();
+		queue.enq(buf);
+	}
+
+	protected void driver_pushq(ByteBuffer buf) {
+		if (queue == null)
+			queue = new IOQueue();
+		queue.pushq(buf);
+	}
+
+	/**
+	 * Do one gathering write of the driver queue to <code>ch</code>, and
+	 * dequeue what was written.
+	 * 
+	 * @return number of bytes written
+	 */
+	protected long driver_writeq(GatheringByteChannel ch) throws IOException {
+		if (queue == null)
+			return 0;
+		return queue.write(ch);
 	}
 
 	/*
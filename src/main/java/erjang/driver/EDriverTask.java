@@ -597,6 +597,18 @@ public abstract class EDriverTask extends ETask<EInternalPort> implements
 		});
 	}
 	
+	/** Output each of <code>outs</code>, in order, as one command to the port. */
+	public void command_all(final EHandle caller, final List<ByteBuffer[]> outs) throws Pausable {
+		mbox.put(new EPortControl() {
+			@Override
+			public void execute() throws Pausable, IOException {
+				for (ByteBuffer[] out : outs) {
+					instance.outputv(caller, out);
+				}
+			}
+		});
+	}
+
 	public void close() throws Pausable {
 		final Throwable t = new Throwable();
 		mbox.put(new EPortControl() {
@@ -0,0 +1,156 @@
+/**
+ * This file is part of Erjang - A JVM-based Erlang VM
+ *
+ * Copyright (c) 2010 by Trifork
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package erjang.driver;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+
+/**
+ * The driver output queue; the equivalent of ErlIOQueue in erl_driver.
+ *
+ * Segments are kept in order in a single array, so the pending data can be
+ * handed to {@link GatheringByteChannel#write(ByteBuffer[], int, int)}
+ * without building a new array for every write. Bytes are consumed by
+ * advancing the position of the queued buffers (as a gathering write does),
+ * after which {@link #deq(long)} drops the segments that are used up.
+ *
+ * The queue keeps a running byte count, so {@link #size()} is O(1).
+ * Not thread safe; drivers that touch the queue from async jobs must lock.
+ */
+public final class IOQueue {
+
+	private ByteBuffer[] segs = new ByteBuffer[8];
+	private int head;
+	private int tail;
+	private long size;
+
+	/** number of bytes pending in the queue */
+	public long size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/** append the non-empty buffers of <code>ev</code> to the queue */
+	public void enqv(ByteBuffer[] ev) {
+		for (int i = 0; i < ev.length; i++) {
+			enq(ev[i]);
+		}
+	}
+
+	/** append <code>buf</code> (from position to limit) to the queue */
+	public void enq(ByteBuffer buf) {
+		if (buf == null || !buf.hasRemaining())
+			return;
+
+		if (tail == segs.length) {
+			make_room(1);
+		}
+
+		segs[tail++] = buf;
+		size += buf.remaining();
+	}
+
+	/** insert <code>buf</code> in front of the queue */
+	public void pushq(ByteBuffer buf) {
+		if (buf == null || !buf.hasRemaining())
+			return;
+
+		if (head == 0) {
+			make_room(1);
+		}
+
+		segs[--head] = buf;
+		size += buf.remaining();
+	}
+
+	/**
+	 * Account for <code>n</code> bytes having been consumed from the front of
+	 * the queue (i.e., the buffers' positions have already been advanced),
+	 * and drop the segments which are now empty.
+	 *
+	 * @return the number of bytes still queued
+	 */
+	public long deq(long n) {
+		size -= n;
+		while (head < tail && !segs[head].hasRemaining()) {
+			segs[head++] = null;
+		}
+		if (head == tail) {
+			head = tail = 0;
+			size = 0;
+		}
+		return size;
+	}
+
+	/** discard everything in the queue */
+	public void clear() {
+		for (int i = head; i < tail; i++) {
+			segs[i].position(segs[i].limit());
+			segs[i] = null;
+		}
+		head = tail = 0;
+		size = 0;
+	}
+
+	/**
+	 * Write as much of the queue as the channel accepts in one gathering
+	 * write, and dequeue what was written.
+	 *
+	 * @return number of bytes written
+	 */
+	public long write(GatheringByteChannel ch) throws IOException {
+		if (head == tail)
+			return 0;
+		long n = ch.write(segs, head, tail - head);
+		deq(n);
+		return n;
+	}
+
+	/**
+	 * @return a copy of the queued segments, or <code>null</code> if the
+	 *         queue is empty
+	 */
+	public ByteBuffer[] peekq() {
+		if (head == tail)
+			return null;
+		ByteBuffer[] res = new ByteBuffer[tail - head];
+		System.arraycopy(segs, head, res, 0, res.length);
+		return res;
+	}
+
+	private void make_room(int extra) {
+		int count = tail - head;
+		if (count + extra + 1 <= segs.length / 2) {
+			/* plenty of room; just slide the live segments down */
+			System.arraycopy(segs, head, segs, 1, count);
+			for (int i = count + 1; i < tail; i++)
+				segs[i] = null;
+		} else {
+			ByteBuffer[] ns = new ByteBuffer[Math.max(8, 2 * (count + extra + 1))];
+			System.arraycopy(segs, head, ns, 1, count);
+			segs = ns;
+		}
+		head = 1;
+		tail = 1 + count;
+	}
+}
@@ -0,0 +1,107 @@
+/**
+ * This file is part of Erjang - A JVM-based Erlang VM
+ *
+ * Copyright (c) 2010 by Trifork
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package erjang.driver;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of receive chunks used by the socket drivers.
+ *
+ * A chunk is a heap byte array which the driver reads into.  Packets are
+ * handed to Erlang as binaries sharing the chunk's array (no copy), so
+ * once a chunk has been <em>shared</em> it belongs to the garbage
+ * collector, which frees it when the last binary referring to it dies.
+ * Chunks that never escaped (input discarded on close, a buffer that had
+ * to grow before a packet was complete, ...) are handed back with
+ * {@link #release(byte[])} and reused by the next read.
+ *
+ * Chunk sizes are rounded up to a power of two between {@link #MIN_CHUNK}
+ * and {@link #MAX_CHUNK}; larger requests are allocated exactly and not
+ * pooled.
+ */
+public final class InputBufferPool {
+
+	public static final int MIN_CHUNK = 1024;
+	public static final int MAX_CHUNK = 64 * 1024;
+
+	/** max number of idle chunks kept per size class */
+	private static final int MAX_IDLE = 64;
+
+	private static final int MIN_SHIFT = 10;
+	private static final int CLASSES = 7; /* 1k, 2k, ... 64k */
+
+	@SuppressWarnings("unchecked")
+	private static final ConcurrentLinkedQueue<byte[]>[] free = new ConcurrentLinkedQueue[CLASSES];
+	private static final AtomicInteger[] idle = new AtomicInteger[CLASSES];
+
+	static {
+		for (int i = 0; i < CLASSES; i++) {
+			free[i] = new ConcurrentLinkedQueue<byte[]>();
+			idle[i] = new AtomicInteger();
+		}
+	}
+
+	private InputBufferPool() {}
+
+	private static int size_class(int size) {
+		if (size <= MIN_CHUNK)
+			return 0;
+		return 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_SHIFT;
+	}
+
+	/**
+	 * Get a read buffer with room for at least <code>size</code> bytes. The
+	 * buffer's position is 0 and its limit is <code>size</code>; the
+	 * capacity may be larger.
+	 */
+	public static ByteBuffer acquire(int size) {
+		byte[] chunk = null;
+		if (size <= MAX_CHUNK) {
+			int c = size_class(size);
+			chunk = free[c].poll();
+			if (chunk != null) {
+				idle[c].decrementAndGet();
+			} else {
+				chunk = new byte[1 << (c + MIN_SHIFT)];
+			}
+		} else {
+			chunk = new byte[size];
+		}
+		return ByteBuffer.wrap(chunk, 0, size);
+	}
+
+	/**
+	 * Hand back a chunk obtained from {@link #acquire(int)}. Only call this
+	 * if no part of the chunk has been given out to Erlang code.
+	 */
+	public static void release(byte[] chunk) {
+		int len = chunk.length;
+		if (len < MIN_CHUNK || len > MAX_CHUNK || Integer.bitCount(len) != 1)
+			return;
+		int c = size_class(len);
+		if (idle[c].incrementAndGet() > MAX_IDLE) {
+			idle[c].decrementAndGet();
+			return;
+		}
+		free[c].offer(chunk);
+	}
+
+}
@@ -240,7 +240,13 @@ public class EFile extends EDriverInstance {
 		 */
 		@Override
 		public void deq_free_size() {
-			driver_deq(free_size);
+			q_mtx.lock();
+			try {
+				driver_deq(free_size);
+				free_size = 0;
+			} finally {
+				q_mtx.unlock();
+			}
 		}
 	}
 
@@ -982,6 +988,7 @@ public class EFile extends EDriverInstance {
 			FileAsync d = new FileAsync() {
 				
 				int cnt = 0;
+				long free_size = 0;
 				
 				{
 					this.level = 1;
@@ -1028,6 +1035,11 @@ public class EFile extends EDriverInstance {
 								return;
 							}
 							
+							if (o != iov[ip]) {
+								// wrote from a slice; consume it from the queued buffer
+								iov[ip].position(iov[ip].position() + bytes);
+							}
+							free_size += bytes;
 							offsets[cnt] += bytes;
 							sizes[cnt] -= bytes;
 							
@@ -1054,6 +1066,17 @@ public class EFile extends EDriverInstance {
 					
 				}
 
+				@Override
+				public void deq_free_size() {
+					q_mtx.lock();
+					try {
+						driver_deq(free_size);
+						free_size = 0;
+					} finally {
+						q_mtx.unlock();
+					}
+				}
+
 				@Override
 				public void ready() throws Pausable {
 					if (!result_ok) {
@@ -2018,6 +2041,9 @@ public class EFile extends EDriverInstance {
 		if (try_again(d))
 			return;
 
+		// the job is done; drop what it wrote from the driver queue
+		d.deq_free_size();
+
 		// do whatever for this kind of async job
 		d.ready();
 
@@ -23,6 +23,7 @@ import java.nio.ByteBuffer;
 import kilim.Pausable;
 
 import erjang.EAtom;
+import erjang.EObject;
 import erjang.NotImplemented;
 import erjang.driver.IO;
 import erjang.driver.tcp_inet.PacketHttpURI.URIType;
@@ -61,10 +62,14 @@ public class Packet {
 		case TCP_PB_HTTP:
 		case TCP_PB_HTTPH:
 		case TCP_PB_HTTP_BIN:
-		case TCP_PB_HTTPH_BIN:
-			if (parse_http(data, buf, len, statep, pcb, arg) < 0)
-				pcb.http_error(arg, data, buf, len);
+		case TCP_PB_HTTPH_BIN: {
+			EObject packet = parse_http(data, buf, len, statep, pcb, arg);
+			if (packet == null)
+				pcb.http_message(arg, pcb.http_error(arg, data, buf, len), true);
+			else
+				pcb.http_message(arg, packet, false);
 			return 1;
+		}
 		case TCP_PB_SSL_TLS:
 			return parse_ssl(data, buf, len, pcb, arg);
 		default:
@@ -73,8 +78,17 @@ public class Packet {
 
 	}
 
-	public static <T> int parse_http(byte[] data, int buf, int len,
-			IntCell statep, PacketCallbacks<T> pcb, T arg) throws Pausable {
+	/**
+	 * Parse one line of an HTTP stream (request/status line, header or end
+	 * of headers) and build the corresponding packet term with
+	 * <code>pcb</code>. Strings in the packet refer to <code>data</code>
+	 * directly; the only copy made is for an unknown header name that is
+	 * not already in canonical case.
+	 * 
+	 * @return the packet, or null if the line is malformed
+	 */
+	public static <T> EObject parse_http(byte[] data, int buf, int len,
+			IntCell statep, PacketCallbacks<T> pcb, T arg) {
 
 		int ptr = buf;
 		int p0;
@@ -106,7 +120,7 @@ public class Packet {
 					n--;
 				}
 				if (ptr == p0 || n == 0 || (data[ptr] != '.'))
-					return -1;
+					return null;
 				ptr++;
 				n--;
 				p0 = ptr;
@@ -116,14 +130,14 @@ public class Packet {
 					n--;
 				}
 				if (ptr == p0)
-					return -1;
+					return null;
 				p0 = ptr;
 				while (n != 0 && SP(data, ptr)) {
 					ptr++;
 					n--;
 				}
 				if (ptr == p0)
-					return -1;
+					return null;
 
 				while (n != 0 && isdigit((int) data[ptr])) {
 					status = 10 * status + (data[ptr] - '0');
@@ -136,7 +150,7 @@ public class Packet {
 					n--;
 				}
 				if (ptr == p0)
-					return -1;
+					return null;
 
 				/* NOTE: the syntax allows empty reason phrases */
 				statep.set(~0);
@@ -162,7 +176,7 @@ public class Packet {
 				}
 				meth_len = ptr - meth_ptr;
 				if (n == 0 || meth_len == 0 || !SP(data, ptr))
-					return -1;
+					return null;
 
 				meth = http_hash_lookup(data, meth_ptr, meth_len, h,
 						http_meth_hash);
@@ -177,7 +191,7 @@ public class Packet {
 					n--;
 				}
 				if ((uri_len = (ptr - uri_ptr)) == 0)
-					return -1;
+					return null;
 				while (n != 0 && SP(data, ptr)) {
 					ptr++;
 					n--;
@@ -189,9 +203,9 @@ public class Packet {
 							meth_len, uri, 0, 9);
 				}
 				if (n < 8)
-					return -1;
+					return null;
 				if (strncmp(data, ptr, "HTTP/", 5) != 0)
-					return -1;
+					return null;
 				ptr += 5;
 				n -= 5;
 
@@ -202,7 +216,7 @@ public class Packet {
 					n--;
 				}
 				if (ptr == p0 || n == 0 || (data[ptr] != '.'))
-					return -1;
+					return null;
 				ptr++;
 				n--;
 				p0 = ptr;
@@ -212,7 +226,7 @@ public class Packet {
 					n--;
 				}
 				if (ptr == p0)
-					return -1;
+					return null;
 
 				statep.set(~0);
 				uri = http_parse_uri(data, uri_ptr, uri_len);
@@ -222,9 +236,10 @@ public class Packet {
 		} else {
 			int up = 1; /* make next char uppercase */
 			HTTPAtom name;
-			byte[] name_buf = new byte[HTTP_MAX_NAME_LEN];
-			int name_ptr = 0;
+			byte[] name_buf = data;
+			int name_ptr = buf;
 			int name_len;
+			boolean canonical = true; /* name is already in canonical case */
 			int h;
 
 			if (n == 0) {
@@ -248,27 +263,30 @@ public class Packet {
 						else if (c == '-')
 							up = 1;
 					}
-					name_buf[name_len] = c;
+					if (c != data[ptr])
+						canonical = false;
 					h = hash_update(h, c);
 				}
 				name_len++;
 				ptr++;
 				if (--n == 0)
-					return -1;
+					return null;
 			}
 			while (n != 0 && SP(data, ptr)) { /* Skip white space before ':' */
 				ptr++;
 				n--;
 			}
-			if (data[ptr] != ':') {
-				return -1;
+			if (n == 0 || data[ptr] != ':') {
+				return null;
 			}
 			if (name_len <= HTTP_MAX_NAME_LEN) {
-				name = http_hash_lookup(name_buf, 0, name_len, h, http_hdr_hash);
+				name = http_hdr_lookup(data, name_ptr, name_len, h);
+				if (name == null && !canonical) {
+					name_buf = http_canonical_name(data, name_ptr, name_len);
+					name_ptr = 0;
+				}
 			} else {
 				/* Is it ok to return original name without case adjustments? */
-                name_buf = data;
-				name_ptr = buf;
 				name = null;
 			}
 			ptr++;
@@ -288,19 +306,66 @@ public class Packet {
 	}
 
 	private static byte tolower(byte c) {
-		return (byte) Character.toLowerCase(c);
+		return isupper(c) ? (byte) (c + ('a' - 'A')) : c;
 	}
 
 	private static boolean isupper(byte c) {
-		return Character.isUpperCase(c);
+		return c >= 'A' && c <= 'Z';
 	}
 
 	private static byte toupper(byte c) {
-		return (byte) Character.toUpperCase(c);
+		return islower(c) ? (byte) (c - ('a' - 'A')) : c;
 	}
 
 	private static boolean islower(byte c) {
-		return Character.isLowerCase(c);
+		return c >= 'a' && c <= 'z';
+	}
+
+	/**
+	 * Look up a header name as it appears on the wire. Known names are
+	 * stored in canonical case, and <code>h</code> is the hash of the
+	 * canonical form, so a case-insensitive match is an exact one.
+	 */
+	private static HTTPAtom http_hdr_lookup(byte[] data, int ptr, int len,
+			int h) {
+
+		int ix = Math.abs(h) % http_hdr_hash.length;
+		for (HTTPAtom entry = http_hdr_hash[ix]; entry != null; entry = entry.next) {
+
+			if (h == entry.h && len == entry.len
+					&& strncasecmp(data, ptr, entry.name, len)) {
+				return entry;
+			}
+		}
+
+		return null;
+	}
+
+	private static boolean strncasecmp(byte[] data, int ptr, byte[] string, int len) {
+		for (int p = 0; p < len; p++) {
+			if (toupper(data[ptr + p]) != string[p]
+					&& tolower(data[ptr + p]) != string[p])
+				return false;
+		}
+		return true;
+	}
+
+	/** copy a header name, making it Canonical-Case-Like-This */
+	private static byte[] http_canonical_name(byte[] data, int ptr, int len) {
+		byte[] res = new byte[len];
+		boolean up = true;
+		for (int i = 0; i < len; i++) {
+			byte c = data[ptr + i];
+			if (up) {
+				c = toupper(c);
+				up = false;
+			} else {
+				c = tolower(c);
+				up = (c == '-');
+			}
+			res[i] = c;
+		}
+		return res;
 	}
 
 	private static HTTPAtom http_hash_lookup(byte[] data, int ptr, int len,
@@ -384,11 +449,13 @@ public class Packet {
 			int ptr;
 			if ((ptr = memchr(data, uri_ptr, ':', uri_len)) == -1) {
 				uri.type = URIType.URI_STRING;
+				uri.s1_data = data;
 				uri.s1_ptr = uri_ptr;
 				uri.s1_len = uri_len;
 			} else {
 				int slen = ptr - uri_ptr;
 				uri.type = URIType.URI_SCHEME;
+				uri.s1_data = data;
 				uri.s1_ptr = uri_ptr;
 				uri.s1_len = slen;
 				uri.s2_data = data;
@@ -527,7 +594,7 @@ public class Packet {
 		}
 
 		for (i = 0; i < HTTP_METH_HASH_SIZE; i++)
-			http_hdr_hash[i] = null;
+			http_meth_hash[i] = null;
 		for (i = 0; http_meth_strings[i] != null; i++) {
 			new HTTPAtom(http_meth_strings[i], i, http_meth_hash);
 		}
@@ -19,17 +19,26 @@
 package erjang.driver.tcp_inet;
 
 import kilim.Pausable;
+import erjang.EObject;
 
+/**
+ * The http_* methods build the term for one parsed HTTP packet (they must
+ * not pause, so the parser can run outside a driver); http_message
+ * delivers it.
+ */
 public abstract class PacketCallbacks<T> {
-	abstract int http_error(T src, byte[] data, int pos, int len) throws Pausable;
+	abstract EObject http_error(T src, byte[] data, int pos, int len);
 
-	abstract int http_response(T arg, int major, int minor, int status,
-			byte[] data, int ptr, int n) throws Pausable;
+	abstract EObject http_response(T arg, int major, int minor, int status,
+			byte[] data, int ptr, int n);
 
-	abstract int http_request(T arg, Packet.HTTPAtom method, byte[] data,
-			int meth_ptr, int meth_len, PacketHttpURI uri, int major, int minor) throws Pausable;
+	abstract EObject http_request(T arg, Packet.HTTPAtom method, byte[] data,
+			int meth_ptr, int meth_len, PacketHttpURI uri, int major, int minor);
 	
-	abstract int http_header(T arg, Packet.HTTPAtom name, byte[] name_buf, int name_ptr, int name_len, byte[] val_buf, int val_ptr, int val_len) throws Pausable;
+	abstract EObject http_header(T arg, Packet.HTTPAtom name, byte[] name_buf, int name_ptr, int name_len, byte[] val_buf, int val_ptr, int val_len);
 	
-	abstract int http_eoh(T arg) throws Pausable;
+	abstract EObject http_eoh(T arg);
+
+	/** send a packet built above; error is true for an http_error packet */
+	abstract int http_message(T arg, EObject packet, boolean error) throws Pausable;
 }
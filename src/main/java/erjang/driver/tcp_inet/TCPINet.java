@@ -43,6 +43,7 @@ import java.nio.channels.SelectionKey;
 import java.nio.channels.SocketChannel;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.PriorityQueue;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -68,9 +69,11 @@ import erjang.ETuple2;
 import erjang.ErlangError;
 import erjang.NotImplemented;
 import erjang.driver.EAsync;
+import erjang.driver.EDriver;
 import erjang.driver.EDriverInstance;
 import erjang.driver.EDriverTask;
 import erjang.driver.IO;
+import erjang.driver.InputBufferPool;
 import erjang.driver.NIOSelector;
 import erjang.driver.SelectMode;
 import erjang.driver.efile.Posix;
@@ -137,7 +140,7 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 	}
 
 	static enum ActiveType {
-		PASSIVE(0), ACTIVE(1), ACTIVE_ONCE(2);
+		PASSIVE(0), ACTIVE(1), ACTIVE_ONCE(2), ACTIVE_N(3);
 		final int value;
 
 		ActiveType(int val) {
@@ -152,6 +155,8 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 				return ACTIVE;
 			case 2:
 				return ACTIVE_ONCE;
+			case 3:
+				return ACTIVE_N;
 			}
 
 			throw new erjang.NotImplemented();
@@ -184,6 +189,7 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 	public static final int INET_PASSIVE = 0; /* false */
 	public static final int INET_ACTIVE = 1; /* true */
 	public static final int INET_ONCE = 2; /* true; active once then passive */
+	public static final int INET_MULTI = 3; /* true; active N then passive */
 
 	/* INET_REQ_GETSTATUS enumeration */
 	public static final int INET_F_OPEN = 0x0001;
@@ -407,6 +413,8 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 	public static final int SCTP_FLAG_SACDELAY_DISABLE = (64 /* am_sackdelay_disable */);
 
 	public static final int INET_DEF_BUFFER = 1460; /* default buffer size */
+	public static final int UDP_DEF_BUFFER = (1024 * 8); /* default buffer size for udp */
+	public static final int INET_PACKET_POLL = 5; /* max datagrams per readiness event */
 	public static final int INET_MIN_BUFFER = 1; /* internal min buffer */
 	public static final int INET_MAX_BUFFER = (1024 * 64); /*
 															 * internal max
@@ -435,6 +443,10 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 	private static final EAtom am_tcp_closed = EAtom.intern("tcp_closed");
 	private static final EAtom am_timeout = EAtom.intern("timeout");
 	private static final EAtom am_tcp_error = EAtom.intern("tcp_error");
+	private static final EAtom am_tcp_passive = EAtom.intern("tcp_passive");
+	private static final EAtom am_udp = EAtom.intern("udp");
+	private static final EAtom am_udp_error = EAtom.intern("udp_error");
+	private static final EAtom am_udp_passive = EAtom.intern("udp_passive");
 	private static final byte[] NOPROC = new byte[] { 'n', 'o', 'p', 'r', 'o', 'c'} ;
 	private static final PacketCallbacks<TCPINet> INET_CALLBACKS = new TCPINetCallbacks();
 
@@ -443,6 +455,8 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 	private List<EHandle> empty_out_q_subs = new ArrayList<EHandle>(1);
 	private InetSocketAddress remote;
 	ActiveType active = ActiveType.PASSIVE;
+	/** messages left before an {active,N} socket goes passive */
+	private int active_count;
 	private RingQueue<AsyncOp> opt = new RingQueue<AsyncOp>(1);
 	private boolean busy_on_send;
 	private EHandle caller;
@@ -475,6 +489,12 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 	private ProtocolFamily sfamily;
 	private ByteBuffer i_buf;
 	private int i_ptr_start;
+	/** true once a delivered packet refers into i_buf's array */
+	private boolean i_shared;
+	/** udp: the chunk the next datagram is received into; never shared */
+	private ByteBuffer u_buf;
+	/** udp: scratch buffer for sending a datagram given as several segments */
+	private ByteBuffer u_sendbuf;
 	private IntCell http_state = new IntCell();
 	private PacketCallbacks<TCPINet> packet_callbacks = INET_CALLBACKS;
 
@@ -491,10 +511,10 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 	// private int i_ptr;
 	// private int i_bufsz;
 
-	public TCPINet(Protocol protocol, Driver driver) {
+	public TCPINet(Protocol protocol, EDriver driver) {
 		super(driver);
 		this.protocol = protocol;
-		this.bufsz = INET_DEF_BUFFER;
+		this.bufsz = (protocol == Protocol.UDP) ? UDP_DEF_BUFFER : INET_DEF_BUFFER;
 	}
 
 	public TCPINet copy(EPID caller, InetSocket sock) {
@@ -512,6 +532,7 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 		copy.empty_out_q_subs = new ArrayList<EHandle>();
 		copy.active = ActiveType.PASSIVE;
 
+        copy.i_buf = null; // owned by the listen socket
         copy.tcp_clear_input(); // Do not share mutable state!
         copy.http_state = new IntCell();
 
@@ -552,6 +573,11 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 	protected void output(EHandle caller, ByteBuffer buf) throws IOException, Pausable {
 		
 		this.caller = caller;
+		if (stype == ProtocolType.DGRAM) {
+			packet_inet_command(new ByteBuffer[] { buf });
+			return;
+		}
+
 		if (!is_connected()) {
 			inet_reply_error(Posix.ENOTCONN);
 		} else if (tcp_sendv(new ByteBuffer[]{buf}) == 0) {
@@ -573,6 +599,11 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 			dump_buffer(log, "TCPIP::outputv", ev);
 		}
 
+		if (stype == ProtocolType.DGRAM) {
+			packet_inet_command(ev);
+			return;
+		}
+
 		if (!is_connected()) {
 			if ((tcp_add_flags & TCP_ADDF_DELAYED_CLOSE_SEND) != 0) {
 				tcp_add_flags &= ~TCP_ADDF_DELAYED_CLOSE_SEND;
@@ -589,8 +620,6 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 	}
 
 	private int tcp_sendv(ByteBuffer[] ev) throws Pausable {
-		int sz;
-		EPort ix = port();
 		long len = remaining(ev);
 		ByteBuffer hbuf = null;
 
@@ -614,88 +643,51 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 		}
 
 		inet_output_count(len+ (hbuf==null ? 0 : hbuf.limit()));
-		
-		if (hbuf != null) {
-			len += hbuf.remaining();
-			// insert hbuf ahead of ev
-			if (ev.length > 0 && ev[0].remaining() == 0) {
-				ev[0] = hbuf;
-			} else {
-				ByteBuffer[] ev2 = new ByteBuffer[ev.length + 1];
-				ev2[0] = hbuf;
-				System.arraycopy(ev, 0, ev2, 1, ev.length);
-				ev = ev2;
-			}
-		}
-
-		if ((sz = driver_sizeq()) > 0) {
-			
-			driver_enqv(ev);
-			sock_select(ERL_DRV_WRITE, SelectMode.SET);
 
-			//dump_buffer(log, "enqued output [1]!", ev);
-			//dump_buffer(log, "queue is now", driver_peekq());
-
-			if (sz + len >= high) {
+		/*
+		 * Everything goes through the output queue; the header and the
+		 * iovec segments are appended as they are, and written with one
+		 * gathering write straight out of the queue.
+		 */
+		boolean was_queued = driver_sizeq() > 0;
+		driver_enq(hbuf);
+		driver_enqv(ev);
 
-				// TODO: we somehow fail in this case.
-				// The data is put on the queue, but never written?
-				
-				state |= INET_F_BUSY; /* mark for low-watermark */
-				busy_caller = caller;
-				set_busy_port(port(), true);
-				if (this.send_timeout != INET_INFINITY) {
-					busy_on_send = true;
-					driver_set_timer(send_timeout);
+		if (!was_queued && (tcp_add_flags & TCP_ADDF_DELAY_SEND) == 0) {
+			try {
+				driver_writeq((GatheringByteChannel) fd.channel());
+			} catch (IOException e) {
+				int sock_errno = IO.exception_to_posix_code(e);
+				if ((sock_errno != Posix.EAGAIN)
+						&& (sock_errno != Posix.EINTR)) {
+					tcp_send_error(sock_errno);
+					return sock_errno;
 				}
-				return 1;
 			}
+		} else if (log.isLoggable(Level.FINE)) {
+			log.fine("tcp_sendv: queued "+len+" bytes");
+		}
 
-		} else {
-			int vsize = ev.length;
-			long n;
-
-			if ((tcp_add_flags & TCP_ADDF_DELAY_SEND) != 0) {
-				if (log.isLoggable(Level.FINE))
-					log.fine("tcp_delay_send!");
-				n = 0;
-			} else {
-				GatheringByteChannel gbc = (GatheringByteChannel) fd.channel();
-
-				try {
-
-					// dump_buffer(log, null, ev);
-
-					n = gbc.write(ev);
-
-					// log.finer("sent " + n + " bytes to " + gbc);
-
-				} catch (IOException e) {
-					int sock_errno = IO.exception_to_posix_code(e);
-					if ((sock_errno != Posix.EAGAIN)
-							&& (sock_errno != Posix.EINTR)) {
-						tcp_send_error(sock_errno);
-						return sock_errno;
-					}
-					// TODO: handle partial writes, async
-					n = 0;
-				}
+		int sz = driver_sizeq();
+		if (sz == 0) {
+			// we sent everything!
+			return 0;
+		}
 
-			}
+		/* resume from readyOutput */
+		sock_select(ERL_DRV_WRITE, SelectMode.SET);
 
-			if (n == len) {
-				// we sent everything!
-				assert empty_out_q_subs.isEmpty() : "no subscribers";
-				return 0;
+		if (sz >= high) {
+			state |= INET_F_BUSY; /* mark for low-watermark */
+			busy_caller = caller;
+			set_busy_port(port(), true);
+			if (this.send_timeout != INET_INFINITY) {
+				busy_on_send = true;
+				driver_set_timer(send_timeout);
 			}
-
-			
-			//dump_buffer(log, "enqueing output [2]! n="+n, ev);
-
-			driver_enqv(ev);
-			sock_select(ERL_DRV_WRITE | 0, SelectMode.SET);
-
+			return 1;
 		}
+
 		return 0;
 
 	}
@@ -758,6 +750,9 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 		log.fine("sock_select " + this + " ops="
 				+ Integer.toBinaryString(ops) + "; mode=" + onOff);
 
+		if (fd == null || fd.channel() == null)
+			return; /* udp socket not bound yet */
+
 		super.select(this.fd.channel(), ops, onOff);
 	}
 
@@ -801,7 +796,12 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 		if (!is_open())
 			return;
 
-		if (ch.isOpen() && active==ActiveType.ACTIVE)
+		if (stype == ProtocolType.DGRAM) {
+			packet_inet_input();
+			return;
+		}
+
+		if (ch.isOpen() && (active==ActiveType.ACTIVE || active==ActiveType.ACTIVE_N))
 			select(ch, ERL_DRV_READ, SelectMode.SET);
 
 		if (log.isLoggable(Level.FINE))
@@ -832,12 +832,13 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 			int sz = (request_len > 0) ? request_len : this.bufsz;
 
 			try {
-				i_buf = ByteBuffer.allocate(sz);
+				i_buf = InputBufferPool.acquire(sz);
 			} catch (OutOfMemoryError e) {
 				return -1;
 			}
 
 			i_ptr_start = 0;
+			i_shared = false;
 			nread = sz;
 			if (request_len > 0) {
 				i_remain = request_len;
@@ -1039,38 +1040,36 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 	@Override
 	protected void readyOutput(SelectableChannel evt)  throws Pausable {
 
-
-		EInternalPort ix = port();
-
 		if (is_connected()) {
-			ByteBuffer[] iov;
-			if ((iov = driver_peekq()) == null) {
+			if (driver_sizeq() == 0) {
 				select(evt, ERL_DRV_WRITE, SelectMode.CLEAR);
 				send_empty_out_q_msgs();
 				return;
 			}
 
 			GatheringByteChannel gbc = (GatheringByteChannel) fd.channel();
-			long n;
 			try {
-				// dump_buffer(log, null, iov);
-				n = gbc.write(iov);
-				
-				//dump_buffer(log, "delayed write!", iov);
-
-
+				/* keep writing until the socket buffer is full */
+				while (driver_sizeq() > 0 && driver_writeq(gbc) > 0) {
+					/* continue */
+				}
 			} catch (IOException e) {
-				tcp_send_error(IO.exception_to_posix_code(e));
-				return;
+				int sock_errno = IO.exception_to_posix_code(e);
+				if ((sock_errno != Posix.EAGAIN)
+						&& (sock_errno != Posix.EINTR)) {
+					tcp_send_error(sock_errno);
+					return;
+				}
 			}
-			
-			driver_deq(n);
-			
+
 			int dsq = driver_sizeq();
 			if (dsq != 0) {
 				select(evt, ERL_DRV_WRITE, SelectMode.SET);
+			} else {
+				select(evt, ERL_DRV_WRITE, SelectMode.CLEAR);
+				send_empty_out_q_msgs();
 			}
-			
+
 			if (dsq <= low) {
 				if (is_busy()) {
 					this.caller = busy_caller;
@@ -1200,6 +1199,7 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 		for (EHandle h : empty_out_q_subs) {
 			h.send(port(), msg);
 		}
+		empty_out_q_subs.clear();
 	}
 
 	@Override
@@ -1359,7 +1359,12 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 			log.fine("timeout "+this);
 		}
 		
-		if ((state & INET_F_MULTI_CLIENT) != 0) {
+		if (stype == ProtocolType.DGRAM) {
+			/* recv timeout */
+			sock_select(ERL_DRV_READ, SelectMode.CLEAR);
+			async_error(ERT.am_timeout);
+
+		} else if ((state & INET_F_MULTI_CLIENT) != 0) {
 			fire_multi_timers();
 
 		} else if ((state & TCP_STATE_CONNECTED) == TCP_STATE_CONNECTED) {
@@ -1468,6 +1473,10 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 		fd = null;
 		event_mask = 0;
 
+		if (u_buf != null)
+			InputBufferPool.release(u_buf.array());
+		u_buf = null;
+
 		// when no more users of socket, the callback
 		// stopSelect is called
 	}
@@ -1536,7 +1545,12 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 		case TCP_REQ_RECV:
 			return tcp_recv(caller, buf);
 
+		case PACKET_REQ_RECV:
+			return packet_inet_recv(caller, buf);
+
 		case INET_REQ_CONNECT:
+			if (stype == ProtocolType.DGRAM)
+				return packet_inet_connect(caller, buf);
 			return inet_connect(caller, buf);
 
 		case INET_REQ_GETOPTS:
@@ -1549,6 +1563,11 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 			case 0:
 				return ctl_reply(INET_REP_OK, new byte[0]);
 			default: /* active/passive change!! */
+				if (stype == ProtocolType.DGRAM) {
+					if (active != ActiveType.PASSIVE)
+						sock_select(ERL_DRV_READ, SelectMode.SET);
+					return ctl_reply(INET_REP_OK, new byte[0]);
+				}
 				/*
 				 * Let's hope that the descriptor really is a tcp_descriptor
 				 * here.
@@ -1726,8 +1745,9 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 					continue;
 				case INET_LOPT_ACTIVE:
 					ptr.write(opt);
-					ptr.writeInt(active == ActiveType.PASSIVE ? 0
-							: active == ActiveType.ACTIVE ? 1 : 2);
+					ptr.writeInt(active.value);
+					if (active == ActiveType.ACTIVE_N)
+						ptr.writeShort(active_count);
 					continue;
 				case INET_LOPT_PACKET:
 					ptr.write(opt);
@@ -2182,7 +2202,23 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 				continue;
 
 			case INET_LOPT_ACTIVE:
-				this.active = ActiveType.valueOf(ival);
+				if (ival == INET_MULTI) {
+					if (buf.remaining() < 2)
+						return -1;
+					active_count += buf.getShort();
+					if (active_count <= 0) {
+						active_count = 0;
+						this.active = ActiveType.PASSIVE;
+						driver_output_term(ETuple.make(
+								stype == ProtocolType.DGRAM ? am_udp_passive
+										: am_tcp_passive, port()));
+					} else {
+						this.active = ActiveType.ACTIVE_N;
+					}
+				} else {
+					active_count = 0;
+					this.active = ActiveType.valueOf(ival);
+				}
 				if ((stype == ProtocolType.STREAM)
 						&& (active != ActiveType.PASSIVE)
 						&& (state == INET_STATE_CLOSED)) {
@@ -2235,8 +2271,6 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 				if (this.stype == ProtocolType.STREAM) {
 					if (ival < 0)
 						ival = 0;
-					else if (ival > INET_MAX_BUFFER * 2)
-						ival = INET_MAX_BUFFER * 2;
 					if (this.low > ival)
 						this.low = ival;
 					this.high = ival;
@@ -2247,11 +2281,9 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 				if (this.stype == ProtocolType.STREAM) {
 					if (ival < 0)
 						ival = 0;
-					else if (ival > INET_MAX_BUFFER)
-						ival = INET_MAX_BUFFER;
 					if (this.high < ival)
 						this.high = ival;
-					this.high = ival;
+					this.low = ival;
 				}
 				continue;
 
@@ -2509,49 +2541,21 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 			int code = 0;
 
 			inet_input_count(len);
-			
-			if (len * 4 >= i_buf.capacity() * 3) { /* >=75% */
-				if (log.isLoggable(Level.FINER))
-						log.finer("deliver.2.1");
-				/* something after? */
-				if (i_ptr_start + len == i_buf.position()) { /* no */
-					code = tcp_reply_data(i_buf.array(), i_buf
-							.arrayOffset()
-							+ i_ptr_start, len);
-					if (code >= 0) tcp_clear_input();
-				} else { /* move trail to beginning of a new buffer */
-					ByteBuffer bin = ByteBuffer.allocate(i_buf.capacity());
-					bin.put(i_buf.array(), i_buf.arrayOffset() + i_ptr_start
-							+ len, i_buf.position() - len - i_ptr_start);
-
-					code = tcp_reply_data(i_buf.array(), i_buf
-							.arrayOffset()
-							+ i_ptr_start, len);
-					if (code >= 0) {
-					i_buf = bin;
-					i_ptr_start = 0;
-					i_remain = 0;
-					}
-				}
-			} else {
-				if (log.isLoggable(Level.FINER))
-					log.finer("deliver.2.2");
-				// are we sending all we've got?
-				boolean share_ok = i_ptr_start + len == i_buf.position();
-				if (share_ok) {
-					code = tcp_reply_data(i_buf.array(), i_buf.arrayOffset()
-							+ i_ptr_start, len);
-					if (code >= 0)
+
+			/*
+			 * The packet is handed out as a slice of i_buf, so from here on
+			 * nothing before i_ptr_start + len may be overwritten.
+			 */
+			boolean all = (i_ptr_start + len == i_buf.position());
+			i_shared = true;
+			code = tcp_reply_data(i_buf.array(), i_buf.arrayOffset()
+					+ i_ptr_start, len);
+			if (code >= 0) {
+				if (all) {
 					tcp_clear_input();
 				} else {
-					byte[] data = new byte[len];
-					System.arraycopy(i_buf.array(), i_buf.arrayOffset()
-							+ i_ptr_start, data, 0, len);
-					code = tcp_reply_data(data, 0, len);
-					if (code >= 0) {
 					i_ptr_start += len;
 					i_remain = 0;
-					}
 				}
 			}
 
@@ -2610,10 +2614,21 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 	private void tcp_restart_input() {
 		if (i_ptr_start != 0) {
 			int n = i_buf.position() - i_ptr_start;
-			System.arraycopy(i_buf.array(), i_buf.arrayOffset() + i_ptr_start,
-					i_buf.array(), i_buf.arrayOffset(), n);
+			if (i_shared) {
+				/* delivered packets still refer to the head of i_buf, so
+				 * move the (partial) tail to a fresh chunk instead */
+				int limit = i_buf.limit();
+				ByteBuffer bin = InputBufferPool.acquire(limit);
+				bin.put(i_buf.array(), i_buf.arrayOffset() + i_ptr_start, n);
+				bin.limit(limit);
+				i_buf = bin;
+				i_shared = false;
+			} else {
+				System.arraycopy(i_buf.array(), i_buf.arrayOffset() + i_ptr_start,
+						i_buf.array(), i_buf.arrayOffset(), n);
+				i_buf.position(n);
+			}
 			i_ptr_start = 0;
-			i_buf.position(n);
 		}
 	}
 
@@ -2647,9 +2662,7 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 		if (code < 0)
 			return code;
 
-		if (active == ActiveType.ACTIVE_ONCE) {
-			active = ActiveType.PASSIVE;
-		}
+		inet_active_sent(am_tcp_passive);
 
 		return code;
 	}
@@ -2773,11 +2786,24 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 		if (code < 0)
 			return code;
 
+		inet_active_sent(am_tcp_passive);
+
+		return code;
+	}
+
+	/**
+	 * Account for one message sent in active mode; {active,once} and
+	 * {active,N} sockets turn passive here. An {active,N} socket tells the
+	 * owner with {tcp_passive,S} / {udp_passive,S}.
+	 */
+	private void inet_active_sent(EAtom passive_tag) throws Pausable {
 		if (active == ActiveType.ACTIVE_ONCE) {
 			active = ActiveType.PASSIVE;
+		} else if (active == ActiveType.ACTIVE_N && --active_count <= 0) {
+			active = ActiveType.PASSIVE;
+			active_count = 0;
+			driver_output_term(ETuple.make(passive_tag, port()));
 		}
-
-		return code;
 	}
 
 	private int tcp_binary_message(ByteBuffer out) {
@@ -2809,9 +2835,13 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 	}
 
 	private void tcp_clear_input() {
+		if (i_buf != null && !i_shared) {
+			InputBufferPool.release(i_buf.array());
+		}
 		i_buf = null;
 		i_ptr_start = 0;
 		i_remain = 0;
+		i_shared = false;
 	}
 
 	private int tcp_expand_buffer(int len) {
@@ -2829,15 +2859,20 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 		}
 
 		try {
-			// allocate a new buffer of size "ulen"
-			ByteBuffer bin = ByteBuffer.allocate(ulen);
+			// allocate a new buffer with room for the packet
+			ByteBuffer bin = InputBufferPool.acquire(len);
 
-			// copy the old buffer into this new buffer
-			i_buf.flip();
-			bin.put(i_buf);
+			// copy the undelivered part of the old buffer into it
+			bin.put(i_buf.array(), i_buf.arrayOffset() + i_ptr_start,
+					i_buf.position() - i_ptr_start);
+			if (!i_shared) {
+				InputBufferPool.release(i_buf.array());
+			}
 
 			// and make the new buffer be the real thing
 			i_buf = bin;
+			i_ptr_start = 0;
+			i_shared = false;
 			return 0;
 
 		} catch (OutOfMemoryError e) {
@@ -2873,14 +2908,15 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 	/** push data in front of the input buffer (unget) */
 	private int tcp_push_buffer(byte[] data, int off, int len) {
 		if (i_buf == null) {
-			i_buf = ByteBuffer.allocate(len);
+			i_buf = InputBufferPool.acquire(len);
 			i_buf.put(data, off, len);
 			i_ptr_start = 0;
+			i_shared = false;
 		} else {
 			int sz_before = i_ptr_start;
 			int sz_filled = i_buf.position() - i_ptr_start;
 
-			if (len <= sz_before) {
+			if (len <= sz_before && !i_shared) {
 				i_buf.position(sz_before - len);
 				i_buf.put(data, off, len);
 				i_ptr_start -= len;
@@ -2893,8 +2929,12 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 				i_buf.limit(sz_filled);
 				bin.put(i_buf.array(), i_buf.arrayOffset() + i_ptr_start,
 						sz_filled);
+				if (!i_shared) {
+					InputBufferPool.release(i_buf.array());
+				}
 				i_buf = bin;
 				i_ptr_start = 0;
+				i_shared = false;
 			}
 		}
 
@@ -2951,6 +2991,12 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 				return inet_ctl_open(decode_proto_family(family),
 						ProtocolType.STREAM);
 			}
+
+			if ((family == INET_AF_INET || family == INET_AF_INET6)
+					&& type == INET_TYPE_DGRAM && protocol == Protocol.UDP) {
+				return inet_ctl_open(decode_proto_family(family),
+						ProtocolType.DGRAM);
+			}
 		}
 
 		return ctl_error(Posix.EINVAL);
@@ -3009,6 +3055,270 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 		}
 	}
 
+	/*
+	** Datagram "connect": the remote address becomes the destination of
+	** send/2 and the only peer datagrams are accepted from.
+	** INPUT: Timeout(4), Port(2), Address(N); an empty address disconnects.
+	*/
+	private ByteBuffer packet_inet_connect(EPID caller, ByteBuffer cmd) throws Pausable {
+
+		if (!is_open()) {
+			return ctl_xerror(EXBADPORT);
+		} else if (cmd.remaining() < 4) {
+			return ctl_error(Posix.EINVAL);
+		}
+
+		cmd.getInt(); /* timeout; a datagram connect does not block */
+
+		try {
+			if (!cmd.hasRemaining()) {
+				if ((state & INET_F_ACTIVE) != 0) {
+					fd.disconnect();
+				}
+				state &= ~INET_F_ACTIVE;
+				remote = null;
+				return ctl_reply(INET_REP_OK);
+			}
+
+			InetSocketAddress addr = inet_set_address(sfamily, cmd);
+			if (addr == null) {
+				return ctl_error(Posix.EINVAL);
+			}
+
+			fd.connect(addr);
+			remote = addr;
+			state |= INET_F_ACTIVE;
+		} catch (IOException e) {
+			return ctl_error(IO.exception_to_posix_code(e));
+		}
+
+		if (active != ActiveType.PASSIVE)
+			sock_select(ERL_DRV_READ, SelectMode.SET);
+
+		ByteBuffer reply = ByteBuffer.allocate(3);
+		reply.put(INET_REP_OK);
+		enq_async(caller, reply, INET_REQ_CONNECT);
+		async_ok();
+
+		return reply;
+	}
+
+	/*
+	** Passive receive of one datagram, answered with
+	** {inet_async, S, Ref, {ok, [F,P1,P0,A...|Data]}}
+	** INPUT: Timeout(4), Length(4); the length is ignored, as in inet_drv.
+	*/
+	private ByteBuffer packet_inet_recv(EPID caller, ByteBuffer cmd) throws Pausable {
+
+		if (!is_open()) {
+			return ctl_xerror(EXBADPORT);
+		} else if (!is_bound()) {
+			return ctl_xerror(EXBADSEQ);
+		} else if (active != ActiveType.PASSIVE || cmd.remaining() != 8) {
+			return ctl_error(Posix.EINVAL);
+		}
+
+		int timeout = cmd.getInt();
+		cmd.getInt();
+
+		ByteBuffer reply = ByteBuffer.allocate(3);
+		reply.put(INET_REP_OK);
+		enq_async(caller, reply, PACKET_REQ_RECV);
+
+		if (packet_inet_input() == 0) {
+			if (timeout == 0) {
+				async_error(am_timeout);
+			} else {
+				if (timeout != INET_INFINITY)
+					driver_set_timer(timeout);
+				sock_select(ERL_DRV_READ, SelectMode.SET);
+			}
+		}
+
+		return reply;
+	}
+
+	/**
+	 * Read up to <code>read_packets</code> datagrams off the socket, each
+	 * into a pooled chunk of <code>bufsz</code> bytes.  A datagram that
+	 * fills at least a quarter of the chunk is delivered as a slice of it,
+	 * and the next one gets a new chunk; a smaller one is copied out, so
+	 * that a small binary kept by the application does not hold on to a
+	 * chunk many times its size, and the chunk is reused.
+	 * 
+	 * @return the number of datagrams delivered
+	 */
+	private int packet_inet_input() throws Pausable {
+		int max = (read_packets > 0) ? read_packets : INET_PACKET_POLL;
+		int count = 0;
+
+		while (count < max && fd != null) {
+			if (active == ActiveType.PASSIVE && opt.size() == 0)
+				break;
+
+			if (u_buf != null && u_buf.capacity() < bufsz) {
+				InputBufferPool.release(u_buf.array());
+				u_buf = null;
+			}
+			if (u_buf == null)
+				u_buf = InputBufferPool.acquire(bufsz);
+			u_buf.clear();
+			u_buf.limit(bufsz);
+
+			InetSocketAddress from;
+			try {
+				from = (InetSocketAddress) fd.receive(u_buf);
+			} catch (IOException e) {
+				packet_error(IO.exception_to_posix_code(e));
+				return count;
+			}
+
+			if (from == null)
+				break;
+
+			count += 1;
+			int len = u_buf.position();
+			recv_cnt += 1;
+			recv_oct += len;
+			if (len > recv_max)
+				recv_max = len;
+
+			EObject data;
+			if (4 * len < u_buf.capacity()) {
+				data = packet_data(Arrays.copyOf(u_buf.array(), len), 0, len);
+			} else {
+				data = packet_data(u_buf.array(), 0, len);
+				u_buf = null; // shared now; the garbage collector frees it
+			}
+
+			if (active == ActiveType.PASSIVE) {
+				AsyncOp op = deq_async();
+				driver_cancel_timer();
+
+				byte[] addr = from.getAddress().getAddress();
+				int port = from.getPort();
+				for (int i = addr.length - 1; i >= 0; i--) {
+					data = data.cons(ERT.box(addr[i] & 0xff));
+				}
+				data = data.cons(ERT.box(port & 0xff));
+				data = data.cons(ERT.box((port >> 8) & 0xff));
+				data = data.cons(ERT.box(addr.length == 4 ? INET_AF_INET
+						: INET_AF_INET6));
+
+				ETuple res = ETuple.make(am_inet_async, port(), ERT.box(op.id),
+						new ETuple2(ERT.am_ok, data));
+				if (portlog.isLoggable(Level.FINER)) {
+					portlog.finer("sending to " + op.caller + " ! " + res);
+				}
+				op.caller.send(port(), res);
+
+			} else {
+				driver_output_term(ETuple.make(am_udp, port(),
+						inet_address_tuple(from.getAddress()),
+						ERT.box(from.getPort()), data));
+				inet_active_sent(am_udp_passive);
+			}
+		}
+
+		if (fd != null && (active != ActiveType.PASSIVE || opt.size() > 0))
+			sock_select(ERL_DRV_READ, SelectMode.SET);
+
+		return count;
+	}
+
+	/** the payload of a datagram, honouring the mode and header options */
+	private EObject packet_data(byte[] ib, int start, int len) {
+		if (mode == INET_MODE_LIST) {
+			return EString.make(ByteBuffer.wrap(ib, start, len));
+		}
+
+		int h = Math.min(hsz, len);
+		EBinary tail = EBinary.make(ByteBuffer.wrap(ib, start + h, len - h));
+		if (h == 0) {
+			return tail;
+		}
+		return new EBinList(ByteBuffer.wrap(ib, start, h), tail);
+	}
+
+	private static ETuple inet_address_tuple(InetAddress a) {
+		byte[] b = a.getAddress();
+		EObject[] elms;
+		if (b.length == 4) {
+			elms = new EObject[4];
+			for (int i = 0; i < 4; i++)
+				elms[i] = ERT.box(b[i] & 0xff);
+		} else {
+			elms = new EObject[8];
+			for (int i = 0; i < 8; i++)
+				elms[i] = ERT.box(((b[2 * i] & 0xff) << 8) | (b[2 * i + 1] & 0xff));
+		}
+		return ETuple.make(elms);
+	}
+
+	private void packet_error(int err) throws Pausable {
+		EAtom reason = EAtom.intern(Posix.errno_id(err).toLowerCase());
+		if (active == ActiveType.PASSIVE) {
+			driver_cancel_timer();
+			async_error(reason);
+		} else {
+			driver_output_term(ETuple.make(am_udp_error, port(), reason));
+		}
+	}
+
+	/*
+	** Send one datagram; the command is Port(2), Address(N), Data.
+	** A connected socket ignores the address. The caller gets
+	** {inet_reply, S, Status}.
+	*/
+	private void packet_inet_command(ByteBuffer[] ev) throws Pausable {
+
+		if (!is_open()) {
+			inet_reply_error(Posix.EINVAL);
+			return;
+		}
+
+		ByteBuffer buf;
+		if (ev.length == 1) {
+			buf = ev[0];
+		} else {
+			int len = (int) remaining(ev);
+			if (u_sendbuf == null || u_sendbuf.capacity() < len)
+				u_sendbuf = ByteBuffer.allocate(len);
+			u_sendbuf.clear();
+			for (int i = 0; i < ev.length; i++) {
+				if (ev[i] != null)
+					u_sendbuf.put(ev[i]);
+			}
+			u_sendbuf.flip();
+			buf = u_sendbuf;
+		}
+
+		if (buf.remaining() < 2) {
+			inet_reply_error(Posix.EINVAL);
+			return;
+		}
+
+		InetSocketAddress to = inet_set_address(sfamily, buf);
+		if ((state & INET_F_ACTIVE) != 0) {
+			to = remote;
+		} else if (to == null) {
+			inet_reply_error(Posix.EINVAL);
+			return;
+		}
+
+		try {
+			int len = buf.remaining();
+			if (fd.send(buf, to) == 0 && len > 0) {
+				inet_reply_error(Posix.EAGAIN);
+				return;
+			}
+			inet_output_count(len);
+			inet_reply_ok(caller);
+		} catch (IOException e) {
+			inet_reply_error(IO.exception_to_posix_code(e));
+		}
+	}
+
 	private ByteBuffer inet_bind(ByteBuffer cmd) {
 		if (cmd.remaining() < 2)
 			return ctl_error(Posix.EINVAL);
@@ -3031,6 +3341,11 @@ public class TCPINet extends EDriverInstance implements java.lang.Cloneable {
 
 		state = INET_STATE_BOUND;
 
+		if (stype == ProtocolType.DGRAM && active != ActiveType.PASSIVE) {
+			/* the datagram channel exists now; start receiving */
+			sock_select(ERL_DRV_READ, SelectMode.SET);
+		}
+
 		int port = addr.getPort();
 		if (port == 0) {
 			port = fd.getLocalPort();
@@ -15,6 +15,7 @@ import erjang.driver.tcp_inet.TCPINet.AsyncOp;
 public class TCPINetCallbacks extends PacketCallbacks<TCPINet> {
 
 	private static final EAtom am_http_request = EAtom.intern("http_request");
+	private static final EAtom am_http_response = EAtom.intern("http_response");
 	private static final EAtom am_inet_async = EAtom.intern("inet_async");
 	private static final EAtom am_http = EAtom.intern("http");
 	private static final EAtom am_star = EAtom.intern("*");
@@ -27,44 +28,19 @@ public class TCPINetCallbacks extends PacketCallbacks<TCPINet> {
 	private static final EAtom am_http_error = EAtom.intern("http_error");
 
 	@Override
-	int http_eoh(TCPINet desc) throws Pausable {
-		return send_http(desc, am_http_eoh);
+	EObject http_eoh(TCPINet desc) {
+		return am_http_eoh;
 	}
 
 	@Override
-	int http_error(TCPINet desc, byte[] data, int pos, int len) throws Pausable {
-
+	EObject http_error(TCPINet desc, byte[] data, int pos, int len) {
 		EObject line = load_string(desc, data, pos, len);
-
-		ETuple2 req = new ETuple2(am_http_error, line);
-		
-		if (desc.active == ActiveType.PASSIVE) {
-	        /* {inet_async, S, Ref, {error,{http_error,Line}}} */
-
-			AsyncOp op = desc.deq_async();
-			if (op == null) {
-				return -1;
-			}
-			
-			ETuple2 ok = new ETuple2(ERT.am_error, req);
-			ETuple msg = ETuple.make(am_inet_async, desc.port(), ERT.box(op.id), ok);
-			
-			desc.driver_send_term(op.caller, msg);
-
-		} else {
-	        /* {http, S, {http_error, Line}}} */
-			
-			ETuple http = ETuple.make(am_http, desc.port(), req);
-			
-			desc.driver_output_term(http);
-		}
-		
-		return 0;
+		return new ETuple2(am_http_error, line);
 	}
 
 	@Override
-	int http_header(TCPINet desc, HTTPAtom name, byte[] nameBuf, int namePtr,
-			int nameLen, byte[] valBuf, int valPtr, int valLen) throws Pausable {
+	EObject http_header(TCPINet desc, HTTPAtom name, byte[] nameBuf, int namePtr,
+			int nameLen, byte[] valBuf, int valPtr, int valLen) {
 
 		EObject bit = (name == null)
 					? ERT.box(0)
@@ -75,15 +51,12 @@ public class TCPINetCallbacks extends PacketCallbacks<TCPINet> {
 		
 		EObject value = load_string(desc, valBuf, valPtr, valLen);
 					
-					
-		ETuple req = ETuple.make(am_http_header, bit, nam, ERT.am_undefined, value);
-
-		return send_http(desc, req);
+		return ETuple.make(am_http_header, bit, nam, ERT.am_undefined, value);
 	}
 
 	@Override
-	int http_request(TCPINet desc, HTTPAtom method, byte[] data, int meth_ptr,
-			int meth_len, PacketHttpURI uri, int major, int minor) throws Pausable {
+	EObject http_request(TCPINet desc, HTTPAtom method, byte[] data, int meth_ptr,
+			int meth_len, PacketHttpURI uri, int major, int minor) {
 		
 		EObject meth = 
 				(method == null) 
@@ -91,22 +64,30 @@ public class TCPINetCallbacks extends PacketCallbacks<TCPINet> {
 				: method.atom; 
 		
 		ETuple version = new ETuple2(ERT.box(major), ERT.box(minor));
-		ETuple req = ETuple.make(am_http_request, meth, load_uri(desc, uri), version);
-		
-		return send_http(desc, req);
+		return ETuple.make(am_http_request, meth, load_uri(desc, uri), version);
+	}
 
+	@Override
+	EObject http_response(TCPINet desc, int major, int minor, int status,
+			byte[] data, int off, int len) {
+
+		ETuple version = new ETuple2(ERT.box(major), ERT.box(minor));
+		return ETuple.make(am_http_response, version, ERT.box(status),
+				load_string(desc, data, off, len));
 	}
 
-	private int send_http(TCPINet desc, EObject req) throws Pausable {
+	@Override
+	int http_message(TCPINet desc, EObject req, boolean error) throws Pausable {
 		if (desc.active == ActiveType.PASSIVE) {
 	        /* {inet_async, S, Ref, {ok,{http_request,Meth,Uri,Version}}} */
+	        /* {inet_async, S, Ref, {error,{http_error,Line}}} */
 
 			AsyncOp op = desc.deq_async();
 			if (op == null) {
 				return -1;
 			}
 			
-			ETuple2 ok = new ETuple2(ERT.am_ok, req);
+			ETuple2 ok = new ETuple2(error ? ERT.am_error : ERT.am_ok, req);
 			ETuple msg = ETuple.make(am_inet_async, desc.port(), ERT.box(op.id), ok);
 			
 			desc.driver_send_term(op.caller, msg);
@@ -169,11 +150,4 @@ public class TCPINetCallbacks extends PacketCallbacks<TCPINet> {
 		} 
 	}
 
-	@Override
-	int http_response(TCPINet arg, int major, int minor, int status,
-			byte[] data, int off, int len) {
-		throw new erjang.NotImplemented();
-
-	}
-
 }
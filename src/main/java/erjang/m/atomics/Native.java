@@ -0,0 +1,214 @@
+/**
+ * This file is part of Erjang - A JVM-based Erlang VM
+ *
+ * Copyright (c) 2009 by Trifork
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *  
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package erjang.m.atomics;
+
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import erjang.BIF;
+import erjang.EAtom;
+import erjang.EBig;
+import erjang.EInteger;
+import erjang.EMap;
+import erjang.ENative;
+import erjang.EObject;
+import erjang.ERT;
+import erjang.ERef;
+import erjang.ESeq;
+import erjang.ESmall;
+import erjang.ETuple2;
+
+/**
+ * The <code>atomics</code> module: arrays of 64-bit integers with atomic
+ * operations, backed by an {@link AtomicLongArray}.
+ * 
+ * Unsigned arrays store the same bits as signed ones; only the conversion
+ * to and from Erlang integers differs.  All arithmetic wraps.
+ */
+public class Native extends ENative {
+
+	static final EAtom am_signed = EAtom.intern("signed");
+	static final EAtom am_size = EAtom.intern("size");
+	static final EAtom am_max = EAtom.intern("max");
+	static final EAtom am_min = EAtom.intern("min");
+	static final EAtom am_memory = EAtom.intern("memory");
+
+	static final BigInteger TWO_64 = BigInteger.ONE.shiftLeft(64);
+
+	/** The reference returned by atomics:new/2; it compares as any other ref. */
+	public static final class ARef extends ERef {
+		final AtomicLongArray cells;
+		final boolean signed;
+
+		ARef(int size, boolean signed) {
+			super(ERT.make_ref());
+			this.cells = new AtomicLongArray(size);
+			this.signed = signed;
+		}
+
+		/** @return the 0-based index for the 1-based <code>ix</code> */
+		int index(EObject ix) {
+			ESmall i = ix.testSmall();
+			if (i == null || i.value < 1 || i.value > cells.length())
+				throw ERT.badarg(this, ix);
+			return i.value - 1;
+		}
+
+		/** @return the bits of <code>val</code>, which must be in range */
+		long value(EObject val) {
+			EInteger i = val.testInteger();
+			if (i == null)
+				throw ERT.badarg(this, val);
+			ESmall s = i.testSmall();
+			if (s != null) {
+				if (!signed && s.value < 0)
+					throw ERT.badarg(this, val);
+				return s.value;
+			}
+			EBig e = i.testBig();
+			if (signed && e.is_long())
+				return e.longValue();
+			BigInteger b = e.bigintValue();
+			if (signed ? b.bitLength() > 63 : (b.signum() < 0 || b.bitLength() > 64))
+				throw ERT.badarg(this, val);
+			return b.longValue();
+		}
+
+		/** @return the increment bits of <code>val</code>, any 64-bit integer */
+		long incr(EObject val) {
+			EInteger i = val.testInteger();
+			if (i == null)
+				throw ERT.badarg(this, val);
+			ESmall s = i.testSmall();
+			if (s != null)
+				return s.value;
+			EBig e = i.testBig();
+			if (e.is_long())
+				return e.longValue();
+			BigInteger b = e.bigintValue();
+			if (b.signum() < 0 ? b.bitLength() > 63 : b.bitLength() > 64)
+				throw ERT.badarg(this, val);
+			return b.longValue();
+		}
+
+		EInteger box(long bits) {
+			if (signed || bits >= 0)
+				return ERT.box(bits);
+			return ERT.box(BigInteger.valueOf(bits).add(TWO_64));
+		}
+	}
+
+	static ARef ref(EObject ref) {
+		if (ref instanceof ARef)
+			return (ARef) ref;
+		throw ERT.badarg(ref);
+	}
+
+	@BIF(name = "new")
+	public static EObject new$(EObject arity, EObject opts) {
+		ESmall size = arity.testSmall();
+		ESeq options = opts.testSeq();
+		if (size == null || size.value < 1 || options == null)
+			throw ERT.badarg(arity, opts);
+
+		boolean signed = true;
+		for (; !options.isNil(); options = options.tail()) {
+			ETuple2 opt = ETuple2.cast(options.head());
+			if (opt == null || opt.elem1 != am_signed
+					|| (opt.elem2 != ERT.TRUE && opt.elem2 != ERT.FALSE))
+				throw ERT.badarg(arity, opts);
+			signed = (opt.elem2 == ERT.TRUE);
+		}
+
+		return new ARef(size.value, signed);
+	}
+
+	@BIF
+	public static EAtom put(EObject ref, EObject ix, EObject val) {
+		ARef a = ref(ref);
+		a.cells.set(a.index(ix), a.value(val));
+		return ERT.am_ok;
+	}
+
+	@BIF
+	public static EInteger get(EObject ref, EObject ix) {
+		ARef a = ref(ref);
+		return a.box(a.cells.get(a.index(ix)));
+	}
+
+	@BIF
+	public static EAtom add(EObject ref, EObject ix, EObject incr) {
+		ARef a = ref(ref);
+		a.cells.addAndGet(a.index(ix), a.incr(incr));
+		return ERT.am_ok;
+	}
+
+	@BIF
+	public static EInteger add_get(EObject ref, EObject ix, EObject incr) {
+		ARef a = ref(ref);
+		return a.box(a.cells.addAndGet(a.index(ix), a.incr(incr)));
+	}
+
+	@BIF
+	public static EAtom sub(EObject ref, EObject ix, EObject decr) {
+		ARef a = ref(ref);
+		a.cells.addAndGet(a.index(ix), -a.incr(decr));
+		return ERT.am_ok;
+	}
+
+	@BIF
+	public static EInteger sub_get(EObject ref, EObject ix, EObject decr) {
+		ARef a = ref(ref);
+		return a.box(a.cells.addAndGet(a.index(ix), -a.incr(decr)));
+	}
+
+	@BIF
+	public static EInteger exchange(EObject ref, EObject ix, EObject val) {
+		ARef a = ref(ref);
+		return a.box(a.cells.getAndSet(a.index(ix), a.value(val)));
+	}
+
+	/** @return ok, or the current value if it was not <code>expected</code> */
+	@BIF
+	public static EObject compare_exchange(EObject ref, EObject ix, EObject expected, EObject desired) {
+		ARef a = ref(ref);
+		int i = a.index(ix);
+		long exp = a.value(expected);
+		long des = a.value(desired);
+		for (;;) {
+			if (a.cells.compareAndSet(i, exp, des))
+				return ERT.am_ok;
+			long cur = a.cells.get(i);
+			if (cur != exp)
+				return a.box(cur);
+		}
+	}
+
+	@BIF
+	public static EMap info(EObject ref) {
+		ARef a = ref(ref);
+		EInteger max = a.signed ? ERT.box(Long.MAX_VALUE) : ERT.box(TWO_64.subtract(BigInteger.ONE));
+		EInteger min = a.signed ? ERT.box(Long.MIN_VALUE) : ERT.box(0);
+		return EMap.EMPTY
+			.put(am_size, ERT.box(a.cells.length()))
+			.put(am_max, max)
+			.put(am_min, min)
+			.put(am_memory, ERT.box(8L * a.cells.length() + 16));
+	}
+}
@@ -0,0 +1,186 @@
+/**
+ * This file is part of Erjang - A JVM-based Erlang VM
+ *
+ * Copyright (c) 2009 by Trifork
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *  
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package erjang.m.counters;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import erjang.BIF;
+import erjang.EAtom;
+import erjang.EBig;
+import erjang.EInteger;
+import erjang.EMap;
+import erjang.ENative;
+import erjang.EObject;
+import erjang.ERT;
+import erjang.ERef;
+import erjang.ESeq;
+import erjang.ESmall;
+
+/**
+ * The <code>counters</code> module: arrays of 64-bit signed counters.
+ * 
+ * With the <code>atomics</code> option (the default) each counter is one
+ * cell of an {@link AtomicLongArray}.  With <code>write_concurrency</code>
+ * the counters are striped like a LongAdder: each thread adds to its own
+ * row of cells, and reading a counter sums the rows.  Rows are padded to a
+ * cache line so that threads on different rows do not share one.
+ * 
+ * Counters wrap around on overflow.
+ */
+public class Native extends ENative {
+
+	static final EAtom am_atomics = EAtom.intern("atomics");
+	static final EAtom am_write_concurrency = EAtom.intern("write_concurrency");
+	static final EAtom am_size = EAtom.intern("size");
+	static final EAtom am_memory = EAtom.intern("memory");
+
+	/** number of rows of a write_concurrency array; a power of two */
+	static final int STRIPES;
+	static {
+		int n = Integer.highestOneBit(Runtime.getRuntime().availableProcessors());
+		STRIPES = n < 64 ? 2 * n : 64;
+	}
+
+	/** The reference returned by counters:new/2; it compares as any other ref. */
+	public static final class CRef extends ERef {
+		final int size;
+		/** length of a row, in longs */
+		final int row;
+		final int rows;
+		final AtomicLongArray cells;
+
+		CRef(int size, boolean striped) {
+			super(ERT.make_ref());
+			this.size = size;
+			this.rows = striped ? STRIPES : 1;
+			this.row = striped ? (size + 7) & ~7 : size;
+			this.cells = new AtomicLongArray(rows * row);
+		}
+
+		/** @return the 0-based index for the 1-based <code>ix</code> */
+		int index(EObject ix) {
+			ESmall i = ix.testSmall();
+			if (i == null || i.value < 1 || i.value > size)
+				throw ERT.badarg(this, ix);
+			return i.value - 1;
+		}
+
+		void add(int idx, long incr) {
+			if (rows == 1) {
+				cells.addAndGet(idx, incr);
+			} else {
+				int r = (int) Thread.currentThread().getId() & (rows - 1);
+				cells.addAndGet(r * row + idx, incr);
+			}
+		}
+
+		long get(int idx) {
+			long sum = 0;
+			for (int r = 0; r < rows; r++) {
+				sum += cells.get(r * row + idx);
+			}
+			return sum;
+		}
+
+		/**
+		 * Not atomic with respect to concurrent adds to a striped array,
+		 * as for write_concurrency counters in OTP.
+		 */
+		void put(int idx, long val) {
+			cells.set(idx, val);
+			for (int r = 1; r < rows; r++) {
+				cells.set(r * row + idx, 0);
+			}
+		}
+	}
+
+	static CRef ref(EObject ref) {
+		if (ref instanceof CRef)
+			return (CRef) ref;
+		throw ERT.badarg(ref);
+	}
+
+	/** @return <code>val</code> as a signed 64-bit integer */
+	static long value(EObject ref, EObject val) {
+		ESmall s;
+		if ((s = val.testSmall()) != null)
+			return s.value;
+		EBig b = val.testBig();
+		if (b == null || !b.is_long())
+			throw ERT.badarg(ref, val);
+		return b.longValue();
+	}
+
+	@BIF(name = "new")
+	public static EObject new$(EObject size, EObject opts) {
+		ESmall sz = size.testSmall();
+		ESeq options = opts.testSeq();
+		if (sz == null || sz.value < 1 || options == null)
+			throw ERT.badarg(size, opts);
+
+		boolean striped = false;
+		for (; !options.isNil(); options = options.tail()) {
+			EObject opt = options.head();
+			if (opt == am_atomics) {
+				striped = false;
+			} else if (opt == am_write_concurrency) {
+				striped = true;
+			} else {
+				throw ERT.badarg(size, opts);
+			}
+		}
+
+		return new CRef(sz.value, striped);
+	}
+
+	@BIF
+	public static EInteger get(EObject ref, EObject ix) {
+		CRef c = ref(ref);
+		return ERT.box(c.get(c.index(ix)));
+	}
+
+	@BIF
+	public static EAtom add(EObject ref, EObject ix, EObject incr) {
+		CRef c = ref(ref);
+		c.add(c.index(ix), value(ref, incr));
+		return ERT.am_ok;
+	}
+
+	@BIF
+	public static EAtom sub(EObject ref, EObject ix, EObject decr) {
+		CRef c = ref(ref);
+		c.add(c.index(ix), -value(ref, decr));
+		return ERT.am_ok;
+	}
+
+	@BIF
+	public static EAtom put(EObject ref, EObject ix, EObject val) {
+		CRef c = ref(ref);
+		c.put(c.index(ix), value(ref, val));
+		return ERT.am_ok;
+	}
+
+	@BIF
+	public static EMap info(EObject ref) {
+		CRef c = ref(ref);
+		return EMap.EMPTY
+			.put(am_size, ERT.box(c.size))
+			.put(am_memory, ERT.box(8L * c.cells.length() + 16));
+	}
+}
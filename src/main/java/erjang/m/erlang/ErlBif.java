@@ -771,7 +771,7 @@ public class ErlBif {
 		} else if (spec == am_exact_reductions) {
 			
 			long current_reds = 0L;
-			for (EProc p : EProc.all_tasks.values()) {
+			for (EProc p : EProc.all_processes()) {
 				current_reds += p.get_reductions();
 			}
 			long since_last = current_reds - last_exact_reductions;
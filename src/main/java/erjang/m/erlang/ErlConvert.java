@@ -224,7 +224,7 @@ public class ErlConvert {
 		if ((small=i.testSmall()) != null) {
 			out = Integer.toString(small.value, r.value);
 		} else if ((big=i.testBig()) != null) {
-			out = big.value.toString(r.value);
+			out = big.bigintValue().toString(r.value);
 		} else {
 			throw ERT.badarg(arg, radix);
 		}
@@ -24,6 +24,7 @@ import erjang.EInteger;
 import erjang.EObject;
 import erjang.ERT;
 import erjang.ESmall;
+import erjang.TermHash;
 
 /**
  * Erlang hash functions.  !MUST MATCH ERT implementations
@@ -92,19 +93,10 @@ public class ErlHash {
 	@BIF
 	public static ESmall phash2(EObject value)
 	{
-		int hash = make_hash2(value) & 0xffffffff;
+		int hash = TermHash.phash2(value);
 		return ERT.box(hash & ((1 << 27) - 1));
 	}
 
-	/**
-	 * @param value
-	 * @return
-	 */
-	private static int make_hash2(EObject value) {
-		// TODO: implement hash2 (see utils.c in OTP dist)
-		return value.hashCode();
-	}
-
 	@BIF
 	public static EObject phash2(EObject a1, EObject a2)
 	{
@@ -121,12 +113,13 @@ public class ErlHash {
 			range = Math.abs(range) & 0xffffffff;
 		}
 		
-		hash = make_hash2(a1) & 0xffffffff;
+		hash = TermHash.phash2(a1) & 0xffffffffL;
 		
+		// unlike phash, the result is in 0..Range-1
 		if (range != 0) {
-			final_hash = 1 + (hash % range);
+			final_hash = hash % range;
 		} else {
-			final_hash = hash+1;
+			final_hash = hash;
 		}
 		
 		return ERT.box(final_hash);		
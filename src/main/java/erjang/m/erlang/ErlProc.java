@@ -57,6 +57,7 @@ import erjang.FunID;
 import erjang.Import;
 import erjang.Main;
 import erjang.NotImplemented;
+import erjang.TieredCompilation;
 
 /**
  * 
@@ -74,6 +75,7 @@ public class ErlProc {
 	private static final EAtom am_threads = EAtom.intern("threads");
 	public  static final EAtom am_process = EAtom.intern("process");
 	private static final EAtom am_wordsize = EAtom.intern("wordsize");
+	private static final EAtom am_tiered_compilation = EAtom.intern("tiered_compilation");
 	private static final EAtom am_thread_pool_size = EAtom
 			.intern("thread_pool_size");
 	private static final EAtom am_os_type = EAtom.intern("os_type");
@@ -570,6 +572,8 @@ public class ErlProc {
 			return ERT.box(Math.max(1, ERT.threadPoolSize()));
 		} else if (type == am_threads) {
 			return ERT.box(true);
+		} else if (type == am_tiered_compilation) {
+			return TieredCompilation.info();
 		} else if (type == am_thread_pool_size) {
 			return ERT.box(ERT.asyncThreadPoolSize());
 		} else if (type == am_break_ignored) {
@@ -777,6 +781,7 @@ public class ErlProc {
 		}
 		
 		self.tail = target;
+		self.clear_args();
 		a = a.reverse();
 		switch (arity) {
 		default:
@@ -0,0 +1,90 @@
+/**
+ * This file is part of Erjang - A JVM-based Erlang VM
+ *
+ * Copyright (c) 2009 by Trifork
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *  
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package erjang.m.ets;
+
+import com.trifork.clj_ds.IMapEntry;
+import com.trifork.clj_ds.ISeq;
+import com.trifork.clj_ds.PersistentTreeMap;
+
+import erjang.EObject;
+import erjang.EPseudoTerm;
+import erjang.ETuple;
+
+/**
+ * The keys a pattern can match, when the pattern's key is a tuple whose
+ * leading elements are constant, as in <code>{Tenant, '_'}</code>.
+ * 
+ * Tuples compare on arity first and then element by element, so in an
+ * ordered_set these keys are contiguous: they start at
+ * <code>{Tenant, LOWEST}</code> (LOWEST being below every term), and end
+ * at the first key which does not have the prefix.
+ */
+final class EKeyPrefix {
+
+	/** sorts before every Erlang term */
+	static final EObject LOWEST = new EPseudoTerm() {
+		@Override
+		public int hashCode() {
+			return 0;
+		}
+	};
+
+	private final ETuple start;
+	private final int length;
+
+	private EKeyPrefix(ETuple start, int length) {
+		this.start = start;
+		this.length = length;
+	}
+
+	/**
+	 * @param prefix the constant leading elements, non-empty
+	 * @param arity the arity of the key tuples
+	 */
+	static EKeyPrefix make(EObject[] prefix, int arity) {
+		ETuple start = ETuple.make(arity);
+		for (int idx1 = 1; idx1 <= arity; idx1++) {
+			start.set(idx1, idx1 <= prefix.length ? prefix[idx1 - 1] : LOWEST);
+		}
+		return new EKeyPrefix(start, prefix.length);
+	}
+
+	boolean contains(EObject key) {
+		ETuple tup = key.testTuple();
+		if (tup == null || tup.arity() != start.arity())
+			return false;
+		for (int idx1 = 1; idx1 <= length; idx1++) {
+			if (tup.elm(idx1).erlangCompareTo(start.elm(idx1)) != 0)
+				return false;
+		}
+		return true;
+	}
+
+	/** @return the entries of <code>map</code> from the first key in range */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	ISeq seq(PersistentTreeMap map) {
+		return map.seqFrom(start, true);
+	}
+
+	/** @return true if <code>seq</code> is at an entry in range */
+	@SuppressWarnings("rawtypes")
+	boolean at(ISeq seq) {
+		return seq != null && contains((EObject) ((IMapEntry) seq.first()).getKey());
+	}
+}
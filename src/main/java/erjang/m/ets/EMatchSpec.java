@@ -1162,6 +1162,32 @@ public class EMatchSpec extends EPseudoTerm {
 		return null;
 	}
 
+	/**
+	 * If the match head is a tuple, and the element at keypos is a tuple
+	 * pattern starting with one or more constant terms, then return the
+	 * range of keys having that prefix.  Used for range scans in
+	 * ordered_set tables.
+	 */
+	EKeyPrefix getTupleKeyPrefix(int keypos1) {
+		if (this.funs.length == 1 && funs[0].head instanceof TuplePattern) {
+			TuplePattern tp = (TuplePattern) funs[0].head;
+			if (tp.elems.length >= keypos1 && tp.elems[keypos1 - 1] instanceof TuplePattern) {
+				Pattern[] key = ((TuplePattern) tp.elems[keypos1 - 1]).elems;
+				int len = 0;
+				while (len < key.length && key[len] instanceof EqualsPattern)
+					len += 1;
+				if (len == 0) return null;
+
+				EObject[] prefix = new EObject[len];
+				for (int i = 0; i < len; i++)
+					prefix[i] = ((EqualsPattern) key[i]).value;
+				return EKeyPrefix.make(prefix, key.length);
+			}
+		}
+
+		return null;
+	}
+
 	/**
 	 * @param res
 	 * @param map
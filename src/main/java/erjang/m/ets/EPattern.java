@@ -476,6 +476,31 @@ public class EPattern {
 		return null;
 	}
 
+	/**
+	 * If the key element is a tuple pattern starting with one or more
+	 * constant terms, return the range of keys having that prefix.
+	 */
+	EKeyPrefix getKeyPrefix(int keypos1) {
+		if (matcher instanceof TuplePattern) {
+			TuplePattern tm = (TuplePattern) matcher;
+			if (keypos1 < 1 || keypos1 > tm.elems.length
+					|| !(tm.elems[keypos1 - 1] instanceof TuplePattern)) {
+				return null;
+			}
+			ETermPattern[] key = ((TuplePattern) tm.elems[keypos1 - 1]).elems;
+			int len = 0;
+			while (len < key.length && key[len] instanceof ValuePattern)
+				len += 1;
+			if (len == 0) return null;
+
+			EObject[] prefix = new EObject[len];
+			for (int i = 0; i < len; i++)
+				prefix[i] = ((ValuePattern) key[i]).value;
+			return EKeyPrefix.make(prefix, key.length);
+		}
+		return null;
+	}
+
 	/**
 	 * @param res
 	 * @param candidate
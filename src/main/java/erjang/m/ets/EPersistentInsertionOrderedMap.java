@@ -86,6 +86,11 @@ public class EPersistentInsertionOrderedMap<K,V> extends APersistentMap<K,V> {
 			this.value = value;
 		}
 
+		/** the insertion stamp; the entry's position in iteration order */
+		long position() {
+			return ins;
+		}
+
 		@Override
 		public K getKey() {
 			return key;
@@ -124,19 +129,15 @@ public class EPersistentInsertionOrderedMap<K,V> extends APersistentMap<K,V> {
 		return new Rec<K,V>(ins, key, value);
 	}
 	
+	/**
+	 * Replacing the value of an existing key keeps the key's position, so
+	 * updates made while iterating do not move keys past the iterator.
+	 */
 	@Override
 	public IPersistentMap<K, V> assoc(K key, V value) {
-		Rec<K,V> nrec = rec(key, value);
 		Rec<K,V> orec = korder.valAt(key);
-		IPersistentMap<Long, Rec<K,V>> i = iorder;
-		if (orec != null) {
-			try {
-				i = i.without(orec.ins);
-			} catch (Exception e) {
-				// ignore //
-			}
-		} 
-		i = i.assoc(nrec.ins, nrec);
+		Rec<K,V> nrec = orec == null ? rec(key, value) : new Rec<K,V>(orec.ins, key, value);
+		IPersistentMap<Long, Rec<K,V>> i = iorder.assoc(nrec.ins, nrec);
 		IPersistentMap<K, Rec<K, V>> k = korder.assoc(key, nrec);
 		return make(i, k);
 	}
@@ -164,6 +165,27 @@ public class EPersistentInsertionOrderedMap<K,V> extends APersistentMap<K,V> {
 		return make(i, k);
 	}
 
+	/** @return the position of <code>key</code> in iteration order, or null if absent */
+	public Long position(K key) {
+		Rec<K,V> rec = korder.valAt(key);
+		if (rec == null) return null;
+		return rec.ins;
+	}
+
+	/**
+	 * @return the first entry positioned after <code>pos</code>, or null.
+	 * This takes O(log n), regardless of whether an entry is still at
+	 * <code>pos</code>.
+	 */
+	public IMapEntry<K, V> entryAfter(long pos) {
+		ISeq<IMapEntry<Long, Rec<K, V>>> seq =
+			((PersistentTreeMap<Long, Rec<K, V>>) iorder).seqFrom(pos, true);
+		if (seq != null && seq.first().getKey().longValue() == pos)
+			seq = seq.next();
+		if (seq == null) return null;
+		return seq.first().getValue();
+	}
+
 	@Override
 	public Iterator<java.util.Map.Entry<K, V>> iteratorFrom(K key) {		
 		return new EIterator<K,V>( korder.iteratorFrom(key) );
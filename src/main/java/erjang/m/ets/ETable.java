@@ -19,7 +19,10 @@
 package erjang.m.ets;
 
 import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 
 import kilim.Pausable;
@@ -43,16 +46,19 @@ import erjang.ETuple3;
 import erjang.ErlangError;
 import erjang.ExitHook;
 import erjang.NotImplemented;
+import erjang.m.erlang.ErlTime;
 
 /**
  * Abstract super class for an ETS table.  We implement ETS by using
  * Clojure's persistent data types.  
  * 
- * set:           PersistentHashMap [key, value]
+ * set:           EPersistentInsertionOrderedMap [key, value]
  * ordered_set:   PersistentTreeMap [key, value]
- * bag			  PersistentHashMap [key, PersistentSet [value]]
- * duplicate_bag: PersistentHashMap [key, PersistentList [value]]
+ * bag			  EPersistentInsertionOrderedMap [key, PersistentSet [value]]
+ * duplicate_bag: EPersistentInsertionOrderedMap [key, PersistentList [value]]
  * 
+ * The insertion ordered map lets first/next find a key's successor in
+ * O(log n) from the key's insertion stamp.
  */
 abstract class ETable implements ExitHook {
 	public static final EAtom am_stm = EAtom.intern("stm");
@@ -68,7 +74,18 @@ abstract class ETable implements ExitHook {
 	protected final EAtom type;
 	protected final APersistentMap<EObject,Object> empty;
 	private AtomicReference<IPersistentMap<EObject, Object>> mapRef;
-	private boolean is_fixed;
+	private volatile boolean is_fixed;
+
+	/** processes that have the table fixed with safe_fixtable, and how many times */
+	private final Map<EInternalPID, Integer> fixers = new HashMap<EInternalPID, Integer>();
+	private ETuple3 fixed_since;
+
+	/**
+	 * While the table is fixed: the positions of keys handed out by
+	 * first/next, so that next(Key) can continue after Key has been
+	 * deleted.  Entries for deleted keys stay until the table is released.
+	 */
+	private final ConcurrentHashMap<EObject, Long> cursors = new ConcurrentHashMap<EObject, Long>();
 
 	ETable(EProc owner, EAtom type, EInteger tid, EAtom aname, EAtom access, int keypos,
 			boolean is_named, EInternalPID heir_pid, EObject heir_data, APersistentMap<EObject,Object> map) {
@@ -95,7 +112,12 @@ abstract class ETable implements ExitHook {
 	 */
 	public static ETable allocate(EProc proc, EInteger tid, EAtom aname,
 			EAtom type, EAtom access, int keypos, boolean write_concurrency,
-			boolean is_named, EInternalPID heir_pid, EObject heir_data) {
+			boolean compressed, boolean is_named, EInternalPID heir_pid, EObject heir_data) {
+
+		if (compressed && type == Native.am_set) {
+			return new ETableCompressed(proc, type, tid, aname, access, keypos,
+					write_concurrency, is_named, heir_pid, heir_data);
+		}
 
 		if (type == Native.am_set || type == Native.am_ordered_set) {
 			return new ETableSet(proc, type, tid, aname, access, keypos,
@@ -157,6 +179,8 @@ abstract class ETable implements ExitHook {
 		rep = rep.cons(new ETuple2(Native.am_keypos, ERT.box(table.keypos1)));
 		rep = rep.cons(new ETuple2(Native.am_protection, table.access));
 		rep = rep.cons(new ETuple2(Native.am_fixed, ERT.box(is_fixed)));
+		rep = rep.cons(new ETuple2(Native.am_safe_fixed, safe_fixed()));
+		rep = rep.cons(new ETuple2(Native.am_compressed, ERT.box(is_compressed())));
 
 		return rep;
 	}
@@ -176,11 +200,74 @@ abstract class ETable implements ExitHook {
                 //System.err.println("received exit from owner "+dyingPID+" => delete");
 				delete();
 			}
-		} else {
+			release_fixes(dyingPID);
+		} else if (!release_fixes(dyingPID)) {
 			Native.log.warning("table "+aname+" ("+tid+") received exit from unrelated "+dyingPID);
 		}
 	}
 
+	/**
+	 * Fix or release the table for <code>proc</code>.  Fixes are counted
+	 * per process, and released when the process exits.
+	 */
+	synchronized void safe_fixtable(EProc proc, boolean on) {
+		EInternalPID pid = proc.self_handle();
+		Integer count = fixers.get(pid);
+		boolean is_owner = (proc == owner.get());
+
+		if (on) {
+			if (count == null) {
+				if (!is_owner && !proc.add_exit_hook(this))
+					return;
+				count = 0;
+			}
+			if (fixers.isEmpty()) {
+				cursors.clear();
+				fixed_since = ErlTime.now();
+				is_fixed = true;
+				fixation_changed(true);
+			}
+			fixers.put(pid, count + 1);
+
+		} else if (count != null) {
+			if (count > 1) {
+				fixers.put(pid, count - 1);
+			} else {
+				if (!is_owner)
+					proc.remove_exit_hook(this);
+				release_fixes(pid);
+			}
+		}
+	}
+
+	/** @return true if <code>pid</code> had the table fixed */
+	private synchronized boolean release_fixes(EInternalPID pid) {
+		if (fixers.remove(pid) == null)
+			return false;
+		if (fixers.isEmpty()) {
+			is_fixed = false;
+			fixed_since = null;
+			cursors.clear();
+			fixation_changed(false);
+		}
+		return true;
+	}
+
+	/** called when the table gets fixed, and when the last fix is released */
+	protected void fixation_changed(boolean fixed) {
+	}
+
+	/** @return false, or {FixationTime, [{Pid,Count}]} */
+	private synchronized EObject safe_fixed() {
+		if (fixers.isEmpty())
+			return ERT.FALSE;
+		ESeq procs = ERT.NIL;
+		for (Map.Entry<EInternalPID, Integer> ent : fixers.entrySet()) {
+			procs = procs.cons(new ETuple2(ent.getKey(), ERT.box(ent.getValue())));
+		}
+		return new ETuple2(fixed_since, procs);
+	}
+
     public boolean transfer_ownership_to(EInternalPID new_owner, EObject transfer_data) throws Pausable {
         EInternalPID former_owner = owner_pid();
         EProc new_owner_task;
@@ -221,6 +308,15 @@ abstract class ETable implements ExitHook {
 	
 	abstract int size();
 
+	/** @return memory used by the table, in words */
+	long memory() {
+		return 10L * size();
+	}
+
+	boolean is_compressed() {
+		return false;
+	}
+
 	/** utility for subclasses */
 	EObject get_key(ETuple value) {
 		if (keypos1 > value.arity()) {
@@ -300,15 +396,56 @@ abstract class ETable implements ExitHook {
 
 	protected abstract EObject first();
 
+	/** @return the key of an entry handed out by first/next */
+	protected EObject visit(IMapEntry<EObject,Object> ent) {
+		EObject key = (EObject) ent.getKey();
+		if (ent instanceof EPersistentInsertionOrderedMap.Rec) {
+			return visit(key, ((EPersistentInsertionOrderedMap.Rec<EObject,Object>) ent).position());
+		}
+		return key;
+	}
+
+	/** @return <code>key</code>, which first/next hands out from position <code>pos</code> */
+	protected EObject visit(EObject key, long pos) {
+		if (is_fixed) cursors.put(key, pos);
+		return key;
+	}
+
+	/**
+	 * @param pos the position of <code>from</code>, or null if it is not in the table
+	 * @return the position to continue next(from) after, or null
+	 */
+	protected Long resume_from(EObject from, Long pos) {
+		if (!is_fixed) return pos;
+		if (pos != null) {
+			cursors.remove(from);
+			return pos;
+		}
+		// deleted since we handed it out
+		return cursors.get(from);
+	}
+
+	@SuppressWarnings("unchecked")
 	protected EObject next(EObject from) {
 		IPersistentMap<EObject,Object> map = deref();
 
+		if (map instanceof EPersistentInsertionOrderedMap) {
+			EPersistentInsertionOrderedMap<EObject,Object> iom = (EPersistentInsertionOrderedMap<EObject,Object>) map;
+			Long pos = resume_from(from, iom.position(from));
+			if (pos == null) return Native.am_$end_of_table;
+
+			IMapEntry<EObject,Object> ent = iom.entryAfter(pos);
+			if (ent == null) return Native.am_$end_of_table;
+			return visit(ent);
+		}
+
 		if (map instanceof PersistentTreeMap) {
 			PersistentTreeMap<EObject,Object> ptm = (PersistentTreeMap<EObject,Object>) map;
 			@SuppressWarnings("unchecked")
 			ISeq<IMapEntry<EObject,Object>> seq = ptm.seqFrom(from, true);
 			if (seq == null) return Native.am_$end_of_table;
-			seq = seq.next();
+			// seqFrom starts at the successor if from has been deleted
+			if (seq.first().getKey().erlangEquals(from)) seq = seq.next();
 			if (seq == null) return Native.am_$end_of_table;
 			IMapEntry<EObject,Object> ent = (IMapEntry<EObject,Object>) seq.first();
 			if (ent == null) return Native.am_$end_of_table;
@@ -354,7 +491,9 @@ abstract class ETable implements ExitHook {
 		} else if (item == Native.am_size) {
 			return ERT.box(size());
 		} else if (item == Native.am_memory) {
-			return ERT.box(10*size());
+			return ERT.box(memory());
+		} else if (item == Native.am_compressed) {
+			return ERT.box(is_compressed());
 		} else if (item == Native.am_node) {
 			return ERT.getLocalNode().node();
 		} else if (item == Native.am_type) {
@@ -381,7 +520,7 @@ abstract class ETable implements ExitHook {
 								ERT.box(10)   // MaxLen
 							  );
 		} else if (item == Native.am_safe_fixed) {
-			throw new NotImplemented();
+			return safe_fixed();
 		} else {
 			return null;
 		}
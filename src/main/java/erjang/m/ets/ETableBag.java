@@ -27,7 +27,6 @@ import com.trifork.clj_ds.IPersistentMap;
 import com.trifork.clj_ds.IPersistentSet;
 import com.trifork.clj_ds.ISeq;
 import com.trifork.clj_ds.PersistentHashSet;
-import com.trifork.clj_ds.PersistentHashMap;
 import com.trifork.clj_ds.Seqable;
 
 import erjang.EAtom;
@@ -65,7 +64,7 @@ public class ETableBag extends ETable {
 			  EObject heirData)
 	{
 		super(owner, type, tid, aname, access, keypos, isNamed, heirPid,
-			  heirData, PersistentHashMap.EMPTY);
+			  heirData, EPersistentInsertionOrderedMap.EMPTY);
 		try {
 			sizeRef = new AtomicInteger(0);
 		} catch (Exception e) {
@@ -199,8 +198,8 @@ public class ETableBag extends ETable {
 			return Native.am_$end_of_table;
 		} else {
 			ISeq entseq = map.seq();
-			IMapEntry<EObject, EObject> ent = (IMapEntry<EObject, EObject>) entseq.first();
-			return (EObject) ent.getKey();
+			IMapEntry ent = (IMapEntry) entseq.first();
+			return visit(ent);
 		}
 	}
 	
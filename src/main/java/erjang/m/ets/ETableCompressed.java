@@ -0,0 +1,415 @@
+/**
+ * This file is part of Erjang - A JVM-based Erlang VM
+ *
+ * Copyright (c) 2009 by Trifork
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *  
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package erjang.m.ets;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import erjang.EAtom;
+import erjang.EInteger;
+import erjang.EInternalPID;
+import erjang.EObject;
+import erjang.EProc;
+import erjang.EPseudoTerm;
+import erjang.ERT;
+import erjang.ESeq;
+import erjang.ETuple;
+import erjang.ETuple2;
+
+/**
+ * A set table created with the <code>compressed</code> option.  Objects
+ * are stored off-heap in external term format (see {@link OffHeapStore})
+ * and decoded on access, trading CPU for a much smaller heap.
+ * 
+ * Rather than swapping persistent maps, the table guards the store with a
+ * read/write lock.  Traversal order is the store's slot order.  While the
+ * table is fixed the store keeps slot numbers stable, so a traversal
+ * visits every object that stays in the table exactly once.
+ */
+public class ETableCompressed extends ETableSet {
+
+	private final OffHeapStore store;
+	private final Lock rlock, wlock;
+
+	ETableCompressed(EProc owner, EAtom type, EInteger tid, EAtom aname,
+			EAtom access, int keypos, boolean write_concurrency,
+			boolean is_named, EInternalPID heirPID, EObject heirData) {
+		super(owner, type, tid, aname, access, keypos, write_concurrency,
+				is_named, heirPID, heirData);
+		this.store = new OffHeapStore(keypos);
+		ReentrantReadWriteLock rw = new ReentrantReadWriteLock();
+		this.rlock = rw.readLock();
+		this.wlock = rw.writeLock();
+	}
+
+	@Override
+	int size() {
+		rlock.lock();
+		try {
+			return store.size();
+		} finally {
+			rlock.unlock();
+		}
+	}
+
+	@Override
+	long memory() {
+		rlock.lock();
+		try {
+			return (store.memory() + 7) / 8;
+		} finally {
+			rlock.unlock();
+		}
+	}
+
+	@Override
+	boolean is_compressed() {
+		return true;
+	}
+
+	/** check all values before inserting any */
+	private void check_values(ESeq values) {
+		for (ESeq seq = values; !seq.isNil(); seq = seq.tail()) {
+			ETuple value = seq.head().testTuple();
+			if (value == null) throw ERT.badarg(values);
+			get_key(value);
+		}
+	}
+
+	@Override
+	protected void insert_one(ETuple value) {
+		get_key(value);
+		wlock.lock();
+		try {
+			store.put(value, false);
+		} finally {
+			wlock.unlock();
+		}
+	}
+
+	@Override
+	protected void insert_many(ESeq values) {
+		check_values(values);
+		wlock.lock();
+		try {
+			for (ESeq seq = values; !seq.isNil(); seq = seq.tail()) {
+				store.put((ETuple) seq.head(), false);
+			}
+		} finally {
+			wlock.unlock();
+		}
+	}
+
+	@Override
+	protected boolean insert_new_one(ETuple value) {
+		get_key(value);
+		wlock.lock();
+		try {
+			return !store.put(value, true);
+		} finally {
+			wlock.unlock();
+		}
+	}
+
+	@Override
+	protected boolean insert_new_many(ESeq values) {
+		check_values(values);
+		wlock.lock();
+		try {
+			for (ESeq seq = values; !seq.isNil(); seq = seq.tail()) {
+				if (store.slot_of(get_key((ETuple) seq.head())) >= 0)
+					return false;
+			}
+			for (ESeq seq = values; !seq.isNil(); seq = seq.tail()) {
+				store.put((ETuple) seq.head(), false);
+			}
+			return true;
+		} finally {
+			wlock.unlock();
+		}
+	}
+
+	@Override
+	protected ESeq lookup(EObject key) {
+		rlock.lock();
+		try {
+			ETuple val = store.get(key);
+			return val == null ? ERT.NIL : ERT.NIL.cons(val);
+		} finally {
+			rlock.unlock();
+		}
+	}
+
+	@Override
+	protected EAtom member(EObject key) {
+		rlock.lock();
+		try {
+			return ERT.box(store.slot_of(key) >= 0);
+		} finally {
+			rlock.unlock();
+		}
+	}
+
+	@Override
+	public ESeq slot() {
+		ESeq res = ERT.NIL;
+		rlock.lock();
+		try {
+			for (int i = store.next_slot(0); i >= 0; i = store.next_slot(i + 1)) {
+				res = res.cons(store.at(i));
+			}
+		} finally {
+			rlock.unlock();
+		}
+		return res;
+	}
+
+	@Override
+	protected void fixation_changed(boolean fixed) {
+		wlock.lock();
+		try {
+			store.set_fixed(fixed);
+		} finally {
+			wlock.unlock();
+		}
+	}
+
+	@Override
+	protected EObject first() {
+		rlock.lock();
+		try {
+			int slot = store.next_slot(0);
+			if (slot < 0) return Native.am_$end_of_table;
+			return visit(get_key(store.at(slot)), slot);
+		} finally {
+			rlock.unlock();
+		}
+	}
+
+	@Override
+	protected EObject last() {
+		return first();
+	}
+
+	@Override
+	protected EObject next(EObject from) {
+		rlock.lock();
+		try {
+			int slot = store.slot_of(from);
+			Long pos = resume_from(from, slot < 0 ? null : Long.valueOf(slot));
+			if (pos == null) return Native.am_$end_of_table;
+
+			slot = store.next_slot((int) (pos + 1));
+			if (slot < 0) return Native.am_$end_of_table;
+			return visit(get_key(store.at(slot)), slot);
+		} finally {
+			rlock.unlock();
+		}
+	}
+
+	@Override
+	public ESeq match(EPattern matcher) {
+		ESeq res = ERT.NIL;
+		EObject key = matcher.getKey(keypos1);
+		rlock.lock();
+		try {
+			if (key != null) {
+				ETuple candidate = store.get(key);
+				if (candidate != null)
+					res = matcher.match(res, candidate);
+			} else {
+				for (int i = store.next_slot(0); i >= 0; i = store.next_slot(i + 1)) {
+					res = matcher.match(res, store.at(i));
+				}
+			}
+		} finally {
+			rlock.unlock();
+		}
+		return res;
+	}
+
+	@Override
+	public ESeq match_object(EPattern matcher) {
+		ESeq res = ERT.NIL;
+		EObject key = matcher.getKey(keypos1);
+		rlock.lock();
+		try {
+			if (key != null) {
+				ETuple candidate = store.get(key);
+				if (candidate != null)
+					res = matcher.match_members(res, candidate);
+			} else {
+				for (int i = store.next_slot(0); i >= 0; i = store.next_slot(i + 1)) {
+					res = matcher.match_members(res, store.at(i));
+				}
+			}
+		} finally {
+			rlock.unlock();
+		}
+		return res;
+	}
+
+	@Override
+	protected void delete(EObject key) {
+		wlock.lock();
+		try {
+			store.remove(key);
+		} finally {
+			wlock.unlock();
+		}
+	}
+
+	@Override
+	protected void delete_object(ETuple obj) {
+		EObject key = get_key(obj);
+		wlock.lock();
+		try {
+			int slot = store.slot_of(key);
+			if (slot >= 0 && obj.equalsExactly(store.at(slot)))
+				store.remove_slot(slot);
+		} finally {
+			wlock.unlock();
+		}
+	}
+
+	@Override
+	protected void delete_all_objects() {
+		wlock.lock();
+		try {
+			store.clear();
+		} finally {
+			wlock.unlock();
+		}
+	}
+
+	@Override
+	public EObject select(EMatchSpec matcher, int limit) {
+		EObject key = matcher.getTupleKey(keypos1);
+
+		if (key == null) {
+			return new ECompressedCont(matcher, 0, limit).select();
+		}
+
+		ETuple candidate;
+		rlock.lock();
+		try {
+			candidate = store.get(key);
+		} finally {
+			rlock.unlock();
+		}
+
+		EObject res;
+		if (candidate != null && (res = matcher.match(candidate)) != null) {
+			return new ETuple2(ERT.NIL.cons(res), Native.am_$end_of_table);
+		}
+		return Native.am_$end_of_table;
+	}
+
+	/** select continuation; resumes at a slot of the store */
+	class ECompressedCont extends EPseudoTerm implements ISelectContinuation {
+
+		private final EMatchSpec matcher;
+		private final int slot;
+		private final int limit;
+
+		ECompressedCont(EMatchSpec matcher, int slot, int limit) {
+			this.matcher = matcher;
+			this.slot = slot;
+			this.limit = limit;
+		}
+
+		public EObject select() {
+			int count = 0;
+			ESeq vals = ERT.NIL;
+			int i;
+
+			rlock.lock();
+			try {
+				for (i = store.next_slot(slot);
+					 i >= 0 && (limit < 0 || count < limit);
+					 i = store.next_slot(i + 1)) {
+					EObject res;
+					if ((res = matcher.match(store.at(i))) != null) {
+						count += 1;
+						vals = vals.cons(res);
+					}
+				}
+			} finally {
+				rlock.unlock();
+			}
+
+			if (vals == ERT.NIL) {
+				return Native.am_$end_of_table;
+			} else if (i < 0) {
+				return new ETuple2(vals, Native.am_$end_of_table);
+			} else {
+				return new ETuple2(vals, new ECompressedCont(matcher, i, limit));
+			}
+		}
+
+		@Override
+		public int hashCode() { // Shouldn't be called.
+			return System.identityHashCode(this);
+		}
+	}
+
+	@Override
+	public EInteger select_delete(EMatchSpec matcher) {
+		int count = 0;
+		wlock.lock();
+		try {
+			for (int i = store.next_slot(0); i >= 0; i = store.next_slot(i + 1)) {
+				if (matcher.matches(store.at(i))) {
+					store.remove_slot(i);
+					count += 1;
+				}
+			}
+		} finally {
+			wlock.unlock();
+		}
+		return ERT.box(count);
+	}
+
+	@Override
+	public EObject update_counter(EObject key, EObject upd) {
+		wlock.lock();
+		try {
+			Update u = counter_update(store.get(key), key, upd);
+			if (u == null)
+				return null; // fail with badarg
+			store.put(u.rec, false);
+			return u.result;
+		} finally {
+			wlock.unlock();
+		}
+	}
+
+	@Override
+	public EObject update_element(EObject key, ESeq upd) {
+		wlock.lock();
+		try {
+			Update u = element_update(store.get(key), key, upd);
+			if (u != null && u.rec != null)
+				store.put(u.rec, false);
+			return u == null ? null : u.result;
+		} finally {
+			wlock.unlock();
+		}
+	}
+}
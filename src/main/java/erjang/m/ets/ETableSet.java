@@ -204,7 +204,7 @@ public class ETableSet extends ETable {
 			if (entseq == null) return Native.am_$end_of_table;
 			IMapEntry ent = (IMapEntry) entseq.first();
 			if (ent == null) return Native.am_$end_of_table;
-			return (EObject) ent.getKey();
+			return visit(ent);
 		}
 	}
 
@@ -266,7 +266,14 @@ public class ETableSet extends ETable {
 		ESeq res = ERT.NIL;
 		
 		EObject key = matcher.getKey(keypos1);
-		if (key == null) {
+		EKeyPrefix prefix;
+		if (key == null && ordered && (prefix = matcher.getKeyPrefix(keypos1)) != null) {
+			for (ISeq seq = prefix.seq((PersistentTreeMap) map); prefix.at(seq); seq = seq.next()) {
+				ETuple candidate = (ETuple) ((IMapEntry) seq.first()).getValue();
+				res = matcher.match(res, candidate);
+			}
+			res = res.reverse();
+		} else if (key == null) {
 			res = matcher.match(res, (Map<EObject, ETuple>) map);
 			if (ordered) res = res.reverse();
 		} else {
@@ -285,7 +292,14 @@ public class ETableSet extends ETable {
 		ESeq res = ERT.NIL;
 		
 		EObject key = matcher.getKey(keypos1);
-		if (key == null) {
+		EKeyPrefix prefix;
+		if (key == null && ordered && (prefix = matcher.getKeyPrefix(keypos1)) != null) {
+			for (ISeq seq = prefix.seq((PersistentTreeMap) map); prefix.at(seq); seq = seq.next()) {
+				ETuple candidate = (ETuple) ((IMapEntry) seq.first()).getValue();
+				res = matcher.match_members(res, candidate);
+			}
+			res = res.reverse();
+		} else if (key == null) {
 			res = matcher.match_members(res, (Map<EObject, ETuple>) map);
 			if (ordered) res = res.reverse();
 		} else {
@@ -348,9 +362,15 @@ public class ETableSet extends ETable {
 		IPersistentMap map = deref();
 		
 		EObject key = matcher.getTupleKey(keypos1);
+		EKeyPrefix prefix;
 		
-		if (key == null) {
-			ESetCont cont0 = new ESetCont(matcher, map.seq(), ordered, limit);
+		if (key == null && ordered && (prefix = matcher.getTupleKeyPrefix(keypos1)) != null) {
+			// only scan the keys with the given prefix
+			ESetCont cont0 = new ESetCont(matcher, prefix.seq((PersistentTreeMap) map), prefix, ordered, limit);
+			return cont0.select();
+
+		} else if (key == null) {
+			ESetCont cont0 = new ESetCont(matcher, map.seq(), null, ordered, limit);
 			return cont0.select();
 			
 		} else {
@@ -369,12 +389,15 @@ public class ETableSet extends ETable {
 
 		private final ISeq ent;
 		private final EMatchSpec matcher;
+		/** if non-null, stop at the first key not in this range */
+		private final EKeyPrefix range;
 		private final boolean ordered;
 		private final int limit;
 
-		public ESetCont(EMatchSpec matcher, ISeq ent, boolean ordered, int limit) {
+		public ESetCont(EMatchSpec matcher, ISeq ent, EKeyPrefix range, boolean ordered, int limit) {
 			this.matcher = matcher;
 			this.ent = ent;
+			this.range = range;
 			this.ordered = ordered;
 			this.limit = limit;
 		}
@@ -403,12 +426,13 @@ public class ETableSet extends ETable {
 			} else if (!seq_has_more(map_seq)) {
 				return new ETuple2(vals, Native.am_$end_of_table);
 			} else {
-				return new ETuple2(vals, new ESetCont(matcher, map_seq, ordered, limit));
+				return new ETuple2(vals, new ESetCont(matcher, map_seq, range, ordered, limit));
 			}
 		}
 
 		private boolean seq_has_more(ISeq ent) {
-			return ent != null && ent != ent.empty();
+			return ent != null && ent != ent.empty()
+				&& (range == null || range.at(ent));
 		}
 
 		@Override
@@ -424,9 +448,22 @@ public class ETableSet extends ETable {
 			@Override
 			protected Integer run(IPersistentMap map) {
 				EObject key = matcher.getTupleKey(keypos1);
+				EKeyPrefix prefix;
 				int count = 0;
 				
-				if (key == null) {
+				if (key == null && ordered && (prefix = matcher.getTupleKeyPrefix(keypos1)) != null) {
+					for (ISeq seq = prefix.seq((PersistentTreeMap) map); prefix.at(seq); seq = seq.next()) {
+						IMapEntry ent = (IMapEntry) seq.first();
+						if (matcher.matches((ETuple) ent.getValue())) {
+							try {
+								map = map.without(ent.getKey());
+							} catch (Exception e) {
+								throw new RuntimeException(e);
+							}
+							count += 1;
+						}
+					}
+				} else if (key == null) {
 					for (Map.Entry<EObject, ETuple> ent : ((Map<EObject, ETuple>) map).entrySet()) {		
 						ETuple val = ent.getValue();
 						if (matcher.matches(val)) {
@@ -457,112 +494,121 @@ public class ETableSet extends ETable {
 		return ERT.box(delete_count);
 	}
 
+	/** The outcome of update_counter or update_element on one record. */
+	static final class Update {
+		/** the new record, or null if nothing changed */
+		final ETuple rec;
+		final EObject result;
+
+		Update(ETuple rec, EObject result) {
+			this.rec = rec;
+			this.result = result;
+		}
+	}
+
 	public EObject update_counter(final EObject key, final EObject upd) {
 		return in_tx(new WithMap<EObject>() {
 
 			@Override
 			protected EObject run(IPersistentMap map) {
-				ETuple rec = (ETuple) map.valAt(key);
-				if (rec == null)
+				Update u = counter_update((ETuple) map.valAt(key), key, upd);
+				if (u == null)
 					return null; // fail with badarg
-				
-				// TODO: figure out match/equals semantics
-				if (type == Native.am_set) {
-					if (!key.equalsExactly( get_key(rec) )) {
-						return null;
-					}
-				}
+				set(map.assoc(get_key(u.rec), u.rec));
+				return u.result;
+			}
+		});
+	}
 
-				EInteger incr;
-				ETuple one;
-				if ((incr=upd.testInteger()) != null) {
-					int idx = keypos1+1;
-					
-					rec = update(rec, idx, incr);
-					if (rec == null) return null;
-					map = map.assoc(get_key(rec), rec);
-					
-					set(map);
-					return rec.elm(idx);
-					
-				} else if ((one=upd.testTuple()) != null) {
-					
-					if (one.arity() == 2) {
-						ESmall eidx = one.elm(1).testSmall();
-						incr = one.elm(2).testInteger();
-						if (eidx == null || eidx.value > rec.arity() || incr == null) return null;
-						int idx = eidx.value;
-						
-						rec = update(rec, idx, incr);
-						if (rec == null) return null;
-						map = map.assoc(get_key(rec), rec);
-						
-						set(map);
-						return rec.elm(idx);
-
-					} else if (one.arity() == 4){
-						
-						ESmall eidx = one.elm(1).testSmall();
-						incr = one.elm(2).testInteger();
-						EInteger threshold = one.elm(3).testInteger();
-						EInteger setvalue = one.elm(4).testInteger();
-						if (eidx == null || eidx.value > rec.arity() || incr == null
-								|| threshold == null || setvalue == null) return null;
-						int idx = eidx.value;
-						
-						rec = update(rec, idx, incr, threshold, setvalue);
-						if (rec == null) return null;
-						map = map.assoc(get_key(rec), rec);
-						
-						set(map);
-						return rec.elm(idx);
+	/** @return the counter update of <code>rec</code>, or null for badarg */
+	Update counter_update(ETuple rec, EObject key, EObject upd) {
+		if (rec == null)
+			return null; // fail with badarg
 
-					} else {
-						return null;
-					}
-					
-				} else {
-					throw new NotImplemented();
-				}
-				
+		// TODO: figure out match/equals semantics
+		if (type == Native.am_set) {
+			if (!key.equalsExactly( get_key(rec) )) {
+				return null;
 			}
+		}
 
-			private ETuple update(ETuple rec, int idx, EInteger incr) {
+		EInteger incr;
+		ETuple one;
+		if ((incr=upd.testInteger()) != null) {
+			int idx = keypos1+1;
+			
+			rec = update(rec, idx, incr);
+			if (rec == null) return null;
+			return new Update(rec, rec.elm(idx));
+			
+		} else if ((one=upd.testTuple()) != null) {
+			
+			if (one.arity() == 2) {
+				ESmall eidx = one.elm(1).testSmall();
+				incr = one.elm(2).testInteger();
+				if (eidx == null || eidx.value > rec.arity() || incr == null) return null;
+				int idx = eidx.value;
+				
+				rec = update(rec, idx, incr);
+				if (rec == null) return null;
+				return new Update(rec, rec.elm(idx));
 
-				EInteger old = rec.elm(idx).testInteger();
-				if (old == null) return null;
-				EObject val = old.add(incr);
-				rec = ErlBif.setelement(idx, rec, val);
+			} else if (one.arity() == 4){
+				
+				ESmall eidx = one.elm(1).testSmall();
+				incr = one.elm(2).testInteger();
+				EInteger threshold = one.elm(3).testInteger();
+				EInteger setvalue = one.elm(4).testInteger();
+				if (eidx == null || eidx.value > rec.arity() || incr == null
+						|| threshold == null || setvalue == null) return null;
+				int idx = eidx.value;
+				
+				rec = update(rec, idx, incr, threshold, setvalue);
+				if (rec == null) return null;
+				return new Update(rec, rec.elm(idx));
 
-				return rec;
+			} else {
+				return null;
 			}
 			
-			private ETuple update(ETuple rec, int idx, EInteger incr, EInteger threshold, EInteger setvalue) {
+		} else {
+			throw new NotImplemented();
+		}
+	}
 
-				EInteger old = rec.elm(idx).testInteger();
-				if (old == null) return null;
-				ENumber val = old.add(incr);
-				
-				if (incr.is_ge(ESmall.ZERO)) {
+	private static ETuple update(ETuple rec, int idx, EInteger incr) {
 
-					if (threshold.is_lt(val)) {
-						val = setvalue;
-					}
-					
-				} else {
-					
-					if (val.is_lt(threshold)) {
-						val = setvalue;
-					}
-				}
+		EInteger old = rec.elm(idx).testInteger();
+		if (old == null) return null;
+		EObject val = old.add(incr);
+		rec = ErlBif.setelement(idx, rec, val);
 
-				
-				rec = ErlBif.setelement(idx, rec, val);
+		return rec;
+	}
+	
+	private static ETuple update(ETuple rec, int idx, EInteger incr, EInteger threshold, EInteger setvalue) {
 
-				return rec;
+		EInteger old = rec.elm(idx).testInteger();
+		if (old == null) return null;
+		ENumber val = old.add(incr);
+		
+		if (incr.is_ge(ESmall.ZERO)) {
+
+			if (threshold.is_lt(val)) {
+				val = setvalue;
 			}
 			
-		});
+		} else {
+			
+			if (val.is_lt(threshold)) {
+				val = setvalue;
+			}
+		}
+
+		
+		rec = ErlBif.setelement(idx, rec, val);
+
+		return rec;
 	}
 	
 
@@ -571,42 +617,48 @@ public class ETableSet extends ETable {
 
 			@Override
 			protected EObject run(IPersistentMap map) {
-				ETuple rec = (ETuple) map.valAt(key);
-				if (rec == null)
-					return ERT.FALSE; 
-				
-				// TODO: figure out match/equals semantics
-				if (type == Native.am_set) {
-					if (!key.equalsExactly( get_key(rec) )) {
-						return ERT.FALSE;
-					}
-				}
-
-				ETuple rep = null;
-				
-				for (ESeq next = upd ; !next.isNil() ; next = next.tail()) {
-					ETuple2 update = ETuple2.cast(next.head());
-					if (update == null) return null;
-					ESmall idx1 = update.elem1.testSmall();
-					if (idx1 == null 
-							|| idx1.value < 1 
-							|| idx1.value > rec.arity()
-							|| idx1.value == keypos1) return null;
-					
-					if (rep == null) {
-						rep = rec.setelement(idx1.value, update.elem2);
-					} else {
-						rep.set(idx1.value, update.elem2);
-					}
-				}
-				
-				if (rep != null) {
-					map = map.assoc(get_key(rec), rep);
+				Update u = element_update((ETuple) map.valAt(key), key, upd);
+				if (u == null)
+					return null;
+				if (u.rec != null) {
+					map = map.assoc(get_key(u.rec), u.rec);
 					set(map);
 				}
-				
-				return ERT.TRUE;				
+				return u.result;
 			}
 		});
 	}
+
+	/** @return the element update of <code>rec</code>, or null for badarg */
+	Update element_update(ETuple rec, EObject key, ESeq upd) {
+		if (rec == null)
+			return new Update(null, ERT.FALSE);
+		
+		// TODO: figure out match/equals semantics
+		if (type == Native.am_set) {
+			if (!key.equalsExactly( get_key(rec) )) {
+				return new Update(null, ERT.FALSE);
+			}
+		}
+
+		ETuple rep = null;
+		
+		for (ESeq next = upd ; !next.isNil() ; next = next.tail()) {
+			ETuple2 update = ETuple2.cast(next.head());
+			if (update == null) return null;
+			ESmall idx1 = update.elem1.testSmall();
+			if (idx1 == null 
+					|| idx1.value < 1 
+					|| idx1.value > rec.arity()
+					|| idx1.value == keypos1) return null;
+			
+			if (rep == null) {
+				rep = rec.setelement(idx1.value, update.elem2);
+			} else {
+				rep.set(idx1.value, update.elem2);
+			}
+		}
+		
+		return new Update(rep, ERT.TRUE);
+	}
 }
@@ -80,6 +80,7 @@ public class Native extends ENative {
 	public static final EAtom am_protection = EAtom.intern("protection");
 	public static final EAtom am_fixed = EAtom.intern("fixed");
 	public static final EAtom am_safe_fixed = EAtom.intern("safe_fixed");
+	public static final EAtom am_compressed = EAtom.intern("compressed");
 	public static final EAtom am_stats = EAtom.intern("stats");
 
 	static AtomicLong next_tid = new AtomicLong(1);
@@ -131,6 +132,7 @@ public class Native extends ENative {
 		EInternalPID heir_pid = null;
 		EObject heir_data = null;
 		boolean is_named = false;
+		boolean compressed = false;
 
 		for (; !opts.isNil(); opts = opts.tail()) {
 			EObject option = opts.head();
@@ -150,6 +152,9 @@ public class Native extends ENative {
 				} else if (atom == am_named_table) {
 					is_named = true;
 					continue;
+				} else if (atom == am_compressed) {
+					compressed = true;
+					continue;
 				}
 			} else if ((t2 = ETuple2.cast(option)) != null) {
 				ESmall pos;
@@ -189,7 +194,7 @@ public class Native extends ENative {
 		EInteger tid = ERT.box(next_tid.incrementAndGet());
 
 		ETable table = ETable.allocate(self, tid, aname, type, access, keypos,
-				write_concurrency, is_named, heir_pid, heir_data);
+				write_concurrency, compressed, is_named, heir_pid, heir_data);
 
 
 		tid_to_table.put(tid, table);
@@ -489,8 +494,7 @@ public class Native extends ENative {
 			throw ERT.badarg(tab,onOff);
 		}
 
-		// TODO: fix somehow?
-		
+		table.safe_fixtable(proc, onOff == ERT.TRUE);
 		return ERT.TRUE;
 	}
 	
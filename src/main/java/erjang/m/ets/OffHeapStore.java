@@ -0,0 +1,391 @@
+/**
+ * This file is part of Erjang - A JVM-based Erlang VM
+ *
+ * Copyright (c) 2009 by Trifork
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *  
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package erjang.m.ets;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import erjang.EInputStream;
+import erjang.EObject;
+import erjang.EOutputStream;
+import erjang.ETuple;
+import erjang.ErlangError;
+
+/**
+ * Storage for the objects of a compressed table.
+ * 
+ * Objects are kept in external term format in direct (off-heap) slabs, so
+ * a large table is a handful of objects to the garbage collector, not a
+ * graph per row.  An object is decoded again each time it is read.
+ * 
+ * The index is an open addressing hash table of two primitive arrays:
+ * the key's hash, and the object's location (slab number and offset).
+ * Deleting a key leaves a tombstone, and replacing an object keeps its
+ * slot, so slot numbers are positions for first/next.  Growing the index
+ * renumbers the slots, so while the table is fixed it is not rebuilt;
+ * new keys go to an added, larger index table instead, numbered after
+ * the ones before it.  The tables are merged when the table is released.
+ * Space of replaced and deleted objects is reclaimed by copying the live
+ * objects to fresh slabs, once it is more than the space in use.
+ * 
+ * Not thread safe; the table locks around it.
+ */
+final class OffHeapStore {
+
+	static final int SLAB_SIZE = 1 << 20;
+
+	private static final long EMPTY = 0;
+	private static final long DELETED = -1;
+
+	private final int keypos1;
+
+	private ByteBuffer[] slabs = new ByteBuffer[4];
+	private int nslabs;
+
+	/** capacity of all slabs */
+	private long slab_bytes;
+	/** bytes appended to slabs (or skipped at the end of one) */
+	private long used_bytes;
+	/** bytes of the objects in the table */
+	private long live_bytes;
+
+	/** the index tables; there is more than one only while fixed */
+	private int[][] hashes;
+	private long[][] locs;
+	/** the number of the first slot of each index table */
+	private int[] bases;
+	/** slots in each index table that are not empty (objects and tombstones) */
+	private int[] used;
+	private int nindex;
+	private int count;
+	private boolean fixed;
+
+	OffHeapStore(int keypos1) {
+		this.keypos1 = keypos1;
+		init_index(16);
+	}
+
+	private void init_index(int capacity) {
+		hashes = new int[][] { new int[capacity] };
+		locs = new long[][] { new long[capacity] };
+		bases = new int[] { 0 };
+		used = new int[] { 0 };
+		nindex = 1;
+		count = 0;
+	}
+
+	int size() {
+		return count;
+	}
+
+	/** @return bytes used by slabs and index */
+	long memory() {
+		return slab_bytes + 12L * slots();
+	}
+
+	/** @return the number of index slots */
+	private int slots() {
+		return bases[nindex - 1] + locs[nindex - 1].length;
+	}
+
+	void clear() {
+		slabs = new ByteBuffer[4];
+		nslabs = 0;
+		slab_bytes = used_bytes = live_bytes = 0;
+		init_index(16);
+	}
+
+	/**
+	 * While the table is fixed, slots keep their numbers.  Releasing it
+	 * merges the index tables added meanwhile.
+	 */
+	void set_fixed(boolean fixed) {
+		this.fixed = fixed;
+		if (!fixed && nindex > 1)
+			rehash();
+	}
+
+	/*==================== Lookup ====================*/
+
+	static int hash(EObject key) {
+		int h = key.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	/** @return the slot of <code>key</code>, or -1 */
+	int slot_of(EObject key) {
+		int hash = hash(key);
+		for (int t = 0; t < nindex; t++) {
+			int i = index_of(t, key, hash);
+			if (i >= 0)
+				return bases[t] + i;
+		}
+		return -1;
+	}
+
+	/** @return the position of <code>key</code> in index table <code>t</code>, or -1 */
+	private int index_of(int t, EObject key, int hash) {
+		int[] hs = hashes[t];
+		long[] ls = locs[t];
+		int mask = ls.length - 1;
+		for (int i = hash & mask; ; i = (i + 1) & mask) {
+			long loc = ls[i];
+			if (loc == EMPTY)
+				return -1;
+			if (loc != DELETED && hs[i] == hash
+					&& key.equalsExactly(read(loc).elm(keypos1)))
+				return i;
+		}
+	}
+
+	/** @return the index table holding <code>slot</code> */
+	private int table_of(int slot) {
+		int t = nindex - 1;
+		while (bases[t] > slot)
+			t -= 1;
+		return t;
+	}
+
+	ETuple get(EObject key) {
+		int slot = slot_of(key);
+		return slot < 0 ? null : at(slot);
+	}
+
+	/** @return the first slot at or after <code>slot</code> holding an object, or -1 */
+	int next_slot(int slot) {
+		if (slot >= slots())
+			return -1;
+		for (int t = table_of(slot); t < nindex; t++) {
+			long[] ls = locs[t];
+			for (int i = Math.max(0, slot - bases[t]); i < ls.length; i++) {
+				if (ls[i] != EMPTY && ls[i] != DELETED)
+					return bases[t] + i;
+			}
+		}
+		return -1;
+	}
+
+	/** @return the object in <code>slot</code>, which must hold one */
+	ETuple at(int slot) {
+		int t = table_of(slot);
+		return read(locs[t][slot - bases[t]]);
+	}
+
+	/*==================== Update ====================*/
+
+	/**
+	 * Insert or replace <code>value</code>.
+	 * 
+	 * @param only_new if true, do nothing if the key is present
+	 * @return true if an object with the same key was present
+	 */
+	boolean put(ETuple value, boolean only_new) {
+		EObject key = value.elm(keypos1);
+		int hash = hash(key);
+
+		int slot = slot_of(key);
+		if (slot >= 0) {
+			if (!only_new) {
+				int t = table_of(slot);
+				int i = slot - bases[t];
+				long nloc = append(encode(value));
+				release(locs[t][i]);
+				locs[t][i] = nloc;
+				maybe_compact();
+			}
+			return true;
+		}
+
+		int t = nindex - 1;
+		if (4 * (used[t] + 1) > 3 * locs[t].length) {
+			if (fixed) {
+				add_index(2 * locs[t].length);
+			} else {
+				rehash();
+			}
+			t = nindex - 1;
+		}
+
+		long[] ls = locs[t];
+		int mask = ls.length - 1;
+		int i = hash & mask;
+		while (ls[i] != EMPTY && ls[i] != DELETED)
+			i = (i + 1) & mask;
+
+		if (ls[i] == EMPTY)
+			used[t] += 1;
+		hashes[t][i] = hash;
+		ls[i] = append(encode(value));
+		count += 1;
+		return false;
+	}
+
+	/** remove the object in <code>slot</code> */
+	void remove_slot(int slot) {
+		int t = table_of(slot);
+		int i = slot - bases[t];
+		release(locs[t][i]);
+		locs[t][i] = DELETED;
+		count -= 1;
+		maybe_compact();
+	}
+
+	/** @return true if <code>key</code> was present */
+	boolean remove(EObject key) {
+		int slot = slot_of(key);
+		if (slot < 0)
+			return false;
+		remove_slot(slot);
+		return true;
+	}
+
+	/** add an empty index table, numbered after the last one */
+	private void add_index(int capacity) {
+		if (nindex == locs.length) {
+			hashes = Arrays.copyOf(hashes, 2 * nindex);
+			locs = Arrays.copyOf(locs, 2 * nindex);
+			bases = Arrays.copyOf(bases, 2 * nindex);
+			used = Arrays.copyOf(used, 2 * nindex);
+		}
+		bases[nindex] = slots();
+		hashes[nindex] = new int[capacity];
+		locs[nindex] = new long[capacity];
+		used[nindex] = 0;
+		nindex += 1;
+	}
+
+	/**
+	 * Rebuild the index as one table without tombstones, at twice the
+	 * size of the live objects (so it is at most half full).
+	 */
+	private void rehash() {
+		int capacity = 16;
+		while (capacity < 2 * (count + 1))
+			capacity *= 2;
+
+		int[][] ohashes = hashes;
+		long[][] olocs = locs;
+		int ondex = nindex;
+		init_index(capacity);
+
+		int[] hs = hashes[0];
+		long[] ls = locs[0];
+		int mask = capacity - 1;
+		for (int t = 0; t < ondex; t++) {
+			for (int j = 0; j < olocs[t].length; j++) {
+				long loc = olocs[t][j];
+				if (loc == EMPTY || loc == DELETED)
+					continue;
+				int i = ohashes[t][j] & mask;
+				while (ls[i] != EMPTY)
+					i = (i + 1) & mask;
+				hs[i] = ohashes[t][j];
+				ls[i] = loc;
+				count += 1;
+			}
+		}
+		used[0] = count;
+	}
+
+	/*==================== Slabs ====================*/
+
+	private static byte[] encode(EObject value) {
+		EOutputStream eos = new EOutputStream(256);
+		eos.write_any(value);
+		return eos.toByteArray();
+	}
+
+	/** append an object [len:32][data] to the last slab, and return its location */
+	private long append(byte[] data) {
+		int need = 4 + data.length;
+		ByteBuffer slab = nslabs == 0 ? null : slabs[nslabs - 1];
+		if (slab == null || slab.remaining() < need) {
+			if (slab != null)
+				used_bytes += slab.remaining();
+			slab = new_slab(need);
+		}
+
+		int off = slab.position();
+		slab.putInt(data.length);
+		slab.put(data);
+		used_bytes += need;
+		live_bytes += need;
+
+		return ((long) nslabs << 32) | off;
+	}
+
+	private ByteBuffer new_slab(int need) {
+		if (nslabs == slabs.length) {
+			ByteBuffer[] ns = new ByteBuffer[2 * nslabs];
+			System.arraycopy(slabs, 0, ns, 0, nslabs);
+			slabs = ns;
+		}
+		ByteBuffer slab = ByteBuffer.allocateDirect(Math.max(SLAB_SIZE, need));
+		slab_bytes += slab.capacity();
+		slabs[nslabs++] = slab;
+		return slab;
+	}
+
+	private void release(long loc) {
+		ByteBuffer slab = slabs[(int) (loc >>> 32) - 1];
+		live_bytes -= 4 + slab.getInt((int) loc);
+	}
+
+	private static byte[] bytes(ByteBuffer[] slabs, long loc) {
+		ByteBuffer slab = slabs[(int) (loc >>> 32) - 1].duplicate();
+		int off = (int) loc;
+		byte[] data = new byte[slab.getInt(off)];
+		slab.position(off + 4);
+		slab.get(data);
+		return data;
+	}
+
+	private ETuple read(long loc) {
+		try {
+			return (ETuple) new EInputStream(bytes(slabs, loc)).read_any();
+		} catch (IOException e) {
+			throw new ErlangError(e);
+		}
+	}
+
+	/**
+	 * When garbage exceeds the live data (and a few slabs), copy the live
+	 * objects to new slabs.  The old slabs are freed when collected.
+	 */
+	private void maybe_compact() {
+		long garbage = used_bytes - live_bytes;
+		if (garbage <= live_bytes || garbage <= 4L * SLAB_SIZE)
+			return;
+
+		ByteBuffer[] oslabs = slabs;
+		slabs = new ByteBuffer[4];
+		nslabs = 0;
+		slab_bytes = used_bytes = live_bytes = 0;
+
+		for (int t = 0; t < nindex; t++) {
+			long[] ls = locs[t];
+			for (int i = 0; i < ls.length; i++) {
+				long loc = ls[i];
+				if (loc != EMPTY && loc != DELETED)
+					ls[i] = append(bytes(oslabs, loc));
+			}
+		}
+	}
+}
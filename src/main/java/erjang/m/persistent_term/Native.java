@@ -0,0 +1,148 @@
+/**
+ * This file is part of Erjang - A JVM-based Erlang VM
+ *
+ * Copyright (c) 2009 by Trifork
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *  
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ **/
+
+package erjang.m.persistent_term;
+
+import java.util.Map;
+
+import com.trifork.clj_ds.IPersistentMap;
+import com.trifork.clj_ds.PersistentHashMap;
+
+import erjang.BIF;
+import erjang.EAtom;
+import erjang.EMap;
+import erjang.ENative;
+import erjang.EObject;
+import erjang.ERT;
+import erjang.ESeq;
+import erjang.ETuple;
+import erjang.m.erlang.ErlConvert;
+
+/**
+ * The <code>persistent_term</code> module: a global store of terms that
+ * are read far more often than they are written.
+ * 
+ * All terms live in one immutable map, published through a volatile field.
+ * Readers never lock, and get the stored term itself; Erjang terms are
+ * immutable, so there is nothing to copy.  Writers serialize on a lock and
+ * replace the whole map.
+ */
+public class Native extends ENative {
+
+	static final EAtom am_count = EAtom.intern("count");
+	static final EAtom am_memory = EAtom.intern("memory");
+
+	/** A snapshot of the store; <code>memory</code> is in bytes. */
+	static final class Store {
+		final IPersistentMap<EObject, Entry> terms;
+		final long memory;
+
+		Store(IPersistentMap<EObject, Entry> terms, long memory) {
+			this.terms = terms;
+			this.memory = memory;
+		}
+	}
+
+	static final class Entry {
+		final EObject value;
+		final long memory;
+
+		Entry(EObject value, long memory) {
+			this.value = value;
+			this.memory = memory;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static volatile Store store = new Store(PersistentHashMap.EMPTY, 0);
+
+	private static final Object update_lock = new Object();
+
+	/** @return the approximate size of a stored key and value, in bytes */
+	static long memory(EObject key, EObject value) {
+		try {
+			return ErlConvert.external_size(key).value
+				+ ErlConvert.external_size(value).value;
+		} catch (RuntimeException e) {
+			// not encodable (e.g. a pseudo-term); count it as a small term
+			return 64;
+		}
+	}
+
+	@BIF
+	public static EObject get(EObject key) {
+		Entry ent = store.terms.valAt(key);
+		if (ent == null)
+			throw ERT.badarg(key);
+		return ent.value;
+	}
+
+	@BIF
+	public static EObject get(EObject key, EObject dflt) {
+		Entry ent = store.terms.valAt(key);
+		return ent == null ? dflt : ent.value;
+	}
+
+	@BIF
+	public static ESeq get() {
+		ESeq res = ERT.NIL;
+		for (Map.Entry<EObject, Entry> ent : store.terms) {
+			res = res.cons(ETuple.make(ent.getKey(), ent.getValue().value));
+		}
+		return res;
+	}
+
+	@BIF
+	public static EAtom put(EObject key, EObject value) {
+		synchronized (update_lock) {
+			Store s = store;
+			Entry old = s.terms.valAt(key);
+			if (old != null && old.value.equalsExactly(value))
+				return ERT.am_ok;
+
+			Entry ent = new Entry(value, memory(key, value));
+			long mem = s.memory + ent.memory - (old == null ? 0 : old.memory);
+			store = new Store(s.terms.assoc(key, ent), mem);
+		}
+		return ERT.am_ok;
+	}
+
+	@BIF
+	public static EAtom erase(EObject key) {
+		synchronized (update_lock) {
+			Store s = store;
+			Entry old = s.terms.valAt(key);
+			if (old == null)
+				return ERT.FALSE;
+			try {
+				store = new Store(s.terms.without(key), s.memory - old.memory);
+			} catch (Exception e) {
+				throw new Error(e);
+			}
+		}
+		return ERT.TRUE;
+	}
+
+	@BIF
+	public static EMap info() {
+		Store s = store;
+		return EMap.EMPTY
+			.put(am_count, ERT.box(s.terms.count()))
+			.put(am_memory, ERT.box(s.memory));
+	}
+}
@@ -40,6 +40,11 @@ public class InetDatagramSocket extends InetSocket {
 		return true;
 	}
 
+	@Override
+	public void disconnect() throws IOException {
+		ch.disconnect();
+	}
+
 	@Override
 	public boolean finishConnect() throws IOException {
 		// should not happen
@@ -96,5 +101,15 @@ public class InetDatagramSocket extends InetSocket {
 	public int send(ByteBuffer packet, SocketAddress target) throws IOException {
 		return ch.send(packet, target);
 	}
+
+	@Override
+	public SocketAddress receive(ByteBuffer dst) throws IOException {
+		return ch.receive(dst);
+	}
+
+	@Override
+	public InetSocketAddress getRemoteAddress() {
+		return (InetSocketAddress) ch.socket().getRemoteSocketAddress();
+	}
 	
 }
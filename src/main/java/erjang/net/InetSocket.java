@@ -77,6 +77,24 @@ public abstract class InetSocket {
 						+ this.getClass().getName());
 	}
 
+	/**
+	 * Receive one datagram into <code>dst</code>.
+	 * 
+	 * @return the sender, or null if no datagram is available
+	 */
+	public SocketAddress receive(ByteBuffer dst) throws IOException {
+		throw new PosixIOException(Posix.EINVAL,
+				"receive(datagram) not supported on "
+						+ this.getClass().getName());
+	}
+
+	/** dissolve the association made by {@link #connect(InetSocketAddress)} */
+	public void disconnect() throws IOException {
+		throw new PosixIOException(Posix.EINVAL,
+				"disconnect not supported on "
+						+ this.getClass().getName());
+	}
+
 	public void close() throws IOException {
 		channel().close();
 	}
@@ -118,6 +118,11 @@ public class LazyInetSocket extends InetSocket {
 			this.bindingAddress = localAddress;
 		}
 
+		if (protocol == Protocol.UDP) {
+			// a datagram socket can receive as soon as it is bound
+			delegate = new InetDatagramSocket(this);
+		}
+
 	}
 
 	/**
@@ -143,6 +148,13 @@ public class LazyInetSocket extends InetSocket {
 		}
 	}
 
+	@Override
+	public void disconnect() throws IOException {
+		if (delegate != null) {
+			delegate.disconnect();
+		}
+	}
+
 	@Override
 	public boolean finishConnect() throws IOException {
 		if (delegate == null) {
@@ -210,6 +222,24 @@ public class LazyInetSocket extends InetSocket {
 		return delegate.send(packet, target);
 	}
 
+	@Override
+	public SocketAddress receive(ByteBuffer dst) throws IOException {
+		if (delegate == null) {
+			return null;
+		}
+
+		return delegate.receive(dst);
+	}
+
+	@Override
+	public InetSocketAddress getRemoteAddress() {
+		if (delegate == null) {
+			return null;
+		}
+
+		return delegate.getRemoteAddress();
+	}
+
 	@Override
 	public InetSocketAddress getLocalSocketAddress() {
 		if (delegate == null)
@@ -0,0 +1,53 @@
+package erjang;
+
+import junit.framework.TestCase;
+
+public class ApplySiteTest extends TestCase {
+
+	static final EAtom mod = EAtom.intern("apply_site_test");
+	static final EAtom f = EAtom.intern("f");
+	static final EAtom g = EAtom.intern("g");
+
+	/** some distinct function object to bind */
+	static EFun some_fun(String name) {
+		return EModuleManager.resolve(new FunID(EAtom.intern("apply_site_test_other"), EAtom.intern(name), 1));
+	}
+
+	public void testRelinkedOnLoad() throws Exception {
+		ApplySite site = new ApplySite(1);
+		EFun undefined = site.resolve(mod, f);
+		assertNotNull(undefined);
+		assertSame(EModuleManager.resolve(new FunID(mod, f, 1)), undefined);
+
+		// loading and reloading the module relinks the cached call site
+		FunID id = new FunID(mod, f, 1);
+		EFun v1 = some_fun("v1");
+		EModuleManager.add_export(null, id, v1);
+		assertSame(v1, site.resolve(mod, f));
+
+		EFun v2 = some_fun("v2");
+		EModuleManager.add_export(null, id, v2);
+		assertSame(v2, site.resolve(mod, f));
+		assertSame(v2, new ApplySite(1).resolve(mod, f));
+
+		// ... and so does unloading
+		EModuleManager.get_module_info(mod).get_function_info(id).unbind();
+		assertSame(undefined, site.resolve(mod, f));
+	}
+
+	public void testMiss() throws Exception {
+		ApplySite site = new ApplySite(2);
+		EFun v = some_fun("v3");
+		EModuleManager.add_export(null, new FunID(mod, g, 2), v);
+
+		assertNotSame(v, site.resolve(mod, f));
+		assertSame(v, site.resolve(mod, g));
+
+		try {
+			site.resolve(ERT.box(1), g);
+			fail();
+		} catch (ErlangError e) {
+			assertEquals(ERT.am_badarg, e.reason().testTuple().elm(1));
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package erjang;
+
+import java.math.BigInteger;
+
+import junit.framework.TestCase;
+
+public class EBigTest extends TestCase {
+
+	/** values around the int and long limits, where the fast paths overflow */
+	static final BigInteger[] VALUES;
+	static {
+		long[] seeds = { 0, 1, -1, 7, -7, 255, Integer.MAX_VALUE,
+				Integer.MIN_VALUE, 1L << 32, -(1L << 32), 1L << 62,
+				1318598400000000L, Long.MAX_VALUE, Long.MIN_VALUE };
+		BigInteger[] vs = new BigInteger[seeds.length * 3];
+		for (int i = 0; i < seeds.length; i++) {
+			BigInteger b = BigInteger.valueOf(seeds[i]);
+			vs[3 * i] = b;
+			vs[3 * i + 1] = b.add(BigInteger.ONE);
+			vs[3 * i + 2] = b.subtract(BigInteger.ONE);
+		}
+		VALUES = vs;
+	}
+
+	static void check(BigInteger expect, EObject actual) {
+		EInteger e = ERT.box(expect);
+		assertTrue("expected " + expect + ", got " + actual, e.equalsExactly(actual));
+		assertEquals(e.getClass(), actual.getClass());
+		assertEquals(expect.hashCode(), actual.hashCode());
+	}
+
+	public void testArithmetic() throws Exception {
+		for (BigInteger a : VALUES) {
+			EInteger ea = ERT.box(a);
+			for (BigInteger b : VALUES) {
+				EInteger eb = ERT.box(b);
+				check(a.add(b), ea.add(eb, false));
+				check(a.subtract(b), ea.subtract(eb, false));
+				check(a.multiply(b), ea.multiply(eb));
+				check(a.and(b), ea.band(eb));
+				check(a.or(b), ea.bor(eb));
+				check(a.xor(b), ea.bxor(eb));
+				assertEquals(a.compareTo(b), ea.erlangCompareTo(eb));
+				if (b.signum() != 0) {
+					check(a.divide(b), ea.idiv(eb));
+					check(a.remainder(b), ea.irem(eb));
+				}
+			}
+			check(a.negate(), ea.negate());
+			check(a.not(), ea.bnot());
+			check(a.add(BigInteger.ONE), ea.inc());
+			check(a.subtract(BigInteger.ONE), ea.dec());
+			for (int n = 0; n < 70; n += 3) {
+				check(a.shiftLeft(n), ea.bsl(ERT.box(n)));
+				check(a.shiftRight(n), ea.bsr(ERT.box(n)));
+			}
+		}
+	}
+
+	public void testShiftByMinInt() throws Exception {
+		EInteger min = ERT.box(Integer.MIN_VALUE);
+		for (long a : new long[] { 1L << 40, -(1L << 40) }) {
+			EInteger ea = ERT.box(a);
+			assertTrue(ea instanceof EBig);
+			check(BigInteger.valueOf(a < 0 ? -1 : 0), ea.bsl(min));
+			try {
+				ea.bsr(min);
+				fail();
+			} catch (ErlangError e) {
+				assertEquals(ERT.am_system_limit, e.reason().testTuple().elm(1));
+			}
+		}
+		check(BigInteger.ZERO, EBig.bsr(0, Integer.MIN_VALUE));
+	}
+
+	public void testDivideByZero() throws Exception {
+		try {
+			ERT.box(1L << 40).idiv(ESmall.ZERO);
+			fail();
+		} catch (ErlangError e) {
+			assertEquals(ERT.AM_BADARITH, e.reason().testTuple().elm(1));
+		}
+	}
+
+	public void testExternalFormat() throws Exception {
+		BigInteger huge = BigInteger.ONE.shiftLeft(100);
+		for (BigInteger a : VALUES) {
+			for (BigInteger v : new BigInteger[] { a, a.add(huge), a.subtract(huge) }) {
+				EObject term = ERT.box(v);
+				byte[] bytes = new EOutputStream(term).toByteArray();
+				check(v, new EInputStream(bytes).read_any());
+			}
+		}
+	}
+
+	public void testBitSyntax() throws Exception {
+		for (BigInteger a : VALUES) {
+			EBitStringBuilder bsb = new EBitStringBuilder(8, 0);
+			bsb.put_integer(ERT.box(a), 64, 0);
+			EBinMatchState bms = new EBinMatchState(bsb.bitstring(), 1);
+			check(BigInteger.valueOf(a.longValue()),
+					bms.bs_get_integer2(64, 1, EBinMatchState.BSF_SIGNED));
+		}
+	}
+}
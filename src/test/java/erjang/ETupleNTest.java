@@ -0,0 +1,52 @@
+package erjang;
+
+import junit.framework.TestCase;
+
+public class ETupleNTest extends TestCase {
+
+	static final int BIG = ETuple.MAX_FIELDS + 10;
+
+	static ETuple seq(int arity) {
+		ETuple t = ETuple.make(arity);
+		for (int i = 1; i <= arity; i++)
+			t.set(i, ERT.box(i));
+		return t;
+	}
+
+	public void testLayout() throws Exception {
+		assertFalse(ETuple.make(ETuple.MAX_FIELDS) instanceof ETupleN);
+		assertTrue(ETuple.make(ETuple.MAX_FIELDS + 1) instanceof ETupleN);
+
+		ETuple t = seq(BIG);
+		assertEquals(BIG, t.arity());
+		assertEquals(ERT.box(BIG), t.elm(BIG));
+		assertSame(t, ETupleN.cast(t, BIG));
+		assertNull(ETupleN.cast(t, BIG + 1));
+		assertNull(ETupleN.cast(ERT.box(1), BIG));
+
+		try {
+			t.elm(BIG + 1);
+			fail();
+		} catch (ErlangError e) {
+			assertEquals(ERT.am_badarg, e.reason().testTuple().elm(1));
+		}
+	}
+
+	public void testSetelementCopies() throws Exception {
+		ETuple t = seq(BIG);
+		ETuple t2 = t.setelement(3, ERT.TRUE);
+		assertEquals(ERT.box(3), t.elm(3));
+		assertEquals(ERT.TRUE, t2.elm(3));
+		assertEquals(1, t2.erlangCompareTo(t));
+		assertEquals(-1, seq(ETuple.MAX_FIELDS).erlangCompareTo(t));
+	}
+
+	public void testExternalFormat() throws Exception {
+		ETuple t = seq(BIG);
+		byte[] bytes = new EOutputStream(t).toByteArray();
+		EObject back = new EInputStream(bytes).read_any();
+		assertTrue(back instanceof ETupleN);
+		assertTrue(t.equalsExactly(back));
+		assertEquals(t.hashCode(), back.hashCode());
+	}
+}
@@ -0,0 +1,66 @@
+package erjang;
+
+import junit.framework.TestCase;
+
+public class HibernateMemoryTest extends TestCase {
+
+	static final int N = 2000;
+
+	static long used() throws InterruptedException {
+		Runtime rt = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+			Thread.sleep(50);
+		}
+		return rt.totalMemory() - rt.freeMemory();
+	}
+
+	/** make a process look like it has been busy for a while */
+	static EProc busy_proc() {
+		EProc p = ProcessTableTest.proc();
+		p.regs = new EObject[1024];
+		p.stack = new EObject[1000];
+		p.fregs();
+		p.last_exception = new ErlangError(ERT.am_badarg);
+		for (int i = 0; i < 1000; i++) {
+			p.put(ERT.box(i), ERT.TRUE);
+		}
+		for (int i = 1; i < 1000; i++) {
+			p.erase(ERT.box(i));
+		}
+		for (int i = 0; i < 200; i++) {
+			p.mbox().putb(ERT.box(i));
+		}
+		for (int i = 0; i < 198; i++) {
+			p.mbox().getnb();
+		}
+		return p;
+	}
+
+	public void testHibernateShedsMemory() throws Exception {
+		EProc[] procs = new EProc[N];
+		for (int i = 0; i < N; i++) {
+			procs[i] = busy_proc();
+		}
+
+		long before = used();
+		for (EProc p : procs) {
+			p.shed_memory();
+		}
+		long after = used();
+
+		long freed = (before - after) / N;
+		assertTrue("freed only " + freed + " bytes per process", freed > 10000);
+
+		for (EProc p : procs) {
+			assertEquals(ERT.TRUE, p.get(ERT.box(0)));
+			assertEquals(2, p.mbox().size());
+			assertEquals(ERT.box(198), p.mbox().getnb());
+			p.mbox().putb(ERT.box(200));
+			assertEquals(ERT.box(199), p.mbox().getnb());
+			assertEquals(ERT.box(200), p.mbox().getnb());
+
+			EProc.table().remove(p.number, p);
+		}
+	}
+}
@@ -0,0 +1,36 @@
+package erjang;
+
+import java.nio.charset.StandardCharsets;
+
+import erjang.m.erlang.ErlConvert;
+
+import junit.framework.TestCase;
+
+public class LiteralPoolTest extends TestCase {
+
+	static String encode(EObject term) {
+		EBinary bin = ErlConvert.term_to_binary(term, EList.make(ErlConvert.am_compressed));
+		return new String(bin.getByteArray(), StandardCharsets.ISO_8859_1);
+	}
+
+	public void testShared() throws Exception {
+		EObject term = ETuple.make(EAtom.intern("ok"), EList.make(ERT.box(1), EString.fromString("abc")));
+		// as if from the constant pools of two classes
+		String a = encode(term);
+		String b = new String(encode(term));
+
+		EObject t = LiteralPool.term(a);
+		assertTrue(term.equalsExactly(t));
+		assertSame(t, LiteralPool.term(b));
+		assertNotSame(t, LiteralPool.term(encode(ETuple.make(EAtom.intern("ok")))));
+
+		EBinary bin = LiteralPool.binary("\u0000\u00ff");
+		assertEquals(2, bin.byteSize());
+		assertEquals(0xff, bin.octetAt(1));
+		assertSame(bin, LiteralPool.binary(new String("\u0000\u00ff")));
+
+		EString str = LiteralPool.string("\u0000\u00ff");
+		assertSame(str, LiteralPool.string("\u0000\u00ff"));
+		assertNotSame(bin, str);
+	}
+}
@@ -0,0 +1,57 @@
+package erjang;
+
+import junit.framework.TestCase;
+
+public class ProcessTableTest extends TestCase {
+
+	static final EAtom am_erlang = EAtom.intern("erlang");
+	static final EAtom am_self = EAtom.intern("self");
+
+	static EProc proc() {
+		return new EProc(null, am_erlang, am_self, ERT.NIL);
+	}
+
+	public void testFind() throws Exception {
+		int count = EProc.process_count();
+		EProc p = proc();
+		EInternalPID pid = p.self_handle();
+
+		assertEquals(count + 1, EProc.process_count());
+		assertSame(pid, EProc.find(pid.id(), pid.serial()));
+		assertNull(EProc.find(pid.id(), pid.serial() + 1));
+
+		// what do_proc_termination does
+		EProc.table().remove(p.number, p);
+		assertEquals(count, EProc.process_count());
+		assertNull(EProc.find(pid.id(), pid.serial()));
+	}
+
+	public void testLimitAndReuse() throws Exception {
+		EProc a = proc(), b = proc(), c = proc();
+		ProcessTable table = new ProcessTable(3);
+
+		int na = table.add(a);
+		int nb = table.add(b);
+		table.add(c);
+		try {
+			table.add(a);
+			fail();
+		} catch (ErlangError e) {
+			assertEquals(ERT.am_system_limit, e.reason().testTuple().elm(1));
+		}
+		assertEquals(3, table.count());
+
+		table.remove(na, a);
+		assertEquals(2, table.count());
+		int n = table.add(a);
+		assertTrue(n != na && n != nb);
+
+		int seen = 0;
+		for (EProc p : table)
+			seen += 1;
+		assertEquals(3, seen);
+
+		for (EProc p : new EProc[] { a, b, c })
+			EProc.table().remove(p.number, p);
+	}
+}
@@ -0,0 +1,94 @@
+package erjang;
+
+import com.trifork.clj_ds.IPersistentMap;
+import com.trifork.clj_ds.PersistentHashMap;
+import com.trifork.clj_ds.PersistentTreeMap;
+
+import erjang.m.erlang.ErlHash;
+
+import junit.framework.TestCase;
+
+public class TermHashTest extends TestCase {
+
+	static void same(EObject a, EObject b) {
+		assertTrue(a + " =/= " + b, b.equalsExactly(a));
+		same_hash(a, b);
+	}
+
+	static void same_hash(EObject a, EObject b) {
+		assertEquals(a.hashCode(), b.hashCode());
+		assertEquals(TermHash.phash2(a), TermHash.phash2(b));
+	}
+
+	public void testListRepresentations() throws Exception {
+		EString str = EString.fromString("hello, world");
+		EObject pairs = ERT.NIL;
+		EObject bins = ERT.NIL;
+		ESeq list = ERT.NIL;
+		for (int i = str.length() - 1; i >= 0; i--) {
+			pairs = new EPair(ERT.box(str.charAt(i)), pairs);
+			bins = new EBinList((byte) str.charAt(i), bins);
+			list = new EList(ERT.box(str.charAt(i)), list);
+		}
+		same(str, pairs);
+		same(str, bins);
+		same(str, list);
+		same(str, new EPair(ERT.box('h'), str.tail()));
+
+		// mixed and improper lists
+		ETuple t = ETuple.make(ERT.box(1), str);
+		same(new EPair(t, new EPair(ERT.box(7), str)), new EList(t, new EList(ERT.box(7), str)));
+		same(new EPair(ERT.box(1), ERT.box(2)), new EBinList((byte) 1, ERT.box(2)));
+	}
+
+	public void testMapOrder() throws Exception {
+		IPersistentMap<EObject, EObject> tree = new PersistentTreeMap<EObject, EObject>(null, EObject.ERLANG_ORDERING);
+		IPersistentMap<EObject, EObject> hashed = PersistentHashMap.EMPTY;
+		for (int i = 0; i < 100; i++) {
+			tree = tree.assoc(ERT.box(i), ETuple.make(ERT.box(i)));
+			hashed = hashed.assoc(ERT.box(99 - i), ETuple.make(ERT.box(99 - i)));
+		}
+		same_hash(new EMap(tree), new EMap(hashed));
+		assertFalse(new EMap(tree).hashCode() == new EMap(tree.assoc(ERT.box(1), ERT.NIL)).hashCode());
+	}
+
+	public void testDeepTerms() throws Exception {
+		EObject deep_list = ERT.NIL;
+		EObject deep_tuple = ERT.NIL;
+		for (int i = 0; i < 200000; i++) {
+			deep_list = new EPair(deep_list, ERT.NIL);
+			deep_tuple = ETuple.make(ERT.box(i), deep_tuple);
+		}
+		deep_list.hashCode();
+		deep_tuple.hashCode();
+		TermHash.phash2(deep_list);
+		TermHash.phash2(deep_tuple);
+	}
+
+	public void testMemo() throws Exception {
+		ETuple t = ETuple.make(ETuple.MAX_FIELDS + 1);
+		for (int i = 1; i <= t.arity(); i++)
+			t.set(i, EString.fromString("element " + i));
+		int h = t.hashCode();
+		assertEquals(h, ((ETupleN) t).hash);
+		assertEquals(h, t.hashCode());
+
+		t.set(1, ERT.NIL);
+		assertFalse(h == t.hashCode());
+		assertEquals(t.hashCode(), t.clone().hashCode());
+	}
+
+	public void testPhash2() throws Exception {
+		// atoms hash to their atom table value, unmixed
+		assertEquals(97, TermHash.phash2(EAtom.intern("a")));
+
+		assertFalse(TermHash.phash2(ERT.box(1)) == TermHash.phash2(ERT.box(1.0)));
+		assertEquals(TermHash.phash2(ERT.box(0.0)), TermHash.phash2(ERT.box(-0.0)));
+		assertFalse(TermHash.phash2(ERT.box(1L << 40)) == TermHash.phash2(ERT.box(-(1L << 40))));
+
+		for (int i = 0; i < 1000; i++) {
+			ESmall h = (ESmall) ErlHash.phash2(ERT.box(i), ERT.box(10));
+			assertTrue(h.value >= 0 && h.value < 10);
+		}
+	}
+}
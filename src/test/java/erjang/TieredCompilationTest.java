@@ -0,0 +1,61 @@
+package erjang;
+
+import java.io.File;
+
+import erjang.beam.EUtil;
+import erjang.beam.interpreter.AbstractInterpreter;
+import erjang.beam.interpreter.Interpreter;
+
+import junit.framework.TestCase;
+
+public class TieredCompilationTest extends TestCase {
+
+	static final EAtom fib = EAtom.intern("fib");
+	static final EAtom fibo = EAtom.intern("fibo");
+
+	static AbstractInterpreter.Module interpret(EBinary beam) throws Exception {
+		AbstractInterpreter.Module m = (AbstractInterpreter.Module)
+				Interpreter.beamFileToEModule(EModuleLoader.beamParser.load(beam.getByteArray()));
+		TieredCompilation.interpreted("fib", beam, m);
+		return m;
+	}
+
+	static EModule await_other_than(EModule m) throws InterruptedException {
+		for (int i = 0; i < 600 && EModuleManager.get_loaded_module(fib) == m; i++) {
+			Thread.sleep(100);
+		}
+		return EModuleManager.get_loaded_module(fib);
+	}
+
+	public void testHotModuleIsPromoted() throws Exception {
+		EBinary beam = EUtil.readFile(new File("src/main/erl/fib.beam"));
+		AbstractInterpreter.Module m = interpret(beam);
+		assertSame(m, EModuleManager.get_loaded_module(fib));
+		EFun interpreted = EModuleManager.resolve(new FunID(fib, fibo, 1));
+
+		TieredCompilation.Candidate c = TieredCompilation.candidate("fib");
+		for (int i = 1; i < TieredCompilation.HOT_CALLS; i++) {
+			c.entered();
+		}
+		Thread.sleep(100);
+		assertSame(m, EModuleManager.get_loaded_module(fib));
+
+		c.entered();
+		EModule compiled = await_other_than(m);
+		assertNotSame(m, compiled);
+		assertFalse(compiled instanceof AbstractInterpreter.Module);
+		assertNotSame(interpreted, EModuleManager.resolve(new FunID(fib, fibo, 1)));
+		assertNull(TieredCompilation.candidate("fib"));
+		assertTrue(TieredCompilation.info().toString().contains("{promoted,[{fib,"));
+	}
+
+	public void testReloadCancelsPromotion() throws Exception {
+		EBinary beam = EUtil.readFile(new File("src/main/erl/fib.beam"));
+		AbstractInterpreter.Module m = interpret(beam);
+		TieredCompilation.Candidate c = TieredCompilation.candidate("fib");
+
+		TieredCompilation.loading("fib");
+		TieredCompilation.promote(c);
+		assertSame(m, EModuleManager.get_loaded_module(fib));
+	}
+}
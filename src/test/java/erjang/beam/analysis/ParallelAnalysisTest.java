@@ -0,0 +1,51 @@
+package erjang.beam.analysis;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+import erjang.beam.BeamFileData;
+import erjang.beam.ClassRepo;
+import erjang.beam.Compiler;
+import erjang.beam.EUtil;
+import erjang.beam.loader.ErjangBeamDisLoader;
+import erjang.beam.repr.ModuleRepr;
+
+import junit.framework.TestCase;
+
+public class ParallelAnalysisTest extends TestCase {
+
+	static class Classes implements ClassRepo {
+		final Map<String, byte[]> classes = new TreeMap<String, byte[]>();
+
+		public void store(String internal_name, byte[] data) {
+			classes.put(internal_name, data);
+		}
+
+		public void close() {
+		}
+	}
+
+	static Map<String, byte[]> compile(BeamFileData data, int threads) throws IOException {
+		Classes repo = new Classes();
+		Compiler.compile(data, repo, null, threads, BeamTypeAnalysis.PARALLEL_FUNCTIONS);
+		return repo.classes;
+	}
+
+	public void testSameCode() throws Exception {
+		BeamFileData data = new ErjangBeamDisLoader().load(
+				EUtil.readFile(new File("test_server/estone_SUITE.beam")).getByteArray());
+		int functions = ((ModuleRepr) data).symbolicCode().length();
+		assertTrue("functions: " + functions,
+				functions >= BeamTypeAnalysis.PARALLEL_FUNCTIONS);
+
+		Map<String, byte[]> seq = compile(data, 1);
+		Map<String, byte[]> par = compile(data, 4);
+		assertEquals(seq.keySet(), par.keySet());
+		for (String name : seq.keySet()) {
+			assertTrue(name, Arrays.equals(seq.get(name), par.get(name)));
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package erjang.beam.interpreter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import erjang.beam.BeamOpcode;
+import erjang.beam.interpreter.AbstractInterpreter.Encoder;
+import erjang.beam.repr.Insn;
+import erjang.beam.repr.Operands.Label;
+import erjang.beam.repr.Operands.XReg;
+
+import junit.framework.TestCase;
+
+public class FuseTest extends TestCase {
+
+	/** collects what the encoder would encode */
+	static class Collect extends Encoder.Fuser {
+		final List<Insn> out = new ArrayList<Insn>();
+
+		void emit(Insn insn) {
+			out.add(insn);
+		}
+	}
+
+	static XReg x(int nr) {
+		return XReg.get(nr);
+	}
+
+	static Insn move(int from, int to) {
+		return new Insn.SD(BeamOpcode.move, x(from), x(to));
+	}
+
+	static Insn get(int tuple, int i, int to) {
+		return new Insn.SID(BeamOpcode.get_tuple_element, x(tuple), i, x(to));
+	}
+
+	static Insn is_tuple(int label, int reg) {
+		return new Insn.LD(BeamOpcode.is_tuple, new Label(label), x(reg), true);
+	}
+
+	static Insn test_arity(int label, int reg, int arity) {
+		return new Insn.LDI(BeamOpcode.test_arity, new Label(label), x(reg), arity, true);
+	}
+
+	static List<Insn> run(Insn... insns) {
+		Collect c = new Collect();
+		for (Insn insn : insns)
+			c.add(insn);
+		c.flush();
+		return c.out;
+	}
+
+	public void testMoves() throws Exception {
+		List<Insn> out = run(move(0, 1), move(2, 3));
+		assertEquals(1, out.size());
+		assertEquals(BeamOpcode.i_move2, out.get(0).opcode());
+
+		// the second move reads what the first one writes
+		Insn a = move(0, 1), b = move(1, 2);
+		out = run(a, b);
+		assertEquals(2, out.size());
+		assertSame(a, out.get(0));
+		assertSame(b, out.get(1));
+	}
+
+	public void testGetTupleElements() throws Exception {
+		List<Insn> out = run(get(0, 0, 1), get(0, 1, 2));
+		assertEquals(1, out.size());
+		assertEquals(BeamOpcode.i_get_tuple_element2, out.get(0).opcode());
+
+		// the first one overwrites the tuple
+		Insn a = get(0, 0, 0), b = get(0, 1, 1);
+		out = run(a, b);
+		assertEquals(2, out.size());
+		assertSame(a, out.get(0));
+		assertSame(b, out.get(1));
+
+		// different tuples
+		assertEquals(2, run(get(0, 0, 1), get(3, 1, 2)).size());
+	}
+
+	public void testIsTupleBeforeTestArity() throws Exception {
+		Insn arity = test_arity(7, 0, 2);
+		List<Insn> out = run(is_tuple(7, 0), arity);
+		assertEquals(1, out.size());
+		assertSame(arity, out.get(0));
+
+		// another fail label, or another register: both are needed
+		Insn t = is_tuple(8, 0);
+		out = run(t, arity);
+		assertEquals(2, out.size());
+		assertSame(t, out.get(0));
+
+		t = is_tuple(7, 1);
+		out = run(t, arity);
+		assertEquals(2, out.size());
+		assertSame(t, out.get(0));
+	}
+
+	public void testNopsAndLabels() throws Exception {
+		// a line in between does not keep the moves apart
+		List<Insn> out = run(move(0, 1), new Insn.I(BeamOpcode.line, 42), move(2, 3));
+		assertEquals(1, out.size());
+		assertEquals(BeamOpcode.i_move2, out.get(0).opcode());
+
+		// a label does
+		Collect c = new Collect();
+		c.add(move(0, 1));
+		c.flush();
+		c.add(move(2, 3));
+		c.flush();
+		assertEquals(2, c.out.size());
+		assertEquals(BeamOpcode.move, c.out.get(0).opcode());
+		assertEquals(BeamOpcode.move, c.out.get(1).opcode());
+	}
+}
@@ -0,0 +1,57 @@
+package erjang.driver;
+
+import java.nio.ByteBuffer;
+
+import junit.framework.TestCase;
+
+public class IOQueueTest extends TestCase {
+
+	private static ByteBuffer buf(int n) {
+		return ByteBuffer.wrap(new byte[n]);
+	}
+
+	public void testEnqDeq() throws Exception {
+		IOQueue q = new IOQueue();
+		assertTrue(q.isEmpty());
+		assertNull(q.peekq());
+
+		ByteBuffer a = buf(3), b = buf(5);
+		q.enqv(new ByteBuffer[] { a, buf(0), b });
+		assertEquals(8, q.size());
+		assertEquals(2, q.peekq().length);
+
+		// partial consumption of the first segment
+		a.position(2);
+		assertEquals(6, q.deq(2));
+		assertEquals(2, q.peekq().length);
+
+		// consume the rest of a and part of b
+		a.position(3);
+		b.position(4);
+		assertEquals(1, q.deq(5));
+		assertEquals(1, q.peekq().length);
+		assertSame(b, q.peekq()[0]);
+	}
+
+	public void testPushq() throws Exception {
+		IOQueue q = new IOQueue();
+		ByteBuffer body = buf(10), hdr = buf(4);
+		q.enq(body);
+		q.pushq(hdr);
+		assertEquals(14, q.size());
+		assertSame(hdr, q.peekq()[0]);
+		assertSame(body, q.peekq()[1]);
+	}
+
+	public void testGrowAndClear() throws Exception {
+		IOQueue q = new IOQueue();
+		for (int i = 0; i < 100; i++) {
+			q.enq(buf(1));
+		}
+		assertEquals(100, q.size());
+		assertEquals(100, q.peekq().length);
+		q.clear();
+		assertTrue(q.isEmpty());
+		assertNull(q.peekq());
+	}
+}
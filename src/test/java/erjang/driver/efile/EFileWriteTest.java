@@ -0,0 +1,111 @@
+package erjang.driver.efile;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+import kilim.Pausable;
+import kilim.Task;
+
+import erjang.ERT;
+import erjang.EString;
+import erjang.RuntimeInfo;
+import erjang.driver.EAsync;
+
+import junit.framework.TestCase;
+
+public class EFileWriteTest extends TestCase {
+
+	/** an efile port without a port task; async jobs run when the test says so */
+	static class TestFile extends EFile {
+		final List<EAsync> done = new ArrayList<EAsync>();
+		int replies;
+
+		TestFile() {
+			super(EString.fromString("efile"), null);
+		}
+
+		@Override
+		public void driver_output2(ByteBuffer header, ByteBuffer buf) throws Pausable {
+			replies += 1;
+		}
+
+		@Override
+		protected void driver_set_timer(long howlong) {
+		}
+
+		@Override
+		protected void driver_cancel_timer() {
+		}
+
+		@Override
+		protected void driver_async(EAsync job) {
+			job.async();
+			done.add(job);
+		}
+
+		void command(ByteBuffer... ev) throws Pausable {
+			outputv(null, ev);
+			while (!done.isEmpty()) {
+				readyAsync(done.remove(0));
+			}
+		}
+
+		int queued() {
+			return driver_sizeq();
+		}
+	}
+
+	static ByteBuffer cmd(int command, int size) {
+		ByteBuffer b = ByteBuffer.allocate(1 + size);
+		b.put((byte) command);
+		return b;
+	}
+
+	public void testWrittenBuffersAreDequeued() throws Exception {
+		if (ERT.runtime_info == null) {
+			ERT.runtime_info = new RuntimeInfo("0", "0", "/", "/");
+		}
+		final File file = File.createTempFile("efile", ".txt");
+		file.deleteOnExit();
+		final TestFile efile = new TestFile();
+		final int[] queued = new int[5];
+		final Throwable[] failure = new Throwable[1];
+		final Semaphore finished = new Semaphore(0);
+
+		ERT.run(new Task() {
+			@Override
+			public void execute() throws Pausable {
+				try {
+					byte[] name = file.getPath().getBytes("UTF-8");
+					ByteBuffer open = cmd(EFile.FILE_OPEN, 4 + name.length + 1);
+					open.putInt(EFile.EFILE_MODE_WRITE).put(name).put((byte) 0).flip();
+					efile.command(open);
+
+					for (int i = 0; i < queued.length; i++) {
+						ByteBuffer write = (ByteBuffer) cmd(EFile.FILE_WRITE, 0).flip();
+						efile.command(write, ByteBuffer.wrap(("line " + i + "\n").getBytes()));
+						queued[i] = efile.queued();
+					}
+
+					efile.command((ByteBuffer) cmd(EFile.FILE_CLOSE, 0).flip());
+				} catch (Throwable t) {
+					failure[0] = t;
+				}
+				finished.release();
+			}
+		});
+		finished.acquire();
+
+		if (failure[0] != null) {
+			throw new RuntimeException(failure[0]);
+		}
+		for (int i = 0; i < queued.length; i++) {
+			assertEquals("queued after write " + i, 0, queued[i]);
+		}
+		assertEquals(7 * queued.length, file.length());
+		assertEquals(2 + queued.length, efile.replies);
+	}
+}
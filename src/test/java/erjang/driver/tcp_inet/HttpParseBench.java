@@ -0,0 +1,102 @@
+package erjang.driver.tcp_inet;
+
+import erjang.EObject;
+import erjang.net.Protocol;
+
+/**
+ * Micro benchmark of the {packet, http_bin} parser over a small corpus of
+ * recorded requests. Run with
+ * <pre>java -cp ... erjang.driver.tcp_inet.HttpParseBench [iterations]</pre>
+ */
+public class HttpParseBench {
+
+	static final String[] CORPUS = {
+		"GET / HTTP/1.1\r\n"
+		+ "Host: www.example.com\r\n"
+		+ "User-Agent: Mozilla/5.0 (X11; Linux x86_64; rv:2.0) Gecko/20100101 Firefox/4.0\r\n"
+		+ "Accept: text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8\r\n"
+		+ "Accept-Language: en-us,en;q=0.5\r\n"
+		+ "Accept-Encoding: gzip, deflate\r\n"
+		+ "Accept-Charset: ISO-8859-1,utf-8;q=0.7,*;q=0.7\r\n"
+		+ "Keep-Alive: 115\r\n"
+		+ "Connection: keep-alive\r\n"
+		+ "Cookie: session=3f1b2c9a8e7d; theme=dark\r\n"
+		+ "\r\n",
+
+		"POST /api/v1/events?batch=true HTTP/1.1\r\n"
+		+ "Host: api.example.com\r\n"
+		+ "Content-Type: application/json\r\n"
+		+ "Content-Length: 348\r\n"
+		+ "Authorization: Bearer 6b9c1e0f2a\r\n"
+		+ "X-Request-Id: 0f8fad5b-d9cb-469f-a165-70867728950e\r\n"
+		+ "X-Forwarded-For: 10.0.0.17\r\n"
+		+ "\r\n",
+
+		"GET /static/js/app.min.js HTTP/1.1\r\n"
+		+ "host: cdn.example.com\r\n"
+		+ "user-agent: curl/7.21.0\r\n"
+		+ "accept: */*\r\n"
+		+ "if-none-match: \"5d8c72a5edda8\"\r\n"
+		+ "if-modified-since: Tue, 15 Nov 2010 12:45:26 GMT\r\n"
+		+ "\r\n",
+
+		"GET http://proxy.example.com:8080/index.html HTTP/1.0\r\n"
+		+ "Proxy-Connection: keep-alive\r\n"
+		+ "Via: 1.1 squid\r\n"
+		+ "\r\n",
+	};
+
+	public static void main(String[] args) {
+		int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+
+		TCPINet desc = new TCPINet(Protocol.TCP, new Driver());
+		desc.htype = PacketParseType.TCP_PB_HTTP_BIN;
+		TCPINetCallbacks callbacks = new TCPINetCallbacks();
+
+		byte[][] requests = new byte[CORPUS.length][];
+		int lines = 0;
+		for (int i = 0; i < CORPUS.length; i++) {
+			requests[i] = CORPUS[i].getBytes();
+			for (byte b : requests[i])
+				if (b == '\n')
+					lines += 1;
+		}
+
+		run(desc, callbacks, requests, iterations / 10); // warm up
+		long t0 = System.nanoTime();
+		int packets = run(desc, callbacks, requests, iterations);
+		long t1 = System.nanoTime();
+
+		double secs = (t1 - t0) / 1e9;
+		System.out.println("http_bin: " + iterations * CORPUS.length
+				+ " requests, " + packets + " packets in " + secs + "s");
+		System.out.println("  " + (long) (iterations * CORPUS.length / secs)
+				+ " requests/s, " + (long) (iterations * (long) lines / secs)
+				+ " lines/s");
+
+		System.exit(0); /* don't wait for the runtime's threads */
+	}
+
+	private static int run(TCPINet desc, TCPINetCallbacks callbacks,
+			byte[][] requests, int iterations) {
+		IntCell state = new IntCell();
+		int packets = 0;
+		for (int i = 0; i < iterations; i++) {
+			for (byte[] req : requests) {
+				int start = 0;
+				while (start < req.length) {
+					int end = start;
+					while (req[end] != '\n')
+						end++;
+					EObject packet = Packet.parse_http(req, start, end + 1
+							- start, state, callbacks, desc);
+					if (packet == null)
+						throw new IllegalStateException("parse error");
+					packets += 1;
+					start = end + 1;
+				}
+			}
+		}
+		return packets;
+	}
+}
@@ -0,0 +1,72 @@
+package erjang.driver.tcp_inet;
+
+import junit.framework.TestCase;
+import erjang.EAtom;
+import erjang.EBinary;
+import erjang.EObject;
+import erjang.ERT;
+import erjang.ETuple;
+import erjang.ETuple2;
+import erjang.net.Protocol;
+
+public class PacketHttpTest extends TestCase {
+
+	private TCPINet desc;
+	private IntCell state;
+	private TCPINetCallbacks callbacks = new TCPINetCallbacks();
+
+	@Override
+	protected void setUp() throws Exception {
+		desc = new TCPINet(Protocol.TCP, new Driver());
+		desc.htype = PacketParseType.TCP_PB_HTTP_BIN;
+		state = new IntCell();
+	}
+
+	/** parse a line placed at an offset into a larger buffer */
+	private EObject parse(String line) {
+		byte[] data = ("junk" + line + "junk").getBytes();
+		return Packet.parse_http(data, 4, line.length(), state, callbacks, desc);
+	}
+
+	private static EBinary bin(String s) {
+		return EBinary.make(s.getBytes());
+	}
+
+	private static EAtom atom(String s) {
+		return EAtom.intern(s);
+	}
+
+	public void testRequestLine() {
+		EObject req = parse("GET /a?b=1 HTTP/1.1\r\n");
+		assertEquals(ETuple.make(atom("http_request"), atom("GET"),
+				new ETuple2(atom("abs_path"), bin("/a?b=1")),
+				new ETuple2(ERT.box(1), ERT.box(1))), req);
+		assertEquals(~0, state.get());
+	}
+
+	public void testUriString() {
+		EObject req = parse("OPTIONS foo HTTP/1.0\r\n");
+		assertEquals(bin("foo"), ((ETuple) req).elm(3));
+	}
+
+	public void testHeaders() {
+		state.set(~0);
+		assertEquals(ETuple.make(atom("http_header"), ERT.box(38),
+				atom("Content-Length"), ERT.am_undefined, bin("42")),
+				parse("content-LENGTH:  42\r\n"));
+		assertEquals(ETuple.make(atom("http_header"), ERT.box(0),
+				bin("X-Request-Id"), ERT.am_undefined, bin("abc")),
+				parse("x-request-ID: abc\r\n"));
+		assertEquals(ETuple.make(atom("http_header"), ERT.box(0),
+				bin("X-Forwarded-Proto"), ERT.am_undefined, bin("https")),
+				parse("X-Forwarded-Proto: https\r\n"));
+		assertEquals(atom("http_eoh"), parse("\r\n"));
+		assertEquals(0, state.get());
+	}
+
+	public void testMalformed() {
+		assertNull(parse("GET\r\n"));
+		state.set(~0);
+		assertNull(parse("NoColon\r\n"));
+	}
+}
@@ -0,0 +1,149 @@
+package erjang.m.counters;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import erjang.EAtom;
+import erjang.EObject;
+import erjang.EProc;
+import erjang.ERT;
+import erjang.ETuple;
+import erjang.ErlangError;
+
+import junit.framework.TestCase;
+
+public class CountersTest extends TestCase {
+
+	static final EObject one = ERT.box(1);
+
+	public void testStripedAdd() throws Exception {
+		final EObject ref = Native.new$(ERT.box(3),
+				ERT.NIL.cons(Native.am_write_concurrency));
+		Thread[] threads = new Thread[8];
+		for (int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread() {
+				public void run() {
+					for (int i = 0; i < 10000; i++) {
+						Native.add(ref, one, one);
+						Native.sub(ref, ERT.box(3), one);
+					}
+				}
+			};
+			threads[t].start();
+		}
+		for (Thread t : threads)
+			t.join();
+
+		assertEquals(ERT.box(80000), Native.get(ref, one));
+		assertEquals(ERT.box(0), Native.get(ref, ERT.box(2)));
+		assertEquals(ERT.box(-80000), Native.get(ref, ERT.box(3)));
+
+		Native.put(ref, one, ERT.box(5));
+		assertEquals(ERT.box(5), Native.get(ref, one));
+	}
+
+	public void testWrapAndBadarg() throws Exception {
+		EObject ref = Native.new$(one, ERT.NIL);
+		Native.put(ref, one, ERT.box(Long.MAX_VALUE));
+		Native.add(ref, one, one);
+		assertEquals(ERT.box(Long.MIN_VALUE), Native.get(ref, one));
+
+		try {
+			Native.get(ref, ERT.box(2));
+			fail();
+		} catch (ErlangError e) {
+			// expected
+		}
+		try {
+			Native.add(ref, one, ERT.box(1.0));
+			fail();
+		} catch (ErlangError e) {
+			// expected
+		}
+	}
+
+	public void testUnsignedAtomics() throws Exception {
+		EObject ref = erjang.m.atomics.Native.new$(ERT.box(2),
+				ERT.NIL.cons(ETuple.make(EAtom.intern("signed"), ERT.FALSE)));
+		EObject max = ERT.box(BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE));
+
+		erjang.m.atomics.Native.put(ref, one, max);
+		assertEquals(max, erjang.m.atomics.Native.get(ref, one));
+		assertEquals(ERT.box(0), erjang.m.atomics.Native.add_get(ref, one, one));
+
+		assertEquals(ERT.am_ok, erjang.m.atomics.Native.compare_exchange(ref, ERT.box(2), ERT.box(0), one));
+		assertEquals(one, erjang.m.atomics.Native.compare_exchange(ref, ERT.box(2), ERT.box(0), one));
+	}
+
+	public void testNegativeOnUnsigned() throws Exception {
+		EObject ref = erjang.m.atomics.Native.new$(one,
+				ERT.NIL.cons(ETuple.make(EAtom.intern("signed"), ERT.FALSE)));
+		EObject minus_one = ERT.box(-1);
+
+		try {
+			erjang.m.atomics.Native.put(ref, one, minus_one);
+			fail();
+		} catch (ErlangError e) {
+			// expected
+		}
+		try {
+			erjang.m.atomics.Native.exchange(ref, one, minus_one);
+			fail();
+		} catch (ErlangError e) {
+			// expected
+		}
+		try {
+			erjang.m.atomics.Native.compare_exchange(ref, one, ERT.box(0), minus_one);
+			fail();
+		} catch (ErlangError e) {
+			// expected
+		}
+		try {
+			erjang.m.atomics.Native.compare_exchange(ref, one, minus_one, one);
+			fail();
+		} catch (ErlangError e) {
+			// expected
+		}
+		assertEquals(ERT.box(0), erjang.m.atomics.Native.get(ref, one));
+	}
+
+	public void testRefsAreTerms() throws Exception {
+		EObject c1 = Native.new$(one, ERT.NIL);
+		EObject c2 = Native.new$(one, ERT.NIL);
+		EObject a = erjang.m.atomics.Native.new$(one, ERT.NIL);
+		EObject r = ERT.make_ref();
+
+		assertNotNull(c1.testReference());
+		assertNotNull(a.testReference());
+		assertNull(c1.testBinary());
+		assertNull(a.testBinary());
+
+		assertTrue(c1.erlangEquals(c1));
+		assertFalse(c1.erlangEquals(c2));
+		assertFalse(a.erlangEquals(r));
+		assertTrue(ERT.box(1).erlangCompareTo(c1) < 0);
+		assertTrue(c1.erlangCompareTo(ERT.NIL) < 0);
+
+		// ordered among themselves, and among other refs
+		EObject[] refs = { a, c2, r, c1 };
+		Arrays.sort(refs, EObject.ERLANG_ORDERING);
+		for (int i = 1; i < refs.length; i++) {
+			assertTrue(refs[i - 1].erlangCompareTo(refs[i]) < 0);
+			assertTrue(refs[i].erlangCompareTo(refs[i - 1]) > 0);
+		}
+
+		EProc proc = new EProc(null, EAtom.intern("erlang"), EAtom.intern("self"), ERT.NIL);
+		for (EAtom type : new EAtom[] { erjang.m.ets.Native.am_set,
+				erjang.m.ets.Native.am_ordered_set }) {
+			EObject tab = erjang.m.ets.Native.new$(proc, EAtom.intern("refs"),
+					ERT.NIL.cons(type));
+			for (int i = 0; i < refs.length; i++) {
+				erjang.m.ets.Native.insert(proc, tab, ETuple.make(refs[i], ERT.box(i)));
+			}
+			for (int i = 0; i < refs.length; i++) {
+				assertEquals(ERT.NIL.cons(ETuple.make(refs[i], ERT.box(i))),
+						erjang.m.ets.Native.lookup(proc, tab, refs[i]));
+			}
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package erjang.m.ets;
+
+import com.trifork.clj_ds.IMapEntry;
+import com.trifork.clj_ds.ISeq;
+import com.trifork.clj_ds.PersistentTreeMap;
+
+import erjang.EAtom;
+import erjang.EObject;
+import erjang.ERT;
+import erjang.ESeq;
+import erjang.ETuple;
+
+import junit.framework.TestCase;
+
+public class EKeyPrefixTest extends TestCase {
+
+	static final EAtom a = EAtom.intern("a");
+	static final EAtom b = EAtom.intern("b");
+	static final EAtom c = EAtom.intern("c");
+	static final EAtom am_underscore = EAtom.intern("_");
+	static final EAtom $1 = EAtom.intern("$1");
+
+	/** {{Tenant, N}, N} for three tenants, plus a few keys of other shapes */
+	@SuppressWarnings("unchecked")
+	static PersistentTreeMap<EObject,Object> table() {
+		PersistentTreeMap<EObject,Object> map = new PersistentTreeMap<EObject,Object>(null, EObject.ERLANG_ORDERING);
+		for (EAtom tenant : new EAtom[] { a, b, c }) {
+			for (int n = 0; n < 100; n++) {
+				ETuple key = ETuple.make(tenant, ERT.box(n));
+				map = (PersistentTreeMap<EObject,Object>) map.assoc(key, ETuple.make(key, ERT.box(n)));
+			}
+		}
+		for (EObject key : new EObject[] { b, ETuple.make(b), ETuple.make(b, ERT.box(1), ERT.box(2)) }) {
+			map = (PersistentTreeMap<EObject,Object>) map.assoc(key, ETuple.make(key, ERT.box(0)));
+		}
+		return map;
+	}
+
+	@SuppressWarnings("rawtypes")
+	static int count(EKeyPrefix prefix, PersistentTreeMap<EObject,Object> map) {
+		int n = 0;
+		for (ISeq seq = prefix.seq(map); prefix.at(seq); seq = seq.next()) {
+			ETuple key = (ETuple) ((IMapEntry) seq.first()).getKey();
+			assertEquals(b, key.elm(1));
+			n += 1;
+		}
+		return n;
+	}
+
+	public void testMatchSpecPrefix() throws Exception {
+		// [{{{b,'$1'},'_'},[],['$1']}]
+		ESeq spec = ERT.NIL.cons(ETuple.make(ETuple.make(ETuple.make(b, $1), am_underscore), ERT.NIL, ERT.NIL.cons($1)));
+		EMatchSpec ms = EMatchSpec.compile(spec);
+
+		assertNull(ms.getTupleKey(1));
+		EKeyPrefix prefix = ms.getTupleKeyPrefix(1);
+		assertNotNull(prefix);
+		assertEquals(100, count(prefix, table()));
+	}
+
+	public void testPatternPrefix() throws Exception {
+		EPattern pattern = new EPattern(1, ETuple.make(ETuple.make(b, am_underscore), am_underscore));
+
+		assertNull(pattern.getKey(1));
+		EKeyPrefix prefix = pattern.getKeyPrefix(1);
+		assertNotNull(prefix);
+		assertEquals(100, count(prefix, table()));
+	}
+
+	public void testUnboundPrefix() throws Exception {
+		ESeq spec = ERT.NIL.cons(ETuple.make(ETuple.make(ETuple.make($1, ERT.box(1)), am_underscore), ERT.NIL, ERT.NIL.cons($1)));
+		assertNull(EMatchSpec.compile(spec).getTupleKeyPrefix(1));
+	}
+
+	public void testComparesEqual() throws Exception {
+		EKeyPrefix prefix = EKeyPrefix.make(new EObject[] { ERT.box(1.0) }, 2);
+		assertTrue(prefix.contains(ETuple.make(ERT.box(1), a)));
+		assertFalse(prefix.contains(ETuple.make(ERT.box(2), a)));
+		assertFalse(prefix.contains(ETuple.make(ERT.box(1))));
+	}
+}
@@ -0,0 +1,70 @@
+package erjang.m.ets;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import com.trifork.clj_ds.IMapEntry;
+import com.trifork.clj_ds.IPersistentMap;
+
+import erjang.EObject;
+import erjang.ERT;
+
+import junit.framework.TestCase;
+
+public class EPersistentInsertionOrderedMapTest extends TestCase {
+
+	@SuppressWarnings("unchecked")
+	static EPersistentInsertionOrderedMap<EObject,Object> fill(int n) {
+		IPersistentMap<EObject,Object> map = EPersistentInsertionOrderedMap.EMPTY;
+		for (int i = 0; i < n; i++) {
+			map = map.assoc(ERT.box(i), ERT.box(i));
+		}
+		return (EPersistentInsertionOrderedMap<EObject,Object>) map;
+	}
+
+	@SuppressWarnings("unchecked")
+	static EObject first(EPersistentInsertionOrderedMap<EObject,Object> map) {
+		return ((IMapEntry<EObject,Object>) map.seq().first()).getKey();
+	}
+
+	static EObject next(EPersistentInsertionOrderedMap<EObject,Object> map, long pos) {
+		IMapEntry<EObject,Object> ent = map.entryAfter(pos);
+		return ent == null ? null : ent.getKey();
+	}
+
+	public void testTraversal() throws Exception {
+		int n = 200000;
+		EPersistentInsertionOrderedMap<EObject,Object> map = fill(n);
+
+		Set<EObject> seen = new HashSet<EObject>();
+		for (EObject key = first(map); key != null; key = next(map, map.position(key))) {
+			assertTrue(seen.add(key));
+		}
+		assertEquals(n, seen.size());
+	}
+
+	@SuppressWarnings("unchecked")
+	public void testUpdateKeepsPosition() throws Exception {
+		EPersistentInsertionOrderedMap<EObject,Object> map = fill(10);
+		Long pos = map.position(ERT.box(3));
+
+		map = (EPersistentInsertionOrderedMap<EObject,Object>) map.assoc(ERT.box(3), ERT.TRUE);
+		assertEquals(pos, map.position(ERT.box(3)));
+		assertEquals(ERT.TRUE, map.valAt(ERT.box(3)));
+		assertEquals(ERT.box(4), next(map, pos));
+	}
+
+	@SuppressWarnings("unchecked")
+	public void testNextAfterDelete() throws Exception {
+		EPersistentInsertionOrderedMap<EObject,Object> map = fill(10);
+		long pos = map.position(ERT.box(5));
+
+		map = (EPersistentInsertionOrderedMap<EObject,Object>) map.without(ERT.box(5));
+		assertNull(map.position(ERT.box(5)));
+		assertEquals(ERT.box(6), next(map, pos));
+
+		map = (EPersistentInsertionOrderedMap<EObject,Object>) map.without(ERT.box(6));
+		assertEquals(ERT.box(7), next(map, pos));
+		assertNull(next(map, map.position(ERT.box(9))));
+	}
+}
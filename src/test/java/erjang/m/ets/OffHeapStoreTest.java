@@ -0,0 +1,126 @@
+package erjang.m.ets;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import erjang.EBinary;
+import erjang.EObject;
+import erjang.ERT;
+import erjang.ESmall;
+import erjang.EString;
+import erjang.ETuple;
+
+import junit.framework.TestCase;
+
+public class OffHeapStoreTest extends TestCase {
+
+	static ETuple row(int key, EObject val) {
+		return ETuple.make(ERT.box(key), val);
+	}
+
+	public void testPutGetRemove() throws Exception {
+		OffHeapStore store = new OffHeapStore(1);
+		int n = 10000;
+		for (int i = 0; i < n; i++) {
+			assertFalse(store.put(row(i, EString.fromString("value " + i)), false));
+		}
+		assertEquals(n, store.size());
+
+		for (int i = 0; i < n; i++) {
+			assertEquals(row(i, EString.fromString("value " + i)), store.get(ERT.box(i)));
+		}
+		assertNull(store.get(ERT.box(n)));
+		assertNull(store.get(ERT.box(1.0)));
+
+		assertTrue(store.put(row(7, ERT.TRUE), true));
+		assertEquals(row(7, EString.fromString("value 7")), store.get(ERT.box(7)));
+		assertTrue(store.put(row(7, ERT.TRUE), false));
+		assertEquals(row(7, ERT.TRUE), store.get(ERT.box(7)));
+
+		for (int i = 0; i < n; i += 2) {
+			assertTrue(store.remove(ERT.box(i)));
+		}
+		assertFalse(store.remove(ERT.box(0)));
+		assertEquals(n / 2, store.size());
+		for (int i = 0; i < n; i++) {
+			assertEquals(i % 2 == 1, store.get(ERT.box(i)) != null);
+		}
+	}
+
+	public void testTraversalIsStable() throws Exception {
+		OffHeapStore store = new OffHeapStore(1);
+		for (int i = 0; i < 1000; i++) {
+			store.put(row(i, ERT.box(i)), false);
+		}
+
+		// replace and delete while traversing; every key is seen once
+		Set<EObject> seen = new HashSet<EObject>();
+		for (int s = store.next_slot(0); s >= 0; s = store.next_slot(s + 1)) {
+			ETuple rec = store.at(s);
+			assertTrue(seen.add(rec.elm(1)));
+			store.put(row(((erjang.ESmall) rec.elm(1)).value, ERT.TRUE), false);
+			store.remove_slot(s);
+		}
+		assertEquals(1000, seen.size());
+		assertEquals(0, store.size());
+	}
+
+	public void testFixedTraversal() throws Exception {
+		OffHeapStore store = new OffHeapStore(1);
+		int n = 1000;
+		// scattered keys, so that a rehash would reorder them
+		Set<EObject> old = new HashSet<EObject>();
+		for (int i = 0; i < n; i++) {
+			old.add(ERT.box(i * 0x9E3779B1));
+			store.put(row(i * 0x9E3779B1, ERT.box(i)), false);
+		}
+
+		// delete every other key visited, and insert a new one each step
+		// and ten more every tenth; the index collects tombstones, and
+		// has to grow
+		store.set_fixed(true);
+		Set<EObject> seen = new HashSet<EObject>();
+		int fresh = n;
+		for (int s = store.next_slot(0); s >= 0; s = store.next_slot(s + 1)) {
+			ETuple rec = store.at(s);
+			if (!old.contains(rec.elm(1)))
+				continue;
+			assertTrue("visited twice: " + rec.elm(1), seen.add(rec.elm(1)));
+			int i = ((ESmall) rec.elm(2)).value;
+			if (i % 2 == 0)
+				store.remove_slot(s);
+			int j = (i % 10 == 0) ? 11 : 1;
+			for (; j > 0; j--) {
+				store.put(row(fresh++ * 0x9E3779B1, ERT.TRUE), false);
+			}
+		}
+		assertEquals(n, seen.size());
+		assertEquals(fresh - n / 2, store.size());
+
+		store.set_fixed(false);
+		assertEquals(fresh - n / 2, store.size());
+		for (int i = 0; i < fresh; i++) {
+			assertEquals(i >= n || i % 2 == 1,
+					store.get(ERT.box(i * 0x9E3779B1)) != null);
+		}
+	}
+
+	public void testCompaction() throws Exception {
+		OffHeapStore store = new OffHeapStore(1);
+		EBinary big = new EBinary(new byte[1000]);
+		for (int round = 0; round < 50; round++) {
+			for (int i = 0; i < 1000; i++) {
+				store.put(row(i, ETuple.make(ERT.box(round), big)), false);
+			}
+		}
+		// 50MB were written, but only 1MB is live
+		assertTrue(store.memory() < 16 * OffHeapStore.SLAB_SIZE);
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(row(i, ETuple.make(ERT.box(49), big)), store.get(ERT.box(i)));
+		}
+
+		store.clear();
+		assertEquals(0, store.size());
+		assertEquals(-1, store.next_slot(0));
+	}
+}
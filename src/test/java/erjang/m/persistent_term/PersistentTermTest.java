@@ -0,0 +1,53 @@
+package erjang.m.persistent_term;
+
+import erjang.EAtom;
+import erjang.EObject;
+import erjang.ERT;
+import erjang.ESmall;
+import erjang.EString;
+import erjang.ETuple;
+import erjang.ErlangError;
+
+import junit.framework.TestCase;
+
+public class PersistentTermTest extends TestCase {
+
+	static final EObject key = ETuple.make(EAtom.intern("persistent_term_test"), ERT.box(1));
+
+	static long count() {
+		return ((ESmall) Native.info().get(Native.am_count)).value;
+	}
+
+	static long memory() {
+		return ((ESmall) Native.info().get(Native.am_memory)).value;
+	}
+
+	public void testPutGetErase() throws Exception {
+		long count = count(), memory = memory();
+		EObject value = EString.fromString("routing table");
+
+		assertEquals(ERT.FALSE, Native.erase(key));
+		assertEquals(ERT.am_ok, Native.put(key, value));
+		assertSame(value, Native.get(key));
+		assertSame(value, Native.get(key, ERT.NIL));
+		assertEquals(count + 1, count());
+		assertTrue(memory() > memory);
+
+		// an equal value leaves the stored one in place
+		Native.put(key, EString.fromString("routing table"));
+		assertSame(value, Native.get(key));
+
+		// keys compare exactly
+		assertEquals(ERT.NIL, Native.get(ETuple.make(EAtom.intern("persistent_term_test"), ERT.box(1.0)), ERT.NIL));
+
+		assertEquals(ERT.TRUE, Native.erase(key));
+		assertEquals(count, count());
+		assertEquals(memory, memory());
+		try {
+			Native.get(key);
+			fail();
+		} catch (ErlangError e) {
+			// expected
+		}
+	}
+}
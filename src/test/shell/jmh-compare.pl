@@ -0,0 +1,56 @@
+#!/usr/bin/perl
+#
+# Compare two JMH result files, as written by "ant jmh":
+#
+#   jmh-compare.pl test-outputs/jmh/<base>.json test-outputs/jmh/<new>.json
+#
+# Prints one line per benchmark (and parameter set) found in both, with
+# the scores and the relative change of the new run.  Benchmarks whose
+# score moved by more than the error bounds of the two runs are marked.
+
+use strict;
+use warnings;
+use JSON::PP;
+
+die "usage: $0 base.json new.json\n" unless @ARGV == 2;
+
+sub load {
+    my ($file) = @_;
+    open(my $fh, '<', $file) or die "cannot read $file: $!\n";
+    local $/;
+    my $results = decode_json(<$fh>);
+    close($fh);
+
+    my %scores;
+    for my $r (@$results) {
+        my $params = $r->{params} || {};
+        my $name = $r->{benchmark};
+        $name =~ s/^erjang\.bench\.//;
+        $name .= "(" . join(",", map { "$_=$params->{$_}" } sort keys %$params) . ")"
+            if %$params;
+        my $m = $r->{primaryMetric};
+        my $err = $m->{scoreError};
+        $err = 0 if $err eq "NaN";
+        $scores{$name} = [$m->{score}, $err, $m->{scoreUnit}];
+    }
+    return \%scores;
+}
+
+my $base = load($ARGV[0]);
+my $new = load($ARGV[1]);
+
+printf("%-60s %14s %14s %8s\n", "Benchmark", "base", "new", "change");
+for my $name (sort keys %$base) {
+    next unless exists $new->{$name};
+    my ($b, $berr, $unit) = @{$base->{$name}};
+    my ($n, $nerr) = @{$new->{$name}};
+    my $change = $b == 0 ? 0 : 100 * ($n - $b) / $b;
+    my $mark = abs($n - $b) > $berr + $nerr ? " *" : "";
+    printf("%-60s %14.3f %14.3f %+7.1f%%%s  %s\n", $name, $b, $n, $change, $mark, $unit);
+}
+for my $name (sort keys %$new) {
+    print "$name: only in $ARGV[1]\n" unless exists $base->{$name};
+}
+for my $name (sort keys %$base) {
+    print "$name: only in $ARGV[0]\n" unless exists $new->{$name};
+}
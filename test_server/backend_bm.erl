@@ -0,0 +1,73 @@
+-module(backend_bm).
+-export([benchmarks/0]).
+-export([ping_pong/1,ring/1,fib_procs/1]).
+
+%% Message passing and CPU-bound work spread over many processes, for
+%% comparing scheduler backends.  Run the suite once for each of
+%% -Derjang.beam.option.backend=kilim|forkjoin|virtual.
+
+-define(PROCS, 64).
+
+benchmarks() ->
+    {20,[ping_pong,ring,fib_procs]}.
+
+%% ?PROCS pairs of processes bouncing a message Iter*100 times each.
+ping_pong(Iter) ->
+    Self = self(),
+    Rounds = Iter * 100,
+    lists:foreach(fun(_) ->
+			  Pong = spawn(fun() -> pong() end),
+			  spawn(fun() -> ping(Rounds, Pong), Self ! done end)
+		  end, lists:seq(1, ?PROCS)),
+    wait(?PROCS).
+
+ping(0, Pong) ->
+    Pong ! stop;
+ping(N, Pong) ->
+    Pong ! {self(), N},
+    receive N -> ping(N-1, Pong) end.
+
+pong() ->
+    receive
+	{From, N} -> From ! N, pong();
+	stop -> ok
+    end.
+
+%% A token passed Iter*100 times around a ring of ?PROCS*10 processes.
+ring(Iter) ->
+    Self = self(),
+    First = lists:foldl(fun(_, Next) -> spawn(fun() -> relay(Next) end) end,
+			Self, lists:seq(1, ?PROCS * 10)),
+    First ! {token, Iter * 100},
+    ring_loop(First).
+
+ring_loop(First) ->
+    receive
+	{token, 0} -> First ! stop, receive stop -> ok end;
+	{token, N} -> First ! {token, N-1}, ring_loop(First)
+    end.
+
+relay(Next) ->
+    receive
+	stop -> Next ! stop;
+	Msg -> Next ! Msg, relay(Next)
+    end.
+
+%% ?PROCS processes each computing fib(20) Iter times.
+fib_procs(Iter) ->
+    Self = self(),
+    lists:foreach(fun(_) ->
+			  spawn(fun() -> fib_n(Iter), Self ! done end)
+		  end, lists:seq(1, ?PROCS)),
+    wait(?PROCS).
+
+fib_n(0) -> ok;
+fib_n(N) -> fib(20), fib_n(N-1).
+
+fib(N) when N < 2 -> N;
+fib(N) -> fib(N-1) + fib(N-2).
+
+wait(0) ->
+    ok;
+wait(N) ->
+    receive done -> wait(N-1) end.
@@ -34,4 +34,6 @@ main() ->
     [bench(M, M:benchmarks()) ||
 	M <- [bin_to_term_bm, bs_simple_bm, call_bm, freq_bm, lists_bm, bs_bm,
 	      bs_sum32_bm, call_tail_bm, fun_bm, ref_bm, bs_float_bm,
-	      bs_sum_bm, float_bm, lc_bm, sort_bm]].
+	      bs_sum_bm, float_bm, lc_bm, sort_bm, udp_bm, ets_range_bm,
+	      counters_bm, exit_storm_bm, spawn_bm,
+	      timestamp_bm, backend_bm, hash_bm]].
@@ -0,0 +1,53 @@
+-module(counters_bm).
+-export([benchmarks/0]).
+-export([counters_atomics/1,counters_write_concurrency/1,atomics_add/1,
+	 ets_update_counter/1]).
+
+%% ?PROCS processes bump one shared counter Iter times each.  Compare the
+%% counters and atomics modules with ets:update_counter on a public
+%% write_concurrency table.
+
+-define(PROCS, 16).
+
+benchmarks() ->
+    {10000,[counters_atomics,counters_write_concurrency,atomics_add,
+	    ets_update_counter]}.
+
+counters_atomics(Iter) ->
+    Ref = counters:new(1, [atomics]),
+    run(Iter, fun() -> counters:add(Ref, 1, 1) end),
+    Total = Iter * ?PROCS,
+    Total = counters:get(Ref, 1).
+
+counters_write_concurrency(Iter) ->
+    Ref = counters:new(1, [write_concurrency]),
+    run(Iter, fun() -> counters:add(Ref, 1, 1) end),
+    Total = Iter * ?PROCS,
+    Total = counters:get(Ref, 1).
+
+atomics_add(Iter) ->
+    Ref = atomics:new(1, []),
+    run(Iter, fun() -> atomics:add(Ref, 1, 1) end),
+    Total = Iter * ?PROCS,
+    Total = atomics:get(Ref, 1).
+
+ets_update_counter(Iter) ->
+    T = ets:new(counters_bm, [set, public, {write_concurrency, true}]),
+    ets:insert(T, {count, 0}),
+    run(Iter, fun() -> ets:update_counter(T, count, 1) end),
+    Total = Iter * ?PROCS,
+    [{count,Total}] = ets:lookup(T, count),
+    ets:delete(T).
+
+run(Iter, F) ->
+    Self = self(),
+    Pids = [spawn_link(fun() -> loop(Iter, F), Self ! {self(), done} end)
+	    || _ <- lists:seq(1, ?PROCS)],
+    [receive {Pid, done} -> ok end || Pid <- Pids],
+    ok.
+
+loop(0, _F) ->
+    ok;
+loop(Iter, F) ->
+    F(),
+    loop(Iter-1, F).
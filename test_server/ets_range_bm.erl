@@ -0,0 +1,72 @@
+-module(ets_range_bm).
+-export([benchmarks/0]).
+-export([select_prefix/1,select_count_prefix/1,match_object_prefix/1,
+	 select_full_scan/1]).
+
+%% Range scans of a 1M-row ordered_set keyed by {Tenant, Timestamp}, with
+%% Tenant bound and Timestamp free.  select_full_scan binds only the
+%% Timestamp, which still has to visit every row; compare it with the
+%% others.  The table is filled on first use and owned by a registered
+%% process so that it survives between runs.
+
+-define(TENANTS, 1000).
+-define(PER_TENANT, 1000).
+-define(TAB, ets_range_bm).
+
+benchmarks() ->
+    {20,[select_prefix,select_count_prefix,match_object_prefix,
+	 select_full_scan]}.
+
+select_prefix(Iter) ->
+    T = table(),
+    loop(Iter, fun(Tenant) ->
+		       ?PER_TENANT = length(ets:select(T, [{{{Tenant,'$1'},'_'},[],['$1']}]))
+	       end).
+
+select_count_prefix(Iter) ->
+    T = table(),
+    loop(Iter, fun(Tenant) ->
+		       ?PER_TENANT = ets:select_count(T, [{{{Tenant,'_'},'_'},[],[true]}])
+	       end).
+
+match_object_prefix(Iter) ->
+    T = table(),
+    loop(Iter, fun(Tenant) ->
+		       ?PER_TENANT = length(ets:match_object(T, {{Tenant,'_'},'_'}))
+	       end).
+
+select_full_scan(Iter) ->
+    T = table(),
+    loop(Iter, fun(Tenant) ->
+		       ?TENANTS = length(ets:select(T, [{{{'$1',Tenant+1},'_'},[],['$1']}]))
+	       end).
+
+loop(0, _F) ->
+    ok;
+loop(Iter, F) ->
+    F(Iter rem ?TENANTS),
+    loop(Iter-1, F).
+
+table() ->
+    case whereis(?TAB) of
+	undefined ->
+	    Self = self(),
+	    Pid = spawn(fun() -> owner(Self) end),
+	    receive {Pid, ready} -> ?TAB end;
+	_ ->
+	    ?TAB
+    end.
+
+owner(Parent) ->
+    register(?TAB, self()),
+    ets:new(?TAB, [ordered_set, named_table, public]),
+    fill(?TENANTS),
+    Parent ! {self(), ready},
+    receive stop -> ok end.
+
+fill(0) ->
+    ok;
+fill(N) ->
+    Tenant = N-1,
+    ets:insert(?TAB, [{{Tenant,Ts},Ts} || Ts <- lists:seq(1, ?PER_TENANT)]),
+    fill(N-1).
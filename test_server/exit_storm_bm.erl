@@ -0,0 +1,58 @@
+-module(exit_storm_bm).
+-export([benchmarks/0]).
+-export([link_storm/1,monitor_storm/1]).
+
+%% A process with ?N linked (or monitoring) processes dies; measure until
+%% all of them have got the signal.  The children are local, so this
+%% measures one-at-a-time delivery; only signals to other nodes are
+%% batched.
+
+-define(N, 100000).
+
+benchmarks() ->
+    {5,[link_storm,monitor_storm]}.
+
+link_storm(0) ->
+    ok;
+link_storm(Iter) ->
+    Self = self(),
+    Parent = spawn(fun() -> parent(Self, fun linked_child/1) end),
+    receive {Parent, ready} -> ok end,
+    Ref = monitor(process, Parent),
+    exit(Parent, kill),
+    receive {'DOWN', Ref, _, _, _} -> ok end,
+    wait_children(?N),
+    link_storm(Iter-1).
+
+monitor_storm(0) ->
+    ok;
+monitor_storm(Iter) ->
+    Self = self(),
+    Parent = spawn(fun() -> parent(Self, fun monitoring_child/1) end),
+    receive {Parent, ready} -> ok end,
+    exit(Parent, kill),
+    wait_children(?N),
+    monitor_storm(Iter-1).
+
+parent(Top, Child) ->
+    Self = self(),
+    [spawn(fun() -> Child({Self, Top}) end) || _ <- lists:seq(1, ?N)],
+    wait_children(?N),
+    Top ! {Self, ready},
+    receive after infinity -> ok end.
+
+linked_child({Parent, Top}) ->
+    process_flag(trap_exit, true),
+    link(Parent),
+    Parent ! ok,
+    receive {'EXIT', Parent, _} -> Top ! ok end.
+
+monitoring_child({Parent, Top}) ->
+    Ref = monitor(process, Parent),
+    Parent ! ok,
+    receive {'DOWN', Ref, _, _, _} -> Top ! ok end.
+
+wait_children(0) ->
+    ok;
+wait_children(N) ->
+    receive ok -> wait_children(N-1) end.
@@ -0,0 +1,49 @@
+-module(hash_bm).
+-export([benchmarks/0]).
+-export([phash2_keys/1,ets_tuple_keys/1,ets_string_keys/1,ets_big_keys/1]).
+
+%% Hashing of realistic key shapes: erlang:phash2/2 as used for
+%% sharding, and ETS set lookups with compound keys, which hash the key
+%% on every lookup.
+
+-define(KEYS, 1000).
+
+benchmarks() ->
+    {100,[phash2_keys,ets_tuple_keys,ets_string_keys,ets_big_keys]}.
+
+keys(tuple) ->
+    [{user, N, <<"eu-west">>} || N <- lists:seq(1, ?KEYS)];
+keys(string) ->
+    ["session-" ++ integer_to_list(N) ++ "-abcdefghijklmnop"
+     || N <- lists:seq(1, ?KEYS)];
+keys(big) ->
+    [{order, N, [{item, I, I * 3} || I <- lists:seq(1, 20)],
+      #{customer => N, region => <<"eu-west">>, tags => [a, b, c]}}
+     || N <- lists:seq(1, ?KEYS)].
+
+phash2_keys(Iter) ->
+    Keys = keys(tuple) ++ keys(string) ++ keys(big),
+    loop(Iter, fun() -> [erlang:phash2(K, 64) || K <- Keys] end).
+
+ets_tuple_keys(Iter) ->
+    ets_lookup(Iter, keys(tuple)).
+
+ets_string_keys(Iter) ->
+    ets_lookup(Iter, keys(string)).
+
+ets_big_keys(Iter) ->
+    ets_lookup(Iter, keys(big)).
+
+ets_lookup(Iter, Keys) ->
+    T = ets:new(hash_bm, [set]),
+    ets:insert(T, [{K, value} || K <- Keys]),
+    %% copies, so that nothing is found by identity
+    Probes = binary_to_term(term_to_binary(Keys)),
+    loop(Iter, fun() -> [ets:lookup(T, K) || K <- Probes] end),
+    ets:delete(T).
+
+loop(0, _F) ->
+    ok;
+loop(N, F) ->
+    F(),
+    loop(N-1, F).
@@ -0,0 +1,50 @@
+-module(spawn_bm).
+-export([benchmarks/0]).
+-export([spawn_mfa/1,spawn_fun/1,spawn_link_mfa/1,spawn_monitor_fun/1]).
+-export([child/1]).
+
+%% Spawn Iter short-lived processes, each of which reports back and
+%% exits, as a connection acceptor would.
+
+benchmarks() ->
+    {100000,[spawn_mfa,spawn_fun,spawn_link_mfa,spawn_monitor_fun]}.
+
+spawn_mfa(Iter) ->
+    Self = self(),
+    spawn_loop(Iter, fun() -> spawn(?MODULE, child, [Self]) end).
+
+spawn_fun(Iter) ->
+    Self = self(),
+    spawn_loop(Iter, fun() -> spawn(fun() -> child(Self) end) end).
+
+spawn_link_mfa(Iter) ->
+    Self = self(),
+    spawn_loop(Iter, fun() -> spawn_link(?MODULE, child, [Self]) end).
+
+spawn_monitor_fun(Iter) ->
+    Self = self(),
+    spawn_loop(Iter, fun() -> spawn_monitor(fun() -> child(Self) end) end),
+    flush_down(Iter).
+
+child(Parent) ->
+    Parent ! done.
+
+spawn_loop(Iter, Spawn) ->
+    spawn_n(Iter, Spawn),
+    wait(Iter).
+
+spawn_n(0, _Spawn) ->
+    ok;
+spawn_n(N, Spawn) ->
+    Spawn(),
+    spawn_n(N-1, Spawn).
+
+wait(0) ->
+    ok;
+wait(N) ->
+    receive done -> wait(N-1) end.
+
+flush_down(0) ->
+    ok;
+flush_down(N) ->
+    receive {'DOWN', _, process, _, _} -> flush_down(N-1) end.
@@ -0,0 +1,53 @@
+-module(spawn_mem).
+-export([main/0, main/1]).
+
+%% Spawn N processes that wait in receive, and report the heap used per
+%% process.  Run with a large enough -Xmx, e.g.
+%%
+%%   erl -s spawn_mem main -s erlang halt
+%%
+%% The processes are started from a plain loop, without links or
+%% monitors, so that only the cost of an idle process is measured.
+
+-define(N, 1000000).
+
+main() ->
+    main(?N).
+
+main([N]) when is_atom(N) ->
+    main(list_to_integer(atom_to_list(N)));
+main(N) ->
+    Before = used(),
+    Pids = spawn_idle(N, []),
+    sync(Pids),
+    After = used(),
+    io:format("~p idle processes: ~p bytes/process~n",
+	      [N, (After - Before) div N]),
+    [exit(Pid, kill) || Pid <- Pids],
+    ok.
+
+spawn_idle(0, Acc) ->
+    Acc;
+spawn_idle(N, Acc) ->
+    Pid = spawn(fun idle/0),
+    spawn_idle(N-1, [Pid|Acc]).
+
+idle() ->
+    receive
+	{ping, From} ->
+	    From ! pong,
+	    idle();
+	stop ->
+	    ok
+    end.
+
+%% make sure every process has reached its receive
+sync(Pids) ->
+    [Pid ! {ping, self()} || Pid <- Pids],
+    [receive pong -> ok end || _ <- Pids],
+    ok.
+
+used() ->
+    erlang:garbage_collect(),
+    erlang:garbage_collect(),
+    erlang:memory(total).
@@ -0,0 +1,52 @@
+-module(timestamp_bm).
+-export([benchmarks/0]).
+-export([elapsed_micros/1,to_calendar_seconds/1,encode_decode/1,
+	 binary_timestamps/1]).
+
+%% Arithmetic on microsecond timestamps, which are 64-bit integers well
+%% outside the small integer range.  None of these should need more
+%% than 64 bits, so they measure the long-backed integer paths.
+
+-define(T0, 1318598400000000).			% 2011-10-14 in microseconds
+
+benchmarks() ->
+    {100000,[elapsed_micros,to_calendar_seconds,encode_decode,
+	     binary_timestamps]}.
+
+elapsed_micros(Iter) ->
+    elapsed(Iter, ?T0, 0).
+
+elapsed(0, _Prev, Sum) ->
+    true = Sum > 0;
+elapsed(Iter, Prev, Sum) ->
+    Now = Prev + 1000 + (Iter band 255),
+    elapsed(Iter-1, Now, Sum + (Now - Prev)).
+
+to_calendar_seconds(Iter) ->
+    seconds(Iter, ?T0, 0).
+
+seconds(0, _T, Acc) ->
+    true = Acc > 0;
+seconds(Iter, T, Acc) ->
+    Secs = T div 1000000 + 62167219200,
+    Micro = T rem 1000000,
+    seconds(Iter-1, T + 4711, Acc bxor (Secs * 1000000 + Micro)).
+
+encode_decode(Iter) ->
+    codec(Iter, ?T0).
+
+codec(0, _T) ->
+    ok;
+codec(Iter, T) ->
+    T = binary_to_term(term_to_binary(T)),
+    codec(Iter-1, T + 1).
+
+binary_timestamps(Iter) ->
+    bin(Iter, ?T0).
+
+bin(0, _T) ->
+    ok;
+bin(Iter, T) ->
+    <<T2:64/signed>> = <<T:64/signed>>,
+    T = T2,
+    bin(Iter-1, T + 1).
@@ -0,0 +1,86 @@
+-module(udp_bm).
+-export([benchmarks/0]).
+-export([active/1,active_once/1,active_n/1,passive/1]).
+
+%% Localhost datagram throughput through the udp_inet driver.  Each
+%% iteration sends a window of ?WINDOW datagrams and waits for them to
+%% arrive; a datagram lost on the loopback only costs a ?TMO wait.
+
+-define(WINDOW, 32).
+-define(SIZE, 512).
+-define(TMO, 1000).
+
+benchmarks() ->
+    {2000,[active,active_once,active_n,passive]}.
+
+active(Iter) ->
+    run(Iter, [{active,true}], fun recv_active/2).
+
+active_once(Iter) ->
+    run(Iter, [{active,once}], fun recv_active_once/2).
+
+active_n(Iter) ->
+    run(Iter, [{active,?WINDOW}], fun recv_active_n/2).
+
+passive(Iter) ->
+    run(Iter, [{active,false}], fun recv_passive/2).
+
+run(Iter, Opts, Recv) ->
+    {ok,R} = gen_udp:open(0, [binary,{ip,{127,0,0,1}},{recbuf,256*1024}|Opts]),
+    {ok,S} = gen_udp:open(0, [binary,{ip,{127,0,0,1}}]),
+    {ok,Port} = inet:port(R),
+    Data = list_to_binary(lists:duplicate(?SIZE, $x)),
+    loop(Iter, S, Port, Data, R, Recv),
+    gen_udp:close(S),
+    gen_udp:close(R),
+    ok.
+
+loop(0, _S, _Port, _Data, _R, _Recv) ->
+    ok;
+loop(Iter, S, Port, Data, R, Recv) ->
+    send(?WINDOW, S, Port, Data),
+    Recv(R, ?WINDOW),
+    loop(Iter-1, S, Port, Data, R, Recv).
+
+send(0, _S, _Port, _Data) ->
+    ok;
+send(N, S, Port, Data) ->
+    ok = gen_udp:send(S, {127,0,0,1}, Port, Data),
+    send(N-1, S, Port, Data).
+
+recv_active(_R, 0) ->
+    ok;
+recv_active(R, N) ->
+    receive
+	{udp,R,_,_,_} -> recv_active(R, N-1)
+    after ?TMO -> lost
+    end.
+
+recv_active_once(_R, 0) ->
+    ok;
+recv_active_once(R, N) ->
+    receive
+	{udp,R,_,_,_} ->
+	    inet:setopts(R, [{active,once}]),
+	    recv_active_once(R, N-1)
+    after ?TMO -> lost
+    end.
+
+recv_active_n(_R, 0) ->
+    ok;
+recv_active_n(R, N) ->
+    receive
+	{udp,R,_,_,_} -> recv_active_n(R, N-1);
+	{udp_passive,R} ->
+	    inet:setopts(R, [{active,?WINDOW}]),
+	    recv_active_n(R, N)
+    after ?TMO -> lost
+    end.
+
+recv_passive(_R, 0) ->
+    ok;
+recv_passive(R, N) ->
+    case gen_udp:recv(R, 0, ?TMO) of
+	{ok,_} -> recv_passive(R, N-1);
+	{error,timeout} -> lost
+    end.